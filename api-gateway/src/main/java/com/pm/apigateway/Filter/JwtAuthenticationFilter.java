@@ -83,15 +83,15 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         String token = null;
 
-        // Handle WebSocket authentication via query parameter
-        if (path.startsWith("/ws/")) {
+        // Handle WebSocket and EventSource authentication via query parameter; neither can set headers
+        if (path.startsWith("/ws/") || (path.startsWith("/sse/") && "GET".equals(method))) {
             token = request.getQueryParams().getFirst("token");
             if (token == null || token.trim().isEmpty()) {
-                log.warn("Missing token query parameter for WebSocket path: {}", path);
+                log.warn("Missing token query parameter for streaming path: {}", path);
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete();
             }
-            log.info("Using token from query parameter for WebSocket authentication");
+            log.info("Using token from query parameter for streaming authentication");
         } else {
             // Handle regular HTTP requests via Authorization header
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
@@ -3,7 +3,7 @@ package com.pm.commentservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication(scanBasePackages = {"com.pm.commentservice", "com.pm.commonsecurity"})
+@SpringBootApplication(scanBasePackages = {"com.pm.commentservice", "com.pm.commonsecurity", "com.pm.commonoutbox"})
 public class CommentServiceApplication {
 
     public static void main(String[] args) {
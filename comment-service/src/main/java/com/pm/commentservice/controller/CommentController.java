@@ -1,7 +1,9 @@
 package com.pm.commentservice.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,7 @@ import com.pm.commentservice.security.CommentPermissionEvaluator;
 import com.pm.commentservice.service.CommentService;
 import com.pm.commoncontracts.domain.ParentType;
 import com.pm.commoncontracts.dto.CommentDto;
+import com.pm.commonwebsupport.http.ConditionalGet;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -73,29 +76,33 @@ public class CommentController {
     }
 
     @GetMapping("/project/{projectId}")
-    public Flux<CommentDto> getCommentsForProject(@PathVariable String projectId, Authentication authentication) {
+    public Mono<ResponseEntity<List<CommentDto>>> getCommentsForProject(@PathVariable String projectId, ServerHttpRequest request, Authentication authentication) {
         // Check permission reactively - use general permission for reading comments
-        return commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read comments"));
-                    }
-
-                    return commentService.getCommentsForParent(projectId, ParentType.PROJECT);
-                });
+        return ConditionalGet.collection(request,
+                commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read comments"));
+                            }
+
+                            return commentService.getCommentsForParent(projectId, ParentType.PROJECT);
+                        }),
+                CommentDto::getId, CommentDto::getVersion, Function.identity());
     }
 
     @GetMapping("/task/{taskId}")
-    public Flux<CommentDto> getCommentsForTask(@PathVariable String taskId, Authentication authentication) {
+    public Mono<ResponseEntity<List<CommentDto>>> getCommentsForTask(@PathVariable String taskId, ServerHttpRequest request, Authentication authentication) {
         // Check permission reactively - use general permission for reading comments
-        return commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read comments"));
-                    }
-
-                    return commentService.getCommentsForParent(taskId, ParentType.TASK);
-                });
+        return ConditionalGet.collection(request,
+                commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read comments"));
+                            }
+
+                            return commentService.getCommentsForParent(taskId, ParentType.TASK);
+                        }),
+                CommentDto::getId, CommentDto::getVersion, Function.identity());
     }
 
     @PostMapping("/{parentCommentId}/replies")
@@ -121,16 +128,18 @@ public class CommentController {
     }
 
     @GetMapping("/{parentCommentId}/replies")
-    public Flux<CommentDto> getRepliesForComment(@PathVariable String parentCommentId, Authentication authentication) {
+    public Mono<ResponseEntity<List<CommentDto>>> getRepliesForComment(@PathVariable String parentCommentId, ServerHttpRequest request, Authentication authentication) {
         // Check permission reactively
-        return commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read replies"));
-                    }
-
-                    return commentService.getRepliesForComment(parentCommentId);
-                });
+        return ConditionalGet.collection(request,
+                commentPermissionEvaluator.hasGeneralPermission(authentication, "CMT_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read replies"));
+                            }
+
+                            return commentService.getRepliesForComment(parentCommentId);
+                        }),
+                CommentDto::getId, CommentDto::getVersion, Function.identity());
     }
 
     @PutMapping("/{commentId}")
@@ -7,7 +7,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -20,6 +19,7 @@ import com.pm.commoncontracts.envelope.EventEnvelope;
 import com.pm.commoncontracts.events.comment.CommentAddedEventPayload;
 import com.pm.commoncontracts.events.comment.CommentDeletedEventPayload;
 import com.pm.commoncontracts.events.comment.CommentEditedEventPayload;
+import com.pm.commonoutbox.outbox.OutboxEventPublisher;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -30,16 +30,16 @@ public class CommentService {
     private static final Logger log = LoggerFactory.getLogger(CommentService.class);
 
     private final CommentRepository commentRepository;
-    private final ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaProducerTemplate;
+    private final OutboxEventPublisher outboxPublisher;
     private final String commentEventsTopic;
     private final String serviceName;
 
     public CommentService(CommentRepository commentRepository,
-            ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaProducerTemplate,
+            OutboxEventPublisher outboxPublisher,
             @Value("${kafka.topic.comment-events}") String commentEventsTopic,
             @Value("${spring.application.name}") String serviceName) {
         this.commentRepository = commentRepository;
-        this.kafkaProducerTemplate = kafkaProducerTemplate;
+        this.outboxPublisher = outboxPublisher;
         this.commentEventsTopic = commentEventsTopic;
         this.serviceName = serviceName;
     }
@@ -199,40 +199,22 @@ public class CommentService {
     private Mono<Void> publishCommentCreatedEvent(CommentDto commentDto, String correlationId) {
         var payload = new CommentAddedEventPayload(commentDto);
         var envelope = new EventEnvelope<>(correlationId, CommentAddedEventPayload.EVENT_TYPE, serviceName, payload);
-        return kafkaProducerTemplate.send(commentEventsTopic, commentDto.getId(), envelope)
-                .doOnError(e -> log.error("Failed to send CommentCreatedEvent envelope. CorrID: {}", correlationId, e))
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing CommentCreatedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .then();
+        return outboxPublisher.enqueue(commentEventsTopic, commentDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue CommentCreatedEvent envelope. CorrID: {}", correlationId, e));
     }
 
     private Mono<Void> publishCommentEditedEvent(CommentDto commentDto, String correlationId) {
         var payload = new CommentEditedEventPayload(commentDto);
         var envelope = new EventEnvelope<>(correlationId, CommentEditedEventPayload.EVENT_TYPE, serviceName, payload);
-        return kafkaProducerTemplate.send(commentEventsTopic, commentDto.getId(), envelope)
-                .doOnError(e -> log.error("Failed to send CommentEditedEvent envelope. CorrID: {}", correlationId, e))
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing CommentEditedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .then();
+        return outboxPublisher.enqueue(commentEventsTopic, commentDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue CommentEditedEvent envelope. CorrID: {}", correlationId, e));
     }
 
     private Mono<Void> publishCommentDeletedEvent(CommentDto commentDto, String correlationId) {
         var payload = new CommentDeletedEventPayload(commentDto);
         var envelope = new EventEnvelope<>(correlationId, CommentDeletedEventPayload.EVENT_TYPE, serviceName, payload);
-        return kafkaProducerTemplate.send(commentEventsTopic, commentDto.getId(), envelope)
-                .doOnError(e -> log.error("Failed to send CommentDeletedEvent envelope. CorrID: {}", correlationId, e))
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing CommentDeletedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .then();
+        return outboxPublisher.enqueue(commentEventsTopic, commentDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue CommentDeletedEvent envelope. CorrID: {}", correlationId, e));
     }
 
     // ==============================
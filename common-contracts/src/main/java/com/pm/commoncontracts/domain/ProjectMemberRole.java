@@ -0,0 +1,6 @@
+package com.pm.commoncontracts.domain;
+
+public enum ProjectMemberRole {
+    MEMBER,
+    MANAGER
+}
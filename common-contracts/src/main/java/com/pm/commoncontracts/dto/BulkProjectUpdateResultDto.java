@@ -0,0 +1,45 @@
+package com.pm.commoncontracts.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-project outcome of a bulk status/priority update, in request order.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class BulkProjectUpdateResultDto {
+
+    public enum Outcome {
+        UPDATED,
+        // Already had the requested status and priority; nothing was written
+        UNCHANGED,
+        // The project is not at the expected version, or changed while the bulk update ran
+        CONFLICT,
+        NOT_FOUND,
+        FORBIDDEN,
+        // Repeats an earlier item's project, or requests no change
+        INVALID
+    }
+
+    @Builder.Default
+    private List<ItemResult> results = new ArrayList<>();
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @Data
+    public static class ItemResult {
+        private String id;
+        private Outcome outcome;
+        // The project's version after the update, or the current one if it was not updated
+        private Long version;
+    }
+}
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 
 public class CommentDto
@@ -17,6 +17,7 @@ public class CommentDto
      String id;
      String parentId;  // ID of the task or project being commented on
      ParentType parentType; // "TASK" or "PROJECT"
+     String projectId; // Project of a TASK parent; filled in on the way to WebSocket clients, may be null
      String content;
      String authorId;
      String username;   // Display name of the author
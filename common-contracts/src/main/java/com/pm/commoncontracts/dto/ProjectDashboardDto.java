@@ -0,0 +1,35 @@
+package com.pm.commoncontracts.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.pm.commoncontracts.domain.TaskPriority;
+import com.pm.commoncontracts.domain.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything the project page header and charts show, in one response: the
+ * project summary and its task aggregates.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ProjectDashboardDto {
+
+    private ProjectSummaryDto project;
+    private long taskCount;
+    // Every status and priority is present, with 0 when no task has it
+    @Builder.Default
+    private Map<TaskStatus, Long> tasksByStatus = new LinkedHashMap<>();
+    @Builder.Default
+    private Map<TaskPriority, Long> tasksByPriority = new LinkedHashMap<>();
+    // Open tasks (not DONE or ARCHIVED) due before today, UTC
+    private long overdueTaskCount;
+    // Latest task or comment event for the project; null if there was none
+    private String lastActivityAt;
+}
@@ -34,8 +34,8 @@ public class ProjectDto {
     private String updatedAt;
     private String lastModifiedBy;
     private Long version;
-    @Builder.Default
-    private List<String> taskIds = new ArrayList<>();
+    // Number of tasks in the project; only filled in when a single project is read
+    private Long taskCount;
     private String assignedTo;
     private ProjectPriority priority;
 
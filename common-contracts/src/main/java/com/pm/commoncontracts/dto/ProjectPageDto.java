@@ -0,0 +1,24 @@
+package com.pm.commoncontracts.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a keyset-paginated project listing.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ProjectPageDto {
+
+    @Builder.Default
+    private List<ProjectDto> items = new ArrayList<>();
+    // Opaque cursor for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package com.pm.commoncontracts.dto;
+
+import com.pm.commoncontracts.domain.ProjectPriority;
+import com.pm.commoncontracts.domain.ProjectStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of a project that list and board screens show, returned by
+ * list endpoints with {@code view=summary} instead of a full ProjectDto.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ProjectSummaryDto {
+
+    private String id;
+    private String name;
+    private ProjectStatus status;
+    private ProjectPriority priority;
+    private String ownerId;
+    private String startDate;
+    private String endDate;
+    private String updatedAt;
+    private Long version;
+}
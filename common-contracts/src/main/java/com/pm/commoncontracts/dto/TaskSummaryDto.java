@@ -0,0 +1,30 @@
+package com.pm.commoncontracts.dto;
+
+import com.pm.commoncontracts.domain.TaskPriority;
+import com.pm.commoncontracts.domain.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of a task that list and board screens show, returned by list
+ * endpoints with {@code view=summary} instead of a full TaskDto.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class TaskSummaryDto {
+
+    private String id;
+    private String projectId;
+    private String name;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private String assigneeId;
+    private String dueDate;
+    private String updatedAt;
+    private Long version;
+}
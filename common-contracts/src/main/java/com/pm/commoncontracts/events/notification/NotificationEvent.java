@@ -14,6 +14,7 @@ public enum NotificationEvent {
     PROJECT_TASK_CREATED,
     // TODO: check project member added to project or to assign to a task, its events, logic and notif
     PROJECT_MEMBER_ADDED,
+    PROJECT_MEMBER_REMOVED,
     //task-related
     TASK_ASSIGNED,
     TASK_CREATED,
@@ -0,0 +1,11 @@
+package com.pm.commoncontracts.events.project;
+
+import com.pm.commoncontracts.domain.ProjectMemberRole;
+
+/**
+ * A single user joining a project, published instead of a full
+ * {@link ProjectUpdatedEventPayload} snapshot.
+ */
+public record ProjectMemberAddedEventPayload(String projectId, String userId, ProjectMemberRole role, String addedBy) {
+    public static final String EVENT_TYPE = "PROJECT_MEMBER_ADDED";
+}
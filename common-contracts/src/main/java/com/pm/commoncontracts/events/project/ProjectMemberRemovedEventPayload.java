@@ -0,0 +1,9 @@
+package com.pm.commoncontracts.events.project;
+
+/**
+ * A single user leaving a project; they are removed from both its members
+ * and its managers.
+ */
+public record ProjectMemberRemovedEventPayload(String projectId, String userId, String removedBy) {
+    public static final String EVENT_TYPE = "PROJECT_MEMBER_REMOVED";
+}
@@ -0,0 +1,13 @@
+package com.pm.commoncontracts.events.project;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of a deleted user being removed from every project at once:
+ * the projects they were a member or manager of, and the new owner of each
+ * project they owned, keyed by project id.
+ */
+public record UserRemovedFromProjectsEventPayload(String userId, List<String> projectIds, Map<String, String> newOwnerIds) {
+    public static final String EVENT_TYPE = "USER_REMOVED_FROM_PROJECTS";
+}
@@ -0,0 +1,18 @@
+package com.pm.commoncontracts.requestDto.project;
+
+import com.pm.commoncontracts.domain.ProjectMemberRole;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddProjectMemberRequestDto {
+
+    @NotBlank
+    private String userId;
+    // Managers are also added to the members
+    private ProjectMemberRole role = ProjectMemberRole.MEMBER;
+}
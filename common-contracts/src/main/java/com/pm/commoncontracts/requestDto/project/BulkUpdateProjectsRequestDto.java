@@ -0,0 +1,43 @@
+package com.pm.commoncontracts.requestDto.project;
+
+import java.util.List;
+
+import com.pm.commoncontracts.domain.ProjectPriority;
+import com.pm.commoncontracts.domain.ProjectStatus;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateProjectsRequestDto {
+
+    public static final int MAX_ITEMS = 100;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    @Valid
+    private List<Item> items;
+
+    /**
+     * A status and/or priority change for one project. Without an expected
+     * version the change applies to whatever version is current when it is
+     * made.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotBlank
+        private String id;
+        private Long expectedVersion;
+        private ProjectStatus newStatus;
+        private ProjectPriority newPriority;
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.commonoutbox.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Configuration for the event outbox. Services pick it up by scanning
+ * {@code com.pm.commonoutbox}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfiguration {
+
+    public OutboxConfiguration() {
+        log.info("Initializing event outbox configuration");
+    }
+}
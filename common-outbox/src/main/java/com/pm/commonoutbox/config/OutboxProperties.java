@@ -0,0 +1,67 @@
+package com.pm.commonoutbox.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for the event outbox and its relay.
+ */
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether this instance runs the relay. Events are written to the outbox
+     * either way.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * How often the relay looks for pending events when it has not been
+     * woken up by a local write.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Most events read and published per batch.
+     */
+    private int batchSize = 200;
+
+    /**
+     * How long the relay lease lasts without renewal. Another instance takes
+     * over publishing once the holder has not renewed it for this long.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(15);
+
+    /**
+     * How long published events stay in the outbox before MongoDB expires
+     * them.
+     */
+    private Duration retention = Duration.ofDays(3);
+
+    private Producer producer = new Producer();
+
+    @Data
+    public static class Producer {
+
+        /**
+         * How long the producer waits for more records before sending a
+         * partly filled batch.
+         */
+        private int lingerMs = 20;
+
+        /**
+         * Upper bound, in bytes, of a producer batch per partition.
+         */
+        private int batchSize = 64 * 1024;
+
+        /**
+         * Compression applied to each producer batch: none, gzip, snappy,
+         * lz4 or zstd.
+         */
+        private String compressionType = "lz4";
+    }
+}
@@ -0,0 +1,55 @@
+package com.pm.commonoutbox.outbox;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An event waiting in, or already published from, the service's outbox.
+ *
+ * The envelope is kept as the JSON it will be published as, so the outbox
+ * does not depend on how MongoDB would map each payload type. Ids are
+ * generated ObjectIds, which increase with insertion order within a process;
+ * the relay publishes in id order.
+ */
+@Document(collection = OutboxEvent.COLLECTION)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+    public static final String COLLECTION = "outbox";
+
+    public enum Status {
+        PENDING,
+        SENT,
+        // Could not be read back for publishing; kept for inspection and never retried
+        FAILED
+    }
+
+    @Id
+    private String id;
+
+    private String topic;
+
+    private String key;
+
+    private String eventType;
+
+    private String correlationId;
+
+    private String envelope;
+
+    private Status status;
+
+    private Instant createdAt;
+
+    private Instant sentAt;
+}
@@ -0,0 +1,104 @@
+package com.pm.commonoutbox.outbox;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Entry point for publishing domain events: writes them to the service's
+ * outbox collection, from which the {@link OutboxRelay} sends them to Kafka.
+ *
+ * Enqueue right after the entity write it describes, in the same reactive
+ * chain, so that a Kafka outage no longer loses the event. A completed
+ * enqueue means the event is durable and will be published at least once.
+ */
+@Slf4j
+@Component
+public class OutboxEventPublisher {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<Boolean> enqueued = Sinks.many().multicast().directBestEffort();
+
+    public OutboxEventPublisher(ReactiveMongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * An event to enqueue, with the topic and key it is published under.
+     */
+    public record Message(String topic, String key, EventEnvelope<?> envelope) {
+    }
+
+    /**
+     * Adds an event to the outbox, to be published to {@code topic} under
+     * {@code key}. Events with the same key are published in the order they
+     * were enqueued.
+     */
+    public Mono<Void> enqueue(String topic, String key, EventEnvelope<?> envelope) {
+        return Mono.fromCallable(() -> toOutboxEvent(new Message(topic, key, envelope)))
+                .flatMap(mongoTemplate::insert)
+                .doOnNext(event -> {
+                    log.debug("Enqueued {} [{}] for topic {}. CorrID: {}",
+                            event.getEventType(), event.getId(), topic, event.getCorrelationId());
+                    enqueued.tryEmitNext(Boolean.TRUE);
+                })
+                .then();
+    }
+
+    /**
+     * Adds several events to the outbox in one insert, in list order, for
+     * changes made together. The relay then publishes them together.
+     */
+    public Mono<Void> enqueueAll(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(messages)
+                .map(this::toOutboxEvent)
+                .collectList()
+                .flatMapMany(events -> mongoTemplate.insert(events, OutboxEvent.class))
+                .count()
+                .doOnNext(count -> {
+                    log.debug("Enqueued {} events in one batch", count);
+                    enqueued.tryEmitNext(Boolean.TRUE);
+                })
+                .then();
+    }
+
+    private OutboxEvent toOutboxEvent(Message message) {
+        try {
+            return OutboxEvent.builder()
+                    .topic(message.topic())
+                    .key(message.key())
+                    .eventType(message.envelope().eventType())
+                    .correlationId(message.envelope().correlationId())
+                    .envelope(objectMapper.writeValueAsString(message.envelope()))
+                    .status(OutboxEvent.Status.PENDING)
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + message.envelope().eventType() + " envelope", e);
+        }
+    }
+
+    /**
+     * Signals each event enqueued by this instance, so a local relay can
+     * publish it without waiting for its next poll.
+     */
+    Flux<Boolean> enqueued() {
+        return enqueued.asFlux();
+    }
+}
@@ -0,0 +1,289 @@
+package com.pm.commonoutbox.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.commonoutbox.config.OutboxProperties;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderOptions;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+/**
+ * Publishes the outbox to Kafka in batches, oldest first, and marks what was
+ * sent.
+ *
+ * Every instance of a service runs a relay, but only the holder of the
+ * service's lease in {@code outbox_leases} publishes, so events leave in the
+ * order they were written. The holder renews the lease as it works; the
+ * others retry a few times per lease period and take over once it lapses.
+ *
+ * A pass reads up to {@code batch-size} pending events and hands them to the
+ * producer together, which lingers briefly to fill and compress batches per
+ * partition. Idempotence keeps retries from reordering a partition. An event
+ * is marked sent once Kafka acknowledged it and every earlier event of the
+ * batch with the same topic and key. A failed send leaves that event, and the
+ * later ones for its key, pending, so the next pass sends them again in their
+ * original order. Delivery is therefore at least once: those later events, a
+ * relay that dies between sending and marking, or a lease taken over
+ * mid-pass all repeat events, and consumers must tolerate duplicates (each
+ * envelope keeps its eventId).
+ *
+ * Sent events expire from the collection after {@code retention}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String LEASES = "outbox_leases";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final OutboxEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate;
+    private final String leaseName;
+    private final String instanceId = UUID.randomUUID().toString();
+    // Only touched from the relay loop, one pass at a time
+    private Instant leaseExpiresAt = Instant.EPOCH;
+    private Instant nextLeaseAttempt = Instant.EPOCH;
+    private Disposable subscription;
+
+    @Autowired
+    public OutboxRelay(ReactiveMongoTemplate mongoTemplate, OutboxEventPublisher publisher, ObjectMapper objectMapper,
+            OutboxProperties properties,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.application.name}") String serviceName) {
+        this(mongoTemplate, publisher, objectMapper, properties, new ReactiveKafkaProducerTemplate<>(
+                SenderOptions.create(producerProperties(bootstrapServers, properties.getProducer()))), serviceName);
+    }
+
+    OutboxRelay(ReactiveMongoTemplate mongoTemplate, OutboxEventPublisher publisher, ObjectMapper objectMapper,
+            OutboxProperties properties, ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate,
+            String serviceName) {
+        this.mongoTemplate = mongoTemplate;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.kafkaTemplate = kafkaTemplate;
+        this.leaseName = serviceName;
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("Starting outbox relay for {}: batches of {}, polling every {}",
+                leaseName, properties.getBatchSize(), properties.getPollInterval());
+        ensureIndexes().subscribe(null, e -> log.warn("Could not ensure outbox indexes", e));
+        // A local enqueue triggers a pass straight away; polling picks up other instances' events
+        subscription = Flux.interval(properties.getPollInterval())
+                .map(tick -> Boolean.TRUE)
+                .mergeWith(publisher.enqueued())
+                .onBackpressureDrop()
+                .concatMap(trigger -> drain()
+                        .onErrorResume(e -> {
+                            log.warn("Outbox relay pass failed, retrying on the next poll: {}", e.toString());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        log.info("Stopping outbox relay for {}", leaseName);
+        if (subscription != null && !subscription.isDisposed()) {
+            subscription.dispose();
+        }
+        kafkaTemplate.close();
+    }
+
+    // Publishes batch after batch while the outbox keeps filling them
+    Mono<Void> drain() {
+        return nextBatch()
+                .expand(more -> more ? nextBatch() : Mono.empty())
+                .then();
+    }
+
+    private Mono<Boolean> nextBatch() {
+        return holdLease(Instant.now()).flatMap(held -> held ? relayBatch() : Mono.just(false));
+    }
+
+    /**
+     * Publishes the oldest pending events. Emits whether another full batch
+     * may be waiting.
+     */
+    private Mono<Boolean> relayBatch() {
+        Query pending = Query.query(Criteria.where("status").is(OutboxEvent.Status.PENDING))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(properties.getBatchSize());
+        return mongoTemplate.find(pending, OutboxEvent.class)
+                .collectList()
+                .flatMap(batch -> batch.isEmpty()
+                        ? Mono.just(false)
+                        : publish(batch).map(done -> done == batch.size() && batch.size() == properties.getBatchSize()));
+    }
+
+    // Sends a batch and records the outcome; emits how many events are settled
+    private Mono<Integer> publish(List<OutboxEvent> batch) {
+        List<SenderRecord<String, EventEnvelope<?>, String>> records = new ArrayList<>(batch.size());
+        List<String> unreadable = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                EventEnvelope<?> envelope = objectMapper.readValue(event.getEnvelope(), EventEnvelope.class);
+                records.add(SenderRecord.create(
+                        new ProducerRecord<String, EventEnvelope<?>>(event.getTopic(), event.getKey(), envelope),
+                        event.getId()));
+            } catch (JsonProcessingException e) {
+                log.error("Outbox event {} ({}) cannot be read back, marking it failed", event.getId(), event.getEventType(), e);
+                unreadable.add(event.getId());
+            }
+        }
+        return kafkaTemplate.send(Flux.fromIterable(records))
+                .onErrorResume(e -> {
+                    log.warn("Outbox batch stopped after a send failure, the rest stays pending: {}", e.toString());
+                    return Flux.empty();
+                })
+                .collectMap(SenderResult::correlationMetadata, result -> result.exception() == null)
+                .flatMap(acknowledged -> {
+                    List<String> sent = sendable(batch, acknowledged, unreadable);
+                    return mark(sent, OutboxEvent.Status.SENT)
+                            .then(mark(unreadable, OutboxEvent.Status.FAILED))
+                            .doOnSuccess(v -> log.debug("Relayed {} of {} outbox event(s)", sent.size(), batch.size()))
+                            .thenReturn(sent.size() + unreadable.size());
+                });
+    }
+
+    /**
+     * The events of a batch that can be marked sent, in batch order: those
+     * Kafka acknowledged that follow no unacknowledged event with the same
+     * topic and key. Unreadable events never block their key.
+     */
+    static List<String> sendable(List<OutboxEvent> batch, Map<String, Boolean> acknowledged, List<String> unreadable) {
+        List<String> sent = new ArrayList<>(batch.size());
+        Set<String> blockedKeys = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            if (unreadable.contains(event.getId())) {
+                continue;
+            }
+            // Topic names cannot contain ':'; keyless records are spread over partitions, so they have no order to keep
+            String key = event.getTopic() + ':' + (event.getKey() != null ? event.getKey() : event.getId());
+            if (!Boolean.TRUE.equals(acknowledged.get(event.getId()))) {
+                blockedKeys.add(key);
+            } else if (blockedKeys.contains(key)) {
+                log.debug("Outbox event {} was sent after a failed one for key {}, it will be sent again",
+                        event.getId(), event.getKey());
+            } else {
+                sent.add(event.getId());
+            }
+        }
+        return sent;
+    }
+
+    private Mono<Void> mark(List<String> ids, OutboxEvent.Status status) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        Update update = new Update().set("status", status);
+        if (status == OutboxEvent.Status.SENT) {
+            update.set("sentAt", Instant.now());
+        }
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), update, OutboxEvent.class).then();
+    }
+
+    /**
+     * Whether this instance may publish: renews the lease once half of it
+     * has run, or tries to take it over if it has lapsed.
+     */
+    Mono<Boolean> holdLease(Instant now) {
+        Duration ttl = properties.getLeaseTtl();
+        boolean holding = now.isBefore(leaseExpiresAt);
+        if (holding && now.isBefore(leaseExpiresAt.minus(ttl.dividedBy(2)))) {
+            return Mono.just(true);
+        }
+        if (!holding && now.isBefore(nextLeaseAttempt)) {
+            return Mono.just(false);
+        }
+        Instant expiresAt = now.plus(ttl);
+        Query query = Query.query(Criteria.where("_id").is(leaseName)
+                .orOperator(Criteria.where("owner").is(instanceId), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", instanceId).set("expiresAt", expiresAt);
+        // Upserting a lease someone else holds collides on _id
+        return mongoTemplate.upsert(query, update, LEASES)
+                .map(result -> {
+                    if (!holding) {
+                        log.info("Acquired outbox relay lease for {}", leaseName);
+                    }
+                    leaseExpiresAt = expiresAt;
+                    return true;
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    if (holding) {
+                        log.warn("Lost outbox relay lease for {}", leaseName);
+                    }
+                    leaseExpiresAt = Instant.EPOCH;
+                    nextLeaseAttempt = now.plus(ttl.dividedBy(3));
+                    return Mono.just(false);
+                });
+    }
+
+    Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(OutboxEvent.class);
+        return indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                        .named("status_id"))
+                .then(indexOps.ensureIndex(new Index().on("sentAt", Sort.Direction.ASC)
+                        .expire(properties.getRetention()).named("sentAt_ttl")))
+                .then();
+    }
+
+    private static Map<String, Object> producerProperties(String bootstrapServers, OutboxProperties.Producer producer) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Enable type headers for proper deserialization of generic types
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
+        props.put(JsonSerializer.TYPE_MAPPINGS, "eventEnvelope:com.pm.commoncontracts.envelope.EventEnvelope");
+        // Idempotence keeps each partition in order across retries with several batches in flight
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, producer.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producer.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producer.getCompressionType());
+        return props;
+    }
+}
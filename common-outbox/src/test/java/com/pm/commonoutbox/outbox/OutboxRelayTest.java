@@ -0,0 +1,303 @@
+package com.pm.commonoutbox.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.client.result.UpdateResult;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.project.ProjectMemberRemovedEventPayload;
+import com.pm.commonoutbox.config.OutboxProperties;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the outbox relay: lease handling, batch draining, per-key
+ * ordering across failed sends and expiry of sent events
+ */
+public class OutboxRelayTest {
+
+    private static final String TOPIC = "project-events";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(15);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final FakeOutbox outbox = new FakeOutbox();
+    private final FakeLeases leases = new FakeLeases();
+    private final FakeKafka kafka = new FakeKafka();
+    private final OutboxProperties properties = new OutboxProperties();
+
+    OutboxRelayTest() {
+        properties.setBatchSize(3);
+        properties.setLeaseTtl(LEASE_TTL);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenAnswer(call -> outbox.find(call.getArgument(0)));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenAnswer(call -> outbox.update(call.getArgument(0), call.getArgument(1)));
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(OutboxRelay.LEASES)))
+                .thenAnswer(call -> leases.upsert(call.getArgument(0), call.getArgument(1)));
+    }
+
+    @Test
+    void testLeaseIsAcquiredHeldAndTakenOverOnceItLapses() {
+        OutboxRelay first = relay();
+        OutboxRelay second = relay();
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertThat(first.holdLease(start).block()).isTrue();
+        assertThat(second.holdLease(start).block()).isFalse();
+        // Refused instances only retry a few times per lease period
+        assertThat(second.holdLease(start.plusSeconds(2)).block()).isFalse();
+        assertThat(leases.attempts).isEqualTo(2);
+        // Renewed only once half of the lease has run
+        assertThat(first.holdLease(start.plusSeconds(5)).block()).isTrue();
+        assertThat(leases.writes).isEqualTo(1);
+        assertThat(first.holdLease(start.plusSeconds(8)).block()).isTrue();
+        assertThat(leases.writes).isEqualTo(2);
+
+        // The holder stops renewing; the other instance is refused until the lease lapses, then takes it over
+        assertThat(second.holdLease(start.plusSeconds(10)).block()).isFalse();
+        assertThat(leases.writes).isEqualTo(2);
+        assertThat(second.holdLease(start.plusSeconds(24)).block()).isTrue();
+        assertThat(leases.writes).isEqualTo(3);
+        assertThat(first.holdLease(start.plusSeconds(25)).block()).isFalse();
+    }
+
+    @Test
+    void testDrainPublishesFullBatchesOldestFirstAndMarksThemSent() {
+        for (int i = 1; i <= 7; i++) {
+            outbox.add(event(i, "project-" + i));
+        }
+
+        relay().drain().block();
+
+        assertThat(kafka.sent).containsExactly("e1", "e2", "e3", "e4", "e5", "e6", "e7");
+        assertThat(kafka.batches).isEqualTo(3);
+        assertThat(outbox.withStatus(OutboxEvent.Status.SENT)).containsExactly("e1", "e2", "e3", "e4", "e5", "e6", "e7");
+    }
+
+    @Test
+    void testFailedSendHoldsBackLaterEventsForTheSameKey() {
+        properties.setBatchSize(10);
+        outbox.add(event(1, "project-a"));
+        outbox.add(event(2, "project-b"));
+        outbox.add(event(3, "project-a"));
+        outbox.add(event(4, "project-b"));
+        kafka.failing.add("e1");
+
+        OutboxRelay relay = relay();
+        relay.drain().block();
+
+        // e3 reached Kafka but must not be settled before e1
+        assertThat(outbox.withStatus(OutboxEvent.Status.SENT)).containsExactly("e2", "e4");
+        assertThat(outbox.withStatus(OutboxEvent.Status.PENDING)).containsExactly("e1", "e3");
+
+        kafka.failing.clear();
+        relay.drain().block();
+
+        assertThat(kafka.sent).containsExactly("e1", "e2", "e3", "e4", "e1", "e3");
+        assertThat(outbox.withStatus(OutboxEvent.Status.SENT)).containsExactly("e1", "e2", "e3", "e4");
+    }
+
+    @Test
+    void testSendableKeepsOrderPerTopicAndKey() {
+        List<OutboxEvent> batch = List.of(event(1, "a"), event(2, "a"), event(3, "b"),
+                event(4, null), event(5, null), event(6, "a"));
+        batch.get(5).setTopic("task-events");
+
+        List<String> sent = OutboxRelay.sendable(batch,
+                Map.of("e1", false, "e2", true, "e3", true, "e4", false, "e5", true, "e6", true), List.of());
+
+        // Keyless events do not block each other, nor does the same key on another topic
+        assertThat(sent).containsExactly("e3", "e5", "e6");
+    }
+
+    @Test
+    void testUnreadableEventIsMarkedFailedWithoutBlockingItsKey() {
+        outbox.add(event(1, "project-a"));
+        OutboxEvent broken = event(2, "project-a");
+        broken.setEnvelope("{not json");
+        outbox.add(broken);
+        outbox.add(event(3, "project-a"));
+
+        relay().drain().block();
+
+        assertThat(kafka.sent).containsExactly("e1", "e3");
+        assertThat(outbox.withStatus(OutboxEvent.Status.SENT)).containsExactly("e1", "e3");
+        assertThat(outbox.withStatus(OutboxEvent.Status.FAILED)).containsExactly("e2");
+    }
+
+    @Test
+    void testSentEventsExpireAfterTheRetention() {
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        when(mongoTemplate.indexOps(OutboxEvent.class)).thenReturn(indexOps);
+        when(indexOps.ensureIndex(any())).thenReturn(Mono.just("index"));
+        properties.setRetention(Duration.ofDays(2));
+
+        relay().ensureIndexes().block();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(2)).ensureIndex(indexes.capture());
+        IndexDefinition ttl = indexes.getAllValues().get(1);
+        assertThat(ttl.getIndexKeys()).containsOnlyKeys("sentAt");
+        assertThat(ttl.getIndexOptions().get("expireAfterSeconds")).isEqualTo(Duration.ofDays(2).toSeconds());
+    }
+
+    private OutboxRelay relay() {
+        return new OutboxRelay(mongoTemplate, mock(OutboxEventPublisher.class), objectMapper, properties,
+                kafka.template(), "project-service");
+    }
+
+    private OutboxEvent event(int n, String key) {
+        try {
+            EventEnvelope<ProjectMemberRemovedEventPayload> envelope = new EventEnvelope<>("corr-" + n,
+                    ProjectMemberRemovedEventPayload.EVENT_TYPE, "project-service",
+                    new ProjectMemberRemovedEventPayload(key, "user-" + n, "admin"));
+            return OutboxEvent.builder()
+                    .id("e" + n)
+                    .topic(TOPIC)
+                    .key(key)
+                    .eventType(envelope.eventType())
+                    .envelope(objectMapper.writeValueAsString(envelope))
+                    .status(OutboxEvent.Status.PENDING)
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The outbox collection: finds pending events in id order and applies status updates by id
+    private static final class FakeOutbox {
+
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        void add(OutboxEvent event) {
+            events.add(event);
+        }
+
+        Flux<OutboxEvent> find(Query query) {
+            Object status = query.getQueryObject().get("status");
+            return Flux.fromIterable(events.stream()
+                    .filter(event -> event.getStatus() == status)
+                    .limit(query.getLimit())
+                    .toList());
+        }
+
+        Mono<UpdateResult> update(Query query, UpdateDefinition update) {
+            Collection<?> ids = (Collection<?>) ((Document) query.getQueryObject().get("_id")).get("$in");
+            Document set = (Document) ((Update) update).getUpdateObject().get("$set");
+            long matched = 0;
+            for (OutboxEvent event : events) {
+                if (ids.contains(event.getId())) {
+                    event.setStatus((OutboxEvent.Status) set.get("status"));
+                    event.setSentAt((Instant) set.get("sentAt"));
+                    matched++;
+                }
+            }
+            return Mono.just(UpdateResult.acknowledged(matched, matched, null));
+        }
+
+        List<String> withStatus(OutboxEvent.Status status) {
+            return events.stream().filter(event -> event.getStatus() == status).map(OutboxEvent::getId).toList();
+        }
+    }
+
+    // The single lease document: matches when this instance owns it or it has expired, else the upsert collides on _id
+    private static final class FakeLeases {
+
+        private Object owner;
+        private Instant expiresAt;
+        private int attempts;
+        private int writes;
+
+        @SuppressWarnings("unchecked")
+        Mono<UpdateResult> upsert(Query query, UpdateDefinition update) {
+            attempts++;
+            List<Document> or = (List<Document>) query.getQueryObject().get("$or");
+            Object requester = or.get(0).get("owner");
+            Instant now = (Instant) ((Document) or.get(1).get("expiresAt")).get("$lt");
+            if (owner != null && !owner.equals(requester) && !expiresAt.isBefore(now)) {
+                return Mono.error(new DuplicateKeyException("E11000 duplicate key error collection: outbox_leases"));
+            }
+            Document set = (Document) ((Update) update).getUpdateObject().get("$set");
+            owner = set.get("owner");
+            expiresAt = (Instant) set.get("expiresAt");
+            writes++;
+            return Mono.just(UpdateResult.acknowledged(1, 1L, null));
+        }
+    }
+
+    // Records what was sent, in order, and fails the sends of chosen event ids
+    private static final class FakeKafka {
+
+        private final List<String> sent = new ArrayList<>();
+        private final Set<String> failing = new HashSet<>();
+        private int batches;
+
+        @SuppressWarnings("unchecked")
+        ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> template() {
+            ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> template = mock(ReactiveKafkaProducerTemplate.class);
+            when(template.send(any(Publisher.class))).thenAnswer(call -> {
+                batches++;
+                Publisher<SenderRecord<String, EventEnvelope<?>, String>> records = call.getArgument(0);
+                return Flux.from(records).map(record -> {
+                    String id = record.correlationMetadata();
+                    sent.add(id);
+                    return result(id, failing.contains(id) ? new IllegalStateException("send failed") : null);
+                });
+            });
+            return template;
+        }
+
+        private static SenderResult<String> result(String id, Exception exception) {
+            return new SenderResult<>() {
+                @Override
+                public RecordMetadata recordMetadata() {
+                    return null;
+                }
+
+                @Override
+                public Exception exception() {
+                    return exception;
+                }
+
+                @Override
+                public String correlationMetadata() {
+                    return id;
+                }
+            };
+        }
+    }
+}
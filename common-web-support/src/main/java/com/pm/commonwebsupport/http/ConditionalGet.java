@@ -0,0 +1,127 @@
+package com.pm.commonwebsupport.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.DigestUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Conditional GET for entity and list endpoints, with ETags derived from the
+ * entities' {@code @Version} fields.
+ *
+ * The tag is worked out from the entity (or the listed entities) as read,
+ * and a request whose {@code If-None-Match} names it gets an empty 304
+ * before the body is mapped or serialized. A list's tag covers each
+ * element's id and version in order, so it changes when any element is
+ * updated, added, removed or reordered.
+ *
+ * Responses are marked {@code private, no-cache}: clients may keep them but
+ * must revalidate, which is what turns a poll into a 304.
+ */
+public final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Strong ETag for one version of an entity. Qualifiers add state that
+     * is served with the entity but does not bump its version. Null when
+     * the version is unknown, since such a tag would never change.
+     */
+    public static String versionTag(Long version, Object... qualifiers) {
+        if (version == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder("\"v").append(version);
+        for (Object qualifier : qualifiers) {
+            tag.append('-').append(qualifier);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Strong ETag for a list, from each element's id and version in order.
+     * Null if any element has no version.
+     */
+    public static <E> String collectionTag(List<E> elements, Function<? super E, ?> id, Function<? super E, Long> version) {
+        StringBuilder state = new StringBuilder().append(elements.size());
+        for (E element : elements) {
+            Long elementVersion = version.apply(element);
+            if (elementVersion == null) {
+                return null;
+            }
+            state.append('\n').append(id.apply(element)).append(':').append(elementVersion);
+        }
+        return "\"c" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Whether the request's {@code If-None-Match} matches the tag, using the
+     * weak comparison RFC 9110 prescribes for it.
+     */
+    public static boolean notModified(ServerHttpRequest request, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serves one entity: 304 if the client has its current tag, otherwise
+     * 200 with the mapped body. Empty if the entity is.
+     */
+    public static <E, D> Mono<ResponseEntity<D>> entity(ServerHttpRequest request, Mono<E> entity,
+            Function<? super E, String> etag, Function<? super E, ? extends Mono<D>> body) {
+        return entity.flatMap(found -> {
+            String tag = etag.apply(found);
+            if (notModified(request, tag)) {
+                return Mono.just(notModifiedResponse(tag));
+            }
+            return body.apply(found).map(mapped -> okResponse(tag, mapped));
+        });
+    }
+
+    /**
+     * Serves a list: 304 if the client has its current tag, otherwise 200
+     * with the elements mapped in order.
+     */
+    public static <E, D> Mono<ResponseEntity<List<D>>> collection(ServerHttpRequest request, Flux<E> elements,
+            Function<? super E, ?> id, Function<? super E, Long> version, Function<? super E, D> body) {
+        return elements.collectList().map(list -> {
+            String tag = collectionTag(list, id, version);
+            if (notModified(request, tag)) {
+                return notModifiedResponse(tag);
+            }
+            List<D> mapped = list.stream().<D>map(body).toList();
+            return okResponse(tag, mapped);
+        });
+    }
+
+    private static <D> ResponseEntity<D> notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    private static <D> ResponseEntity<D> okResponse(String etag, D body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag).cacheControl(REVALIDATE);
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,113 @@
+package com.pm.commonwebsupport.http;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for ETag generation and If-None-Match handling
+ */
+public class ConditionalGetTest {
+
+    record Item(String id, Long version) {
+    }
+
+    @Test
+    void testVersionTag() {
+        assertThat(ConditionalGet.versionTag(3L)).isEqualTo("\"v3\"");
+        assertThat(ConditionalGet.versionTag(3L, "t12")).isEqualTo("\"v3-t12\"");
+        assertThat(ConditionalGet.versionTag(null)).isNull();
+    }
+
+    @Test
+    void testCollectionTagFollowsIdsVersionsAndOrder() {
+        List<Item> items = List.of(new Item("a", 1L), new Item("b", 2L));
+        String tag = ConditionalGet.collectionTag(items, Item::id, Item::version);
+
+        assertThat(tag).startsWith("\"c").endsWith("\"");
+        assertThat(ConditionalGet.collectionTag(List.of(new Item("a", 1L), new Item("b", 2L)), Item::id, Item::version))
+                .isEqualTo(tag);
+        assertThat(ConditionalGet.collectionTag(List.of(new Item("a", 1L), new Item("b", 3L)), Item::id, Item::version))
+                .isNotEqualTo(tag);
+        assertThat(ConditionalGet.collectionTag(List.of(new Item("b", 2L), new Item("a", 1L)), Item::id, Item::version))
+                .isNotEqualTo(tag);
+        assertThat(ConditionalGet.collectionTag(List.of(new Item("a", 1L)), Item::id, Item::version))
+                .isNotEqualTo(tag);
+        assertThat(ConditionalGet.collectionTag(List.of(new Item("a", null)), Item::id, Item::version)).isNull();
+    }
+
+    @Test
+    void testNotModifiedUsesWeakComparison() {
+        assertThat(ConditionalGet.notModified(requestWith("\"v3\""), "\"v3\"")).isTrue();
+        assertThat(ConditionalGet.notModified(requestWith("W/\"v3\""), "\"v3\"")).isTrue();
+        assertThat(ConditionalGet.notModified(requestWith("\"v2\", \"v3\""), "\"v3\"")).isTrue();
+        assertThat(ConditionalGet.notModified(requestWith("*"), "\"v3\"")).isTrue();
+        assertThat(ConditionalGet.notModified(requestWith("\"v2\""), "\"v3\"")).isFalse();
+        assertThat(ConditionalGet.notModified(MockServerHttpRequest.get("/").build(), "\"v3\"")).isFalse();
+        assertThat(ConditionalGet.notModified(requestWith("*"), null)).isFalse();
+    }
+
+    @Test
+    void testEntityAnswersMatchingTagWithoutMapping() {
+        AtomicInteger mapped = new AtomicInteger();
+        ResponseEntity<String> response = ConditionalGet.entity(requestWith("\"v3\""), Mono.just(new Item("a", 3L)),
+                item -> ConditionalGet.versionTag(item.version()),
+                item -> {
+                    mapped.incrementAndGet();
+                    return Mono.just(item.id());
+                }).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v3\"");
+        assertThat(response.getBody()).isNull();
+        assertThat(mapped).hasValue(0);
+    }
+
+    @Test
+    void testEntityServesBodyWithTag() {
+        ResponseEntity<String> response = ConditionalGet.entity(requestWith("\"v2\""), Mono.just(new Item("a", 3L)),
+                item -> ConditionalGet.versionTag(item.version()), item -> Mono.just(item.id())).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v3\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        assertThat(response.getBody()).isEqualTo("a");
+    }
+
+    @Test
+    void testEntityPassesEmptyThrough() {
+        assertThat(ConditionalGet.entity(requestWith("*"), Mono.<Item>empty(),
+                item -> ConditionalGet.versionTag(item.version()), item -> Mono.just(item.id())).blockOptional())
+                .isEmpty();
+    }
+
+    @Test
+    void testCollection() {
+        Flux<Item> items = Flux.just(new Item("a", 1L), new Item("b", 2L));
+        ResponseEntity<List<String>> first = ConditionalGet.collection(MockServerHttpRequest.get("/").build(), items,
+                Item::id, Item::version, Item::id).block();
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).containsExactly("a", "b");
+
+        ResponseEntity<List<String>> poll = ConditionalGet.collection(requestWith(first.getHeaders().getETag()), items,
+                Item::id, Item::version, Item::id).block();
+
+        assertThat(poll.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(poll.getBody()).isNull();
+    }
+
+    private static ServerHttpRequest requestWith(String ifNoneMatch) {
+        return MockServerHttpRequest.get("/").header("If-None-Match", ifNoneMatch).build();
+    }
+}
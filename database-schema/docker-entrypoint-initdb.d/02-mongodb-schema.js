@@ -85,6 +85,11 @@ db.createCollection("projects", {
           minLength: 1,
           maxLength: 200,
         },
+        nameKey: { bsonType: "string" },
+        nameTokens: {
+          bsonType: "array",
+          items: { bsonType: "string" },
+        },
         description: {
           bsonType: "string",
           maxLength: 2000,
@@ -117,10 +122,6 @@ db.createCollection("projects", {
           bsonType: "array",
           items: { bsonType: "objectId" },
         },
-        taskIds: {
-          bsonType: "array",
-          items: { bsonType: "objectId" },
-        },
         createdAt: { bsonType: "date" },
         updatedAt: { bsonType: "date" },
         createdBy: { bsonType: "objectId" },
@@ -133,13 +134,20 @@ db.createCollection("projects", {
 
 // Project Collection Indexes
 db.projects.createIndex({ name: 1 });
-db.projects.createIndex({ ownerId: 1 });
-db.projects.createIndex({ managerIds: 1 });
-db.projects.createIndex({ memberIds: 1 });
+// Name search: lower-cased name key and word tokens, matched by anchored prefix regex
+db.projects.createIndex({ nameKey: 1 });
+db.projects.createIndex({ nameTokens: 1, nameKey: 1 });
+// Membership indexes, compound with the default "my projects" sort so each
+// branch of the membership $or is an index range scan in sorted order
+db.projects.createIndex({ ownerId: 1, updatedAt: -1, _id: -1 });
+db.projects.createIndex({ managerIds: 1, updatedAt: -1, _id: -1 });
+db.projects.createIndex({ memberIds: 1, updatedAt: -1, _id: -1 });
 db.projects.createIndex({ status: 1 });
 db.projects.createIndex({ priority: 1 });
 db.projects.createIndex({ createdAt: 1 });
 db.projects.createIndex({ startDate: 1, endDate: 1 });
+// Dashboard read model: per-task facts; tombstones of deleted tasks expire after 7 days
+db.project_task_facts.createIndex({ deletedAt: 1 }, { expireAfterSeconds: 604800 });
 
 print("Project database schema created successfully!");
 
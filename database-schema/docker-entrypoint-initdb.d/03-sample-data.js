@@ -108,7 +108,6 @@ const projects = [
       userIdMap["sarah_brown"],
     ],
     createdBy: userIdMap["john_doe"],
-    taskIds: [], // Intentionally empty, will be updated later.
     version: 0,
   },
   {
@@ -121,7 +120,6 @@ const projects = [
     managerIds: [userIdMap["john_doe"]],
     memberIds: [userIdMap["jane_smith"], userIdMap["mike_wilson"]],
     createdBy: userIdMap["john_doe"],
-    taskIds: [],
     version: 0,
   },
   {
@@ -134,7 +132,6 @@ const projects = [
     managerIds: [userIdMap["john_doe"]],
     memberIds: [userIdMap["mike_wilson"], userIdMap["sarah_brown"]],
     createdBy: userIdMap["john_doe"],
-    taskIds: [],
     version: 0,
   },
 ];
@@ -265,33 +262,69 @@ db.comments.insertMany(comments);
 print("✅ Step 4: Sample comments inserted successfully.");
 
 // =======================================
-//  Step 5: Link Tasks back to Projects
+//  Step 5: Seed Project Task Counters
 // =======================================
 db = db.getSiblingDB("projectdb");
 
-// For each project, find all tasks that reference it and update its taskIds array.
-// This is a more robust method than updating one by one.
+// Projects do not embed their task ids; task-service finds them by projectId.
+// Only the per-project aggregates and per-task facts are stored here, kept up to date from task events.
+// Dashboard aggregates are only ever moved by swapping a task's fact (see
+// ProjectDashboardService), so every seeded task gets its fact next to the counters.
+const CLOSED_TASK_STATUSES = ["DONE", "ARCHIVED"];
+
+function taskFact(task) {
+  const open = !CLOSED_TASK_STATUSES.includes(task.status);
+  return {
+    _id: task._id,
+    projectId: task.projectId,
+    status: task.status,
+    priority: task.priority,
+    openDueDay: open && task.dueDate ? task.dueDate.toISOString().substring(0, 10) : null,
+    version: NumberLong(task.version || 0),
+    deleted: false,
+  };
+}
+
+function taskStats(facts) {
+  const stats = { taskCount: 0, byStatus: {}, byPriority: {}, openDueByDay: {} };
+  facts.forEach((fact) => {
+    stats.taskCount++;
+    stats.byStatus[fact.status] = (stats.byStatus[fact.status] || 0) + 1;
+    stats.byPriority[fact.priority] = (stats.byPriority[fact.priority] || 0) + 1;
+    if (fact.openDueDay) {
+      stats.openDueByDay[fact.openDueDay] = (stats.openDueByDay[fact.openDueDay] || 0) + 1;
+    }
+  });
+  const toLongs = (counts) =>
+    Object.fromEntries(Object.entries(counts).map(([key, count]) => [key, NumberLong(count)]));
+  return {
+    taskCount: NumberLong(stats.taskCount),
+    byStatus: toLongs(stats.byStatus),
+    byPriority: toLongs(stats.byPriority),
+    openDueByDay: toLongs(stats.openDueByDay),
+  };
+}
+
 for (const projectName in projectIdMap) {
   const projId = projectIdMap[projectName];
 
-  // Find all tasks for the current project
-  const tasksForProject = db
+  const facts = db
     .getSiblingDB("taskdb")
     .tasks.find({ projectId: projId.valueOf() })
-    .toArray();
-  const taskIdsForProject = tasksForProject.map((task) => task._id.valueOf());
+    .toArray()
+    .map(taskFact);
+  facts.forEach((fact) =>
+    db.project_task_facts.replaceOne({ _id: fact._id }, fact, { upsert: true })
+  );
 
-  if (taskIdsForProject.length > 0) {
-    db.projects.updateOne(
-      { _id: ObjectId(projId) },
-      { $set: { taskIds: taskIdsForProject } }
-    );
-    print(
-      `   -> Linked ${taskIdsForProject.length} tasks to project '${projectName}'.`
-    );
-  }
+  db.project_task_stats.replaceOne(
+    { _id: ObjectId(projId) },
+    taskStats(facts),
+    { upsert: true }
+  );
+  print(`   -> Counted ${facts.length} tasks for project '${projectName}'.`);
 }
-print("✅ Step 5: Project-to-Task links established.");
+print("✅ Step 5: Project task aggregates seeded.");
 
 // =======================================
 //  Step 6: Insert Notifications (Now that all entities exist)
@@ -126,7 +126,6 @@ const projects = [
     startDate: new Date("2024-03-01T00:00:00Z"),
     endDate: new Date("2024-06-30T00:00:00Z"),
     assignedTo: ["user-003", "user-004"],
-    taskIds: ["task-001", "task-002", "task-003"],
     createdAt: new Date("2024-02-15T00:00:00Z"),
     updatedAt: new Date("2024-11-30T00:00:00Z"),
     createdBy: "user-002",
@@ -146,7 +145,6 @@ const projects = [
     startDate: new Date("2024-04-01T00:00:00Z"),
     endDate: new Date("2024-08-31T00:00:00Z"),
     assignedTo: ["user-003"],
-    taskIds: ["task-004", "task-005"],
     createdAt: new Date("2024-03-01T00:00:00Z"),
     updatedAt: new Date("2024-03-01T00:00:00Z"),
     createdBy: "user-002",
@@ -166,7 +164,6 @@ const projects = [
     startDate: new Date("2024-01-01T00:00:00Z"),
     endDate: new Date("2024-02-29T00:00:00Z"),
     assignedTo: ["user-004"],
-    taskIds: ["task-006"],
     createdAt: new Date("2023-12-15T00:00:00Z"),
     updatedAt: new Date("2024-02-29T00:00:00Z"),
     createdBy: "user-002",
@@ -319,6 +316,57 @@ const tasks = [
 db.tasks.insertMany(tasks);
 print("Sample tasks inserted successfully into taskdb!");
 
+// =======================================
+// SEED PROJECT TASK AGGREGATES (projectdb)
+// =======================================
+use("projectdb");
+
+// Dashboard aggregates are only ever moved by swapping a task's fact (see
+// ProjectDashboardService), so every seeded task gets its fact next to the counters.
+const CLOSED_TASK_STATUSES = ["DONE", "ARCHIVED"];
+
+function taskFact(task) {
+  const open = !CLOSED_TASK_STATUSES.includes(task.status);
+  return {
+    _id: task._id,
+    projectId: task.projectId,
+    status: task.status,
+    priority: task.priority,
+    openDueDay: open && task.dueDate ? task.dueDate.toISOString().substring(0, 10) : null,
+    version: NumberLong(task.version || 0),
+    deleted: false,
+  };
+}
+
+function taskStats(facts) {
+  const stats = { taskCount: 0, byStatus: {}, byPriority: {}, openDueByDay: {} };
+  facts.forEach((fact) => {
+    stats.taskCount++;
+    stats.byStatus[fact.status] = (stats.byStatus[fact.status] || 0) + 1;
+    stats.byPriority[fact.priority] = (stats.byPriority[fact.priority] || 0) + 1;
+    if (fact.openDueDay) {
+      stats.openDueByDay[fact.openDueDay] = (stats.openDueByDay[fact.openDueDay] || 0) + 1;
+    }
+  });
+  const toLongs = (counts) =>
+    Object.fromEntries(Object.entries(counts).map(([key, count]) => [key, NumberLong(count)]));
+  return {
+    taskCount: NumberLong(stats.taskCount),
+    byStatus: toLongs(stats.byStatus),
+    byPriority: toLongs(stats.byPriority),
+    openDueByDay: toLongs(stats.openDueByDay),
+  };
+}
+
+// Task counters live beside the projects, not inside them
+const taskFacts = tasks.map(taskFact);
+db.project_task_facts.insertMany(taskFacts);
+projects.forEach((project) => {
+  const facts = taskFacts.filter((fact) => fact.projectId === project._id);
+  db.project_task_stats.insertOne({ _id: project._id, ...taskStats(facts) });
+});
+print("Project task aggregates seeded into projectdb!");
+
 // =======================================
 // INSERT SAMPLE COMMENTS (commentdb)
 // =======================================
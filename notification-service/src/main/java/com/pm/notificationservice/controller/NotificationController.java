@@ -1,5 +1,8 @@
 package com.pm.notificationservice.controller;
 
+import java.util.List;
+import java.util.function.Function;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.pm.commoncontracts.dto.NotificationDto;
+import com.pm.commonwebsupport.http.ConditionalGet;
 import com.pm.notificationservice.security.ReactiveNotificationPermissionEvaluator;
 import com.pm.notificationservice.service.NotificationService;
 
@@ -31,17 +35,19 @@ public class NotificationController {
     }
 
     @GetMapping
-    public Flux<NotificationDto> getUserNotifications(ServerHttpRequest request, Authentication authentication) {
+    public Mono<ResponseEntity<List<NotificationDto>>> getUserNotifications(ServerHttpRequest request, Authentication authentication) {
         String userId = extractUserIdFromHeader(request);
 
-        return permissionEvaluator.hasGeneralPermission(authentication, "NOTI_READ")
-                .flatMapMany(hasAccess -> {
-                    if (hasAccess) {
-                        return notificationService.getNotificationsForUser(userId);
-                    } else {
-                        return Flux.error(new org.springframework.security.access.AccessDeniedException("Access denied"));
-                    }
-                });
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "NOTI_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return notificationService.getNotificationsForUser(userId);
+                            } else {
+                                return Flux.error(new org.springframework.security.access.AccessDeniedException("Access denied"));
+                            }
+                        }),
+                NotificationDto::getId, NotificationDto::getVersion, Function.identity());
     }
 
     @PostMapping("/mark-read/{notificationId}")
@@ -1353,9 +1353,41 @@ public class NotificationService {
 
     /**
      * Publishes comment domain events to WebSocket topics for frontend
-     * real-time updates
+     * real-time updates. Task comments get their task's project id filled in,
+     * so the dispatcher can route them below the project
+     * (project:&lt;id&gt;/task/&lt;taskId&gt;/comment); if the task cannot be
+     * read they are still sent, for task:&lt;taskId&gt; subscribers only.
      */
     private Mono<Void> publishCommentDomainEventToWebSocket(Object eventPayload, String parentType, String parentId, String correlationId) {
+        if (!"TASK".equals(parentType)) {
+            return sendCommentDomainEventToWebSocket(eventPayload, parentType, parentId, correlationId);
+        }
+        return taskWebClient.get()
+                .uri("/{id}", parentId)
+                .retrieve()
+                .bodyToMono(TaskDto.class)
+                .mapNotNull(TaskDto::getProjectId)
+                .onErrorResume(error -> {
+                    logger.warn("Failed to get project of task {} for comment WebSocket routing. CorrID: {}", parentId, correlationId, error);
+                    return Mono.empty();
+                })
+                .map(projectId -> withCommentProjectId(eventPayload, projectId))
+                .defaultIfEmpty(eventPayload)
+                .flatMap(payload -> sendCommentDomainEventToWebSocket(payload, parentType, parentId, correlationId));
+    }
+
+    private Object withCommentProjectId(Object eventPayload, String projectId) {
+        if (eventPayload instanceof CommentAddedEventPayload added) {
+            return new CommentAddedEventPayload(added.commentDto().toBuilder().projectId(projectId).build());
+        } else if (eventPayload instanceof CommentEditedEventPayload edited) {
+            return new CommentEditedEventPayload(edited.commentDto().toBuilder().projectId(projectId).build());
+        } else if (eventPayload instanceof CommentDeletedEventPayload deleted) {
+            return new CommentDeletedEventPayload(deleted.commentDto().toBuilder().projectId(projectId).build());
+        }
+        return eventPayload;
+    }
+
+    private Mono<Void> sendCommentDomainEventToWebSocket(Object eventPayload, String parentType, String parentId, String correlationId) {
         // Create envelope for WebSocket dispatch
         EventEnvelope<?> websocketEnvelope = new EventEnvelope<>(
                 correlationId,
@@ -0,0 +1,7 @@
+package com.pm.projectservice.Exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -3,7 +3,7 @@ package com.pm.projectservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication(scanBasePackages = {"com.pm.projectservice", "com.pm.commonsecurity"})
+@SpringBootApplication(scanBasePackages = {"com.pm.projectservice", "com.pm.commonsecurity", "com.pm.commonoutbox"})
 public class ProjectServiceApplication {
 
     public static void main(String[] args) {
@@ -2,6 +2,7 @@ package com.pm.projectservice.config;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -41,4 +42,30 @@ public class KafkaConsumerConfig {
             @Value("${kafka.topic.user-events:user-events}") String userEventsTopic) {
         return KafkaReceiver.create(createEventEnvelopeReceiverOptions(userEventsTopic));
     }
+
+    @Bean
+    public KafkaReceiver<String, EventEnvelope<?>> taskEventsReceiver(
+            @Value("${kafka.topic.task-events:task-events}") String taskEventsTopic) {
+        return KafkaReceiver.create(createEventEnvelopeReceiverOptions(taskEventsTopic));
+    }
+
+    @Bean
+    public KafkaReceiver<String, EventEnvelope<?>> commentEventsReceiver(
+            @Value("${kafka.topic.comment-events:comment-events}") String commentEventsTopic) {
+        return KafkaReceiver.create(createEventEnvelopeReceiverOptions(commentEventsTopic));
+    }
+
+    /**
+     * Every replica must see every project event to keep its cache coherent,
+     * so each one joins its own consumer group and only reads new events.
+     */
+    @Bean
+    public KafkaReceiver<String, EventEnvelope<?>> projectCacheEventsReceiver(
+            @Value("${kafka.topic.project-events:project-events}") String projectEventsTopic,
+            @Value("${spring.application.name}") String applicationName) {
+        ReceiverOptions<String, EventEnvelope<?>> options = createEventEnvelopeReceiverOptions(projectEventsTopic)
+                .consumerProperty(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-cache-" + UUID.randomUUID())
+                .consumerProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return KafkaReceiver.create(options);
+    }
 }
@@ -0,0 +1,27 @@
+package com.pm.projectservice.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.utils.ProjectNameKeys;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps a project's name search keys in step with its name on every save,
+ * whichever code path renamed it.
+ */
+@Component
+public class ProjectNameKeysCallback implements ReactiveBeforeConvertCallback<Project> {
+
+    @Override
+    @NonNull
+    public Publisher<Project> onBeforeConvert(@NonNull Project project, @NonNull String collection) {
+        project.setNameKey(ProjectNameKeys.key(project.getName()));
+        project.setNameTokens(ProjectNameKeys.tokens(project.getName()));
+        return Mono.just(project);
+    }
+}
@@ -0,0 +1,24 @@
+package com.pm.projectservice.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.pm.projectservice.service.RequestProjectMemo;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Gives each request its own {@link RequestProjectMemo}.
+ */
+@Component
+public class RequestProjectMemoFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange)
+                .contextWrite(Context.of(RequestProjectMemo.CONTEXT_KEY, new RequestProjectMemo()));
+    }
+}
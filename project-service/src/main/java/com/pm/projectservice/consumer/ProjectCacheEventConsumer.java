@@ -0,0 +1,97 @@
+package com.pm.projectservice.consumer;
+
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.project.ProjectCreatedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectDeletedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberAddedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberRemovedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectPriorityChangedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectStatusChangedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectUpdatedEventPayload;
+import com.pm.commoncontracts.events.project.UserRemovedFromProjectsEventPayload;
+import com.pm.projectservice.service.ProjectCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Invalidates this replica's {@link ProjectCache} from project-events, so
+ * writes made through other replicas are not served stale for a whole TTL.
+ */
+@Component
+public class ProjectCacheEventConsumer {
+    private static final Logger log = LoggerFactory.getLogger(ProjectCacheEventConsumer.class);
+
+    private final KafkaReceiver<String, EventEnvelope<?>> projectCacheEventsReceiver;
+    private final ProjectCache projectCache;
+    private Disposable subscription;
+
+    public ProjectCacheEventConsumer(
+            @Qualifier("projectCacheEventsReceiver") KafkaReceiver<String, EventEnvelope<?>> projectCacheEventsReceiver,
+            ProjectCache projectCache) {
+        this.projectCacheEventsReceiver = projectCacheEventsReceiver;
+        this.projectCache = projectCache;
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("Starting Kafka consumer for project cache invalidation");
+        this.subscription = projectCacheEventsReceiver.receive()
+                .doOnNext(this::processRecord)
+                .onErrorContinue((err, obj) -> log.error("Error processing Kafka record from project-events, skipping. Record: {}", obj, err))
+                .subscribe();
+    }
+
+    private void processRecord(ReceiverRecord<String, EventEnvelope<?>> record) {
+        EventEnvelope<?> envelope = record.value();
+        record.receiverOffset().acknowledge();
+        if (envelope == null) {
+            return;
+        }
+        Object payload = envelope.payload();
+        // Versioned events leave an equal or newer cached copy alone, e.g. this replica's own write
+        if (payload instanceof ProjectCreatedEventPayload p) {
+            invalidate(p.projectDto());
+        } else if (payload instanceof ProjectUpdatedEventPayload p) {
+            invalidate(p.projectDto());
+        } else if (payload instanceof ProjectStatusChangedEventPayload p) {
+            invalidate(p.projectDto());
+        } else if (payload instanceof ProjectPriorityChangedEventPayload p) {
+            invalidate(p.projectDto());
+        } else if (payload instanceof ProjectDeletedEventPayload p && p.projectDto() != null) {
+            projectCache.invalidate(p.projectDto().getId());
+        } else if (payload instanceof ProjectMemberAddedEventPayload p) {
+            projectCache.invalidate(p.projectId());
+        } else if (payload instanceof ProjectMemberRemovedEventPayload p) {
+            projectCache.invalidate(p.projectId());
+        } else if (payload instanceof UserRemovedFromProjectsEventPayload p) {
+            if (p.projectIds() != null) {
+                p.projectIds().forEach(projectCache::invalidate);
+            }
+            if (p.newOwnerIds() != null) {
+                p.newOwnerIds().keySet().forEach(projectCache::invalidate);
+            }
+        }
+    }
+
+    private void invalidate(ProjectDto project) {
+        if (project != null) {
+            projectCache.invalidate(project.getId(), project.getVersion());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        log.info("Stopping Kafka consumer for project cache invalidation");
+        if (subscription != null && !subscription.isDisposed()) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pm.projectservice.consumer;
+
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.projectservice.service.ProjectDashboardService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Keeps each project's task aggregates in step with task-service by applying
+ * every task event to the dashboard read model, one record at a time.
+ */
+@Component
+public class TaskEventConsumer {
+    private static final Logger log = LoggerFactory.getLogger(TaskEventConsumer.class);
+
+    private final KafkaReceiver<String, EventEnvelope<?>> taskEventsReceiver;
+    private final ProjectDashboardService dashboardService;
+    private Disposable subscription;
+
+    public TaskEventConsumer(@Qualifier("taskEventsReceiver") KafkaReceiver<String, EventEnvelope<?>> taskEventsReceiver,
+                             ProjectDashboardService dashboardService) {
+        this.taskEventsReceiver = taskEventsReceiver;
+        this.dashboardService = dashboardService;
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("Starting Kafka consumer for task-events");
+        this.subscription = taskEventsReceiver.receive()
+                .concatMap(this::processRecord)
+                .onErrorContinue((err, obj) -> log.error("Error processing Kafka record from task-events, skipping. Record: {}", obj, err))
+                .subscribe();
+    }
+
+    private Mono<Void> processRecord(ReceiverRecord<String, EventEnvelope<?>> record) {
+        EventEnvelope<?> envelope = record.value();
+        if (envelope == null) {
+            log.warn("Received null EventEnvelope from Kafka record");
+            record.receiverOffset().acknowledge();
+            return Mono.empty();
+        }
+        String correlationId = envelope.correlationId() != null ? envelope.correlationId() : "N/A-kafka";
+        MDC.put("correlationId", correlationId);
+        MDC.put("kafkaEventType", envelope.eventType());
+        return dashboardService.applyTaskEvent(envelope)
+                .doOnSuccess(v -> record.receiverOffset().acknowledge())
+                .doOnError(e -> log.error("Failed to apply {} to project task aggregates", envelope.eventType(), e))
+                .doFinally(signal -> {
+                    MDC.remove("correlationId");
+                    MDC.remove("kafkaEventType");
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        log.info("Stopping Kafka consumer for task-events");
+        if (subscription != null && !subscription.isDisposed()) {
+            subscription.dispose();
+        }
+    }
+}
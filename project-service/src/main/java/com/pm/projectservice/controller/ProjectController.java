@@ -3,30 +3,45 @@ package com.pm.projectservice.controller;
 // Import DTO from the SHARED module
 import java.net.URI;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.pm.commoncontracts.domain.ProjectPriority;
 import com.pm.commoncontracts.domain.ProjectStatus;
+import com.pm.commoncontracts.dto.BulkProjectUpdateResultDto;
+import com.pm.commoncontracts.dto.ProjectDashboardDto;
 import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.dto.ProjectPageDto;
+import com.pm.commoncontracts.dto.ProjectSummaryDto;
 import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.requestDto.project.AddProjectMemberRequestDto;
+import com.pm.commoncontracts.requestDto.project.BulkUpdateProjectsRequestDto;
 import com.pm.commoncontracts.requestDto.project.UpdateProjectStatusRequestDto;
 import com.pm.commoncontracts.requestDto.project.UpdateProjectPriorityRequestDto;
+import com.pm.commonwebsupport.http.ConditionalGet;
+import com.pm.projectservice.Exception.BadRequestException;
 import com.pm.projectservice.security.ReactiveProjectPermissionEvaluator;
+import com.pm.projectservice.service.ProjectDashboardService;
 import com.pm.projectservice.service.ProjectService;
 
 import jakarta.validation.Valid;
@@ -42,8 +57,12 @@ import reactor.core.publisher.Mono;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ProjectDashboardService dashboardService;
     private final ReactiveProjectPermissionEvaluator permissionEvaluator;
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private String extractUserIdFromHeader(ServerHttpRequest request) {
         return request.getHeaders().getFirst("X-User-Id");
     }
@@ -81,74 +100,196 @@ public class ProjectController {
     }
 
     @GetMapping
-    public Flux<ProjectDto> getAllProjects(Authentication authentication) {
+    public Mono<ResponseEntity<List<ProjectDto>>> getAllProjects(ServerHttpRequest request, Authentication authentication) {
         log.info("Received request to get all projects");
 
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getAllProjects();
+                            } else {
+                                return Flux.empty(); // Return empty flux if no permission
+                            }
+                        }),
+                ProjectDto::getId, ProjectDto::getVersion, Function.identity());
+    }
+
+    @GetMapping(params = "view=summary")
+    public Mono<ResponseEntity<List<ProjectSummaryDto>>> getAllProjectSummaries(ServerHttpRequest request, Authentication authentication) {
+        log.info("Received request to get all project summaries");
+
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getAllProjectSummaries();
+                            } else {
+                                return Flux.empty();
+                            }
+                        }),
+                ProjectSummaryDto::getId, ProjectSummaryDto::getVersion, Function.identity());
+    }
+
+    @GetMapping("/mine")
+    public Mono<ResponseEntity<ProjectPageDto>> getMyProjects(
+            @RequestParam(required = false) List<ProjectStatus> status,
+            @RequestParam(required = false) List<ProjectPriority> priority,
+            @RequestParam(defaultValue = "updatedAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            ServerHttpRequest request,
+            Authentication authentication
+    ) {
+        String userId = extractUserIdFromHeader(request);
+        log.info("Received request to list projects of user {} (status={}, priority={}, sort={} {}, limit={})",
+                userId, status, priority, sort, direction, limit);
+        if (userId == null || userId.isBlank()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).<ProjectPageDto>build());
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(null);
+        if (sortDirection == null) {
+            return Mono.error(new BadRequestException("Unsupported sort direction: " + direction));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
         return permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
-                .flatMapMany(hasAccess -> {
+                .flatMap(hasAccess -> {
                     if (hasAccess) {
-                        return projectService.getAllProjects();
+                        return projectService.getMyProjects(userId, status, priority, sort, sortDirection, pageSize, cursor)
+                                .map(ResponseEntity::ok);
                     } else {
-                        return Flux.empty(); // Return empty flux if no permission
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<ProjectPageDto>build());
+                    }
+                });
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<ProjectSummaryDto>>> searchProjects(
+            @RequestParam("q") String text,
+            @RequestParam(defaultValue = "10") int limit,
+            ServerHttpRequest request,
+            Authentication authentication
+    ) {
+        String userId = extractUserIdFromHeader(request);
+        log.info("Received request to search projects of user {} for '{}' (limit={})", userId, text, limit);
+        if (userId == null || userId.isBlank()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).<List<ProjectSummaryDto>>build());
+        }
+        int resultLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
+        return permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                .flatMap(hasAccess -> {
+                    if (hasAccess) {
+                        return ConditionalGet.collection(request, projectService.searchProjects(userId, text, resultLimit),
+                                ProjectSummaryDto::getId, ProjectSummaryDto::getVersion, Function.identity());
+                    } else {
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<List<ProjectSummaryDto>>build());
                     }
                 });
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<ProjectDto>> getProjectById(@PathVariable String id, Authentication authentication) {
+    public Mono<ResponseEntity<ProjectDto>> getProjectById(
+            @PathVariable String id,
+            @RequestHeader(value = "X-Min-Version", required = false) Long minVersion,
+            ServerHttpRequest request,
+            Authentication authentication
+    ) {
         log.info("Received request to get project by ID: {}", id);
 
-        return projectService.getProjectById(id)
+        // X-Min-Version: the version the caller last wrote, possibly through another replica
+        return projectService.findProjectById(id, minVersion)
                 .flatMap(project -> {
                     // Check if user has permission to read this project using reactive permission evaluator
                     return permissionEvaluator.hasPermission(authentication, id, "PRJ_READ")
-                            .map(hasAccess -> {
-                                if (hasAccess) {
-                                    return ResponseEntity.ok(project);
-                                } else {
-                                    return ResponseEntity.status(HttpStatus.FORBIDDEN).<ProjectDto>build();
+                            .flatMap(hasAccess -> {
+                                if (!hasAccess) {
+                                    return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<ProjectDto>build());
                                 }
+                                // The task count is served with the project but does not bump its version
+                                return projectService.getTaskCount(id)
+                                        .flatMap(taskCount -> ConditionalGet.entity(request, Mono.just(project),
+                                                found -> ConditionalGet.versionTag(found.getVersion(), "t" + taskCount),
+                                                found -> Mono.just(projectService.toDto(found, taskCount))));
                             });
                 })
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
-    @GetMapping(params = "name")
-    public Flux<ProjectDto> getProjectByName(@RequestParam String name, Authentication authentication) {
-        return permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
-                .flatMapMany(hasAccess -> {
+    @GetMapping("/{id}/dashboard")
+    public Mono<ResponseEntity<ProjectDashboardDto>> getProjectDashboard(@PathVariable String id, Authentication authentication) {
+        log.info("Received request to get dashboard of project: {}", id);
+
+        return permissionEvaluator.hasPermission(authentication, id, "PRJ_READ")
+                .flatMap(hasAccess -> {
                     if (hasAccess) {
-                        return projectService.getProjectByName(name);
+                        return dashboardService.getDashboard(id).map(ResponseEntity::ok);
                     } else {
-                        return Flux.empty();
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<ProjectDashboardDto>build());
                     }
                 });
     }
 
+    @GetMapping(params = "name")
+    public Mono<ResponseEntity<List<ProjectDto>>> getProjectByName(@RequestParam String name, ServerHttpRequest request, Authentication authentication) {
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getProjectByName(name);
+                            } else {
+                                return Flux.empty();
+                            }
+                        }),
+                ProjectDto::getId, ProjectDto::getVersion, Function.identity());
+    }
+
     @GetMapping(params = "owner")
-    public Flux<ProjectDto> getProjectByOwner(@RequestParam String owner, Authentication authentication) {
-        return permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
-                .flatMapMany(hasAccess -> {
-                    if (hasAccess) {
-                        return projectService.getProjectByCreatedBy(owner);
-                    } else {
-                        return Flux.empty();
-                    }
-                });
+    public Mono<ResponseEntity<List<ProjectDto>>> getProjectByOwner(@RequestParam String owner, ServerHttpRequest request, Authentication authentication) {
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getProjectByCreatedBy(owner);
+                            } else {
+                                return Flux.empty();
+                            }
+                        }),
+                ProjectDto::getId, ProjectDto::getVersion, Function.identity());
     }
 
     @GetMapping("/status/{status}")
-    public Flux<ProjectDto> getProjectsByStatus(@PathVariable ProjectStatus status, Authentication authentication) {
+    public Mono<ResponseEntity<List<ProjectDto>>> getProjectsByStatus(@PathVariable ProjectStatus status, ServerHttpRequest request, Authentication authentication) {
         log.info("Received request to get projects with status: {}", status);
 
-        return permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
-                .flatMapMany(hasAccess -> {
-                    if (hasAccess) {
-                        return projectService.getProjectsByStatus(status);
-                    } else {
-                        return Flux.empty();
-                    }
-                });
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getProjectsByStatus(status);
+                            } else {
+                                return Flux.empty();
+                            }
+                        }),
+                ProjectDto::getId, ProjectDto::getVersion, Function.identity());
+    }
+
+    @GetMapping(path = "/status/{status}", params = "view=summary")
+    public Mono<ResponseEntity<List<ProjectSummaryDto>>> getProjectSummariesByStatus(@PathVariable ProjectStatus status, ServerHttpRequest request, Authentication authentication) {
+        log.info("Received request to get project summaries with status: {}", status);
+
+        return ConditionalGet.collection(request,
+                permissionEvaluator.hasGeneralPermission(authentication, "PRJ_READ")
+                        .flatMapMany(hasAccess -> {
+                            if (hasAccess) {
+                                return projectService.getProjectSummariesByStatus(status);
+                            } else {
+                                return Flux.empty();
+                            }
+                        }),
+                ProjectSummaryDto::getId, ProjectSummaryDto::getVersion, Function.identity());
     }
 
     @PutMapping("/{id}")
@@ -168,13 +309,14 @@ public class ProjectController {
     }
 
     @GetMapping("/{projectId}/tasks/ids")
-    public Flux<String> getAllTaskIdsByProjectId(@PathVariable String projectId, Authentication authentication) {
+    public Flux<String> getAllTaskIdsByProjectId(@PathVariable String projectId, ServerHttpRequest request,
+            Authentication authentication) {
         log.info("Received request to get all task IDs for project: {}", projectId);
 
         return permissionEvaluator.hasPermission(authentication, projectId, "PRJ_READ")
                 .flatMapMany(hasAccess -> {
                     if (hasAccess) {
-                        return projectService.getAllTaskIdsByProjectId(projectId);
+                        return projectService.getAllTaskIdsByProjectId(projectId, request);
                     } else {
                         return Flux.empty(); // Return empty flux if no permission
                     }
@@ -248,6 +390,25 @@ public class ProjectController {
                 });
     }
 
+    /**
+     * Changes the status and/or priority of up to
+     * {@value BulkUpdateProjectsRequestDto#MAX_ITEMS} projects in one write.
+     * Each item is authorized and applied on its own; the response lists the
+     * outcome per item, in request order.
+     */
+    @PatchMapping("/bulk")
+    public Mono<ResponseEntity<BulkProjectUpdateResultDto>> bulkUpdateProjects(
+            @Valid @RequestBody BulkUpdateProjectsRequestDto request,
+            ServerHttpRequest httpRequest,
+            Authentication authentication
+    ) {
+        log.info("Received bulk update for {} project(s)", request.getItems().size());
+
+        return projectService.bulkUpdateProjects(request.getItems(), extractUserIdFromHeader(httpRequest),
+                        (project, action) -> permissionEvaluator.hasPermission(authentication, project, action))
+                .map(ResponseEntity::ok);
+    }
+
     @PutMapping("/{id}/combined")
     public Mono<ResponseEntity<ProjectDto>> updateProjectCombined(
             @PathVariable String id,
@@ -268,6 +429,46 @@ public class ProjectController {
                 });
     }
 
+    @PostMapping("/{id}/members")
+    public Mono<ResponseEntity<Void>> addProjectMember(
+            @PathVariable String id,
+            @Valid @RequestBody AddProjectMemberRequestDto request,
+            ServerHttpRequest httpRequest,
+            Authentication authentication
+    ) {
+        log.info("Received request to add user {} to project {} as {}", request.getUserId(), id, request.getRole());
+
+        return permissionEvaluator.hasPermission(authentication, id, "PRJ_MEMBER_ADD")
+                .flatMap(hasAccess -> {
+                    if (hasAccess) {
+                        return projectService.addMember(id, request.getUserId(), request.getRole(), extractUserIdFromHeader(httpRequest))
+                                .thenReturn(ResponseEntity.noContent().<Void>build());
+                    } else {
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Void>build());
+                    }
+                });
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public Mono<ResponseEntity<Void>> removeProjectMember(
+            @PathVariable String id,
+            @PathVariable String userId,
+            ServerHttpRequest httpRequest,
+            Authentication authentication
+    ) {
+        log.info("Received request to remove user {} from project {}", userId, id);
+
+        return permissionEvaluator.hasPermission(authentication, id, "PRJ_MEMBER_REMOVE")
+                .flatMap(hasAccess -> {
+                    if (hasAccess) {
+                        return projectService.removeMember(id, userId, extractUserIdFromHeader(httpRequest))
+                                .thenReturn(ResponseEntity.noContent().<Void>build());
+                    } else {
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Void>build());
+                    }
+                });
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<ResponseEntity<Void>> deleteProject(@PathVariable String id, Authentication authentication) {
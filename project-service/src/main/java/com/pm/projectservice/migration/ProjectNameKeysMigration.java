@@ -0,0 +1,77 @@
+package com.pm.projectservice.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.utils.ProjectNameKeys;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the name search indexes and fills in the search keys of projects
+ * saved before they existed.
+ *
+ * A project is only updated while it still has no key, so a rename that
+ * saved fresh keys in the meantime is not overwritten, and a restart skips
+ * projects that were already done.
+ */
+@Component
+@ConditionalOnProperty(name = "project.migration.name-keys", havingValue = "true", matchIfMissing = true)
+public class ProjectNameKeysMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectNameKeysMigration.class);
+    private static final String PROJECTS = "projects";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ProjectNameKeysMigration(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        Query legacy = Query.query(Criteria.where("nameKey").exists(false));
+        legacy.fields().include("_id", "name");
+        ensureIndexes()
+                .thenMany(mongoTemplate.find(legacy, Project.class))
+                .concatMap(this::migrateProject)
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        migrated -> {
+                            if (migrated > 0) {
+                                log.info("Added name search keys to {} project(s)", migrated);
+                            }
+                        },
+                        e -> log.error("Failed to add project name search keys", e));
+    }
+
+    private Mono<Long> migrateProject(Project project) {
+        Query query = Query.query(Criteria.where("_id").is(project.getId()).and("nameKey").exists(false));
+        Update update = new Update()
+                .set("nameKey", ProjectNameKeys.key(project.getName()))
+                .set("nameTokens", ProjectNameKeys.tokens(project.getName()));
+        // By collection name, so the derived keys do not bump the project's version
+        return mongoTemplate.updateFirst(query, update, PROJECTS)
+                .map(result -> result.getModifiedCount());
+    }
+
+    private Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Project.class);
+        return indexOps.ensureIndex(new Index().on("nameKey", Sort.Direction.ASC).named("nameKey"))
+                .then(indexOps.ensureIndex(new Index().on("nameTokens", Sort.Direction.ASC)
+                        .on("nameKey", Sort.Direction.ASC).named("nameTokens_nameKey")))
+                .then();
+    }
+}
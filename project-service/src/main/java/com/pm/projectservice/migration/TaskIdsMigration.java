@@ -0,0 +1,79 @@
+package com.pm.projectservice.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.pm.projectservice.service.ProjectDashboardService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * One-off migration from the embedded {@code taskIds} arrays to per-project
+ * task counters.
+ *
+ * Each project still carrying the array has it removed with a conditional
+ * findAndModify, and the removed ids are then adopted into the project's
+ * task aggregates. Adopting only counts tasks that task-events have not
+ * already recorded, so it composes with events that arrive while the
+ * migration runs, and a project that was already stripped no longer
+ * matches, so a restart does not count it twice.
+ */
+@Component
+@ConditionalOnProperty(name = "project.migration.strip-task-ids", havingValue = "true", matchIfMissing = true)
+public class TaskIdsMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIdsMigration.class);
+    private static final String PROJECTS = "projects";
+    private static final String TASK_IDS = "taskIds";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProjectDashboardService dashboardService;
+
+    public TaskIdsMigration(ReactiveMongoTemplate mongoTemplate, ProjectDashboardService dashboardService) {
+        this.mongoTemplate = mongoTemplate;
+        this.dashboardService = dashboardService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        Query legacy = Query.query(Criteria.where(TASK_IDS).exists(true));
+        legacy.fields().include("_id");
+        mongoTemplate.find(legacy, Document.class, PROJECTS)
+                .concatMap(project -> migrateProject(project.get("_id")))
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        migrated -> {
+                            if (migrated > 0) {
+                                log.info("Moved {} embedded task id(s) into project task counters", migrated);
+                            }
+                        },
+                        e -> log.error("Failed to migrate embedded project taskIds", e));
+    }
+
+    private Mono<Long> migrateProject(Object projectId) {
+        Query query = Query.query(Criteria.where("_id").is(projectId).and(TASK_IDS).exists(true));
+        query.fields().include(TASK_IDS);
+        return mongoTemplate.findAndModify(query, new Update().unset(TASK_IDS),
+                        FindAndModifyOptions.options().returnNew(false), Document.class, PROJECTS)
+                .flatMap(previous -> {
+                    List<?> taskIds = previous.getList(TASK_IDS, Object.class);
+                    if (taskIds == null || taskIds.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    return dashboardService.adoptTasks(projectId.toString(),
+                            taskIds.stream().map(Object::toString).toList());
+                });
+    }
+}
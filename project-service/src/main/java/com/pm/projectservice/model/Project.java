@@ -38,6 +38,11 @@ public class Project {
     @Indexed(unique = true) // If project names must be unique
     private String name;
 
+    /** Name search keys, derived from name on every save (see ProjectNameKeys) */
+    private String nameKey;
+
+    private List<String> nameTokens;
+
     @Size(max = 5000)
     private String description;
 
@@ -63,9 +68,6 @@ public class Project {
     @Builder.Default
     private List<String> memberIds = new ArrayList<>();
 
-    @Builder.Default
-    private List<String> taskIds = new ArrayList<>();
-
     // Add assignedTo field for project assignment
     private String assignedTo;
 
@@ -77,14 +79,6 @@ public class Project {
         this.assignedTo = assignedTo;
     }
 
-    public List<String> getTaskIds() {
-        return taskIds;
-    }
-
-    public void setTaskIds(List<String> taskIds) {
-        this.taskIds = taskIds;
-    }
-
     // Add setPriority/getPriority for ProjectPriority
     public ProjectPriority getPriority() {
         return priority;
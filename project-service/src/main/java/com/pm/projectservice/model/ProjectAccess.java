@@ -0,0 +1,26 @@
+package com.pm.projectservice.model;
+
+import java.util.List;
+
+/**
+ * The fields of a project that permission checks look at, loaded with a
+ * projection instead of the whole document (description and all).
+ */
+public record ProjectAccess(String id, String ownerId, String createdBy, List<String> managerIds,
+        List<String> memberIds, Long version) {
+
+    public static final String[] FIELDS = {"ownerId", "createdBy", "managerIds", "memberIds", "version"};
+
+    public static ProjectAccess of(Project project) {
+        return new ProjectAccess(project.getId(), project.getOwnerId(), project.getCreatedBy(),
+                project.getManagerIds(), project.getMemberIds(), project.getVersion());
+    }
+
+    public boolean isCreator(String userId) {
+        return userId != null && userId.equals(createdBy);
+    }
+
+    public boolean isMember(String userId) {
+        return userId != null && memberIds != null && memberIds.contains(userId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pm.projectservice.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.pm.commoncontracts.domain.TaskPriority;
+import com.pm.commoncontracts.domain.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What one task currently contributes to its project's {@link ProjectTaskStats},
+ * as last seen on task-events, keyed by the task id.
+ *
+ * Task events only carry the task's new state. Swapping in the new fact and
+ * getting the old one back tells which counters to move. The task's version
+ * makes a redelivered event a no-op. A deleted task leaves a tombstone until
+ * {@code deletedAt} expires, so a redelivered delete is recognized as well.
+ */
+@Document(collection = "project_task_facts")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectTaskFact {
+
+    @Id
+    private String taskId;
+
+    private String projectId;
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    // UTC day (yyyy-MM-dd) the task is due while it is open; null once closed or without a due date
+    private String openDueDay;
+
+    // The task's version in task-service; a plain field, not an optimistic lock here
+    private Long version;
+
+    private boolean deleted;
+
+    private Instant deletedAt;
+}
@@ -0,0 +1,48 @@
+package com.pm.projectservice.model;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized task aggregates for one project, keyed by the project id,
+ * that the project dashboard is served from.
+ *
+ * Kept out of the project document on purpose: projects are saved whole on
+ * every edit, which would write back stale counts over a concurrent
+ * {@code $inc} from the task-events consumer. Every change is a single
+ * upserted {@code $inc} (and {@code $max} for the activity time).
+ */
+@Document(collection = "project_task_stats")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectTaskStats {
+
+    @Id
+    private String projectId;
+
+    private long taskCount;
+
+    // Task counts keyed by TaskStatus and TaskPriority name
+    @Builder.Default
+    private Map<String, Long> byStatus = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> byPriority = new HashMap<>();
+
+    // Open tasks by the UTC day they are due (yyyy-MM-dd); overdue is the sum of the days before today
+    @Builder.Default
+    private Map<String, Long> openDueByDay = new HashMap<>();
+
+    private Instant lastActivityAt;
+}
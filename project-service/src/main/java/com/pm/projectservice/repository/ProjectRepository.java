@@ -2,6 +2,7 @@ package com.pm.projectservice.repository;
 
 import com.pm.projectservice.model.Project;
 import com.pm.commoncontracts.domain.ProjectStatus;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 
@@ -9,4 +10,13 @@ public interface ProjectRepository extends ReactiveMongoRepository<Project, Stri
     Flux<Project> findByName(String name);
     Flux<Project> findByCreatedBy(String createdBy);
     Flux<Project> findByStatus(ProjectStatus status);
+
+    // Summary projections: only the fields ProjectUtils.entityToSummary reads
+    String SUMMARY_FIELDS = "{ 'name': 1, 'status': 1, 'priority': 1, 'ownerId': 1, 'startDate': 1, 'endDate': 1, 'updatedAt': 1, 'version': 1 }";
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Flux<Project> findAllSummaries();
+
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS)
+    Flux<Project> findSummariesByStatus(ProjectStatus status);
 }
\ No newline at end of file
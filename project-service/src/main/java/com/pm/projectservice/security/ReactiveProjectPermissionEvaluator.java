@@ -3,7 +3,8 @@ package com.pm.projectservice.security;
 import com.pm.commonsecurity.security.Action;
 import com.pm.commonsecurity.security.PermissionEvaluator;
 import com.pm.projectservice.model.Project;
-import com.pm.projectservice.repository.ProjectRepository;
+import com.pm.projectservice.model.ProjectAccess;
+import com.pm.projectservice.service.ProjectCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -23,7 +24,7 @@ import java.util.List;
 @Slf4j
 public class ReactiveProjectPermissionEvaluator {
 
-    private final ProjectRepository projectRepository;
+    private final ProjectCache projectCache;
     private final PermissionEvaluator basePermissionEvaluator;
 
     /**
@@ -50,9 +51,9 @@ public class ReactiveProjectPermissionEvaluator {
 
             String currentUserId = getCurrentUserId(authentication);
 
-            // Get project reactively and check permissions
-            return projectRepository.findById(projectId)
-                    .map(project -> hasProjectAccess(authentication, project, actionEnum, currentUserId))
+            // Only the access fields are needed: from the request's memo, the cache, or a projection query
+            return projectCache.getAccess(projectId)
+                    .map(access -> hasProjectAccess(authentication, access, actionEnum, currentUserId))
                     .switchIfEmpty(Mono.just(false)) // Project not found = no permission
                     .onErrorResume(e -> {
                         log.error("Error checking permissions for project {} and action {}: {}", projectId, action, e.getMessage());
@@ -80,7 +81,7 @@ public class ReactiveProjectPermissionEvaluator {
         try {
             Action actionEnum = Action.valueOf(action.toUpperCase());
             String currentUserId = getCurrentUserId(authentication);
-            boolean hasAccess = hasProjectAccess(authentication, project, actionEnum, currentUserId);
+            boolean hasAccess = hasProjectAccess(authentication, ProjectAccess.of(project), actionEnum, currentUserId);
             return Mono.just(hasAccess);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid action string: {}", action);
@@ -123,13 +124,12 @@ public class ReactiveProjectPermissionEvaluator {
         }
     }
 
-    private boolean hasProjectAccess(Authentication authentication, Project project, Action action, String currentUserId) {
+    private boolean hasProjectAccess(Authentication authentication, ProjectAccess project, Action action, String currentUserId) {
         // Check if user is project creator
-        boolean isCreator = currentUserId != null && currentUserId.equals(project.getCreatedBy());
+        boolean isCreator = project.isCreator(currentUserId);
 
         // Check if user is project member
-        boolean isMember = currentUserId != null && project.getMemberIds() != null
-                && project.getMemberIds().contains(currentUserId);
+        boolean isMember = project.isMember(currentUserId);
 
         // Project-specific permissions based on membership/ownership
         return switch (action) {
@@ -0,0 +1,255 @@
+package com.pm.projectservice.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.model.ProjectAccess;
+import com.pm.projectservice.repository.ProjectRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded read-through cache of project documents by id, for the lookups
+ * made on nearly every request (permission checks, GET /projects/{id}).
+ *
+ * Entries expire after {@code project.cache.ttl} and the least recently used
+ * ones are dropped beyond {@code project.cache.max-size}. This service's own
+ * writes put the saved project (or invalidate, for partial updates), and the
+ * project-events consumer invalidates on every replica, so the TTL only
+ * bounds staleness when an event is lost.
+ *
+ * Versions keep the cache from going backwards. A cached project is only
+ * replaced by a newer or equal version; an invalidation leaves a marker
+ * that rejects any load already in flight when it happened, since that
+ * load may have read the document before the write; and callers that just
+ * wrote on another replica can pass the version they got back, which a
+ * cached older version never satisfies.
+ *
+ * Cached projects are shared between callers and must not be modified.
+ */
+@Component
+public class ProjectCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectCache.class);
+
+    static final String REQUESTS = "project.cache.requests";
+    static final String EVICTIONS = "project.cache.evictions";
+
+    // project == null marks an invalidation: only loads started after seq may fill it
+    private record Entry(Project project, long version, long seq, long loadedAt) {
+    }
+
+    private final ProjectRepository projectRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int maxSize;
+    private final long ttlMillis;
+    // Access-ordered, so the eldest entry is the least recently used; guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    private long seq;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictedSize;
+    private final Counter evictedExpired;
+    private final Counter evictedInvalidated;
+
+    public ProjectCache(ProjectRepository projectRepository, ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${project.cache.max-size:10000}") int maxSize,
+            @Value("${project.cache.ttl:30s}") Duration ttl) {
+        this.projectRepository = projectRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProjectCache.this.maxSize) {
+                    evictedSize.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder(REQUESTS).tag("result", "hit")
+                .description("Project cache lookups").register(meterRegistry);
+        this.misses = Counter.builder(REQUESTS).tag("result", "miss")
+                .description("Project cache lookups").register(meterRegistry);
+        this.evictedSize = eviction(meterRegistry, "size");
+        this.evictedExpired = eviction(meterRegistry, "expired");
+        this.evictedInvalidated = eviction(meterRegistry, "invalidated");
+        Gauge.builder("project.cache.size", this, ProjectCache::size)
+                .description("Projects currently cached").register(meterRegistry);
+        Gauge.builder("project.cache.hit.ratio", this, ProjectCache::hitRatio)
+                .description("Share of project cache lookups served from the cache").register(meterRegistry);
+    }
+
+    /**
+     * The project, from the cache or the database.
+     */
+    public Mono<Project> get(String projectId) {
+        return get(projectId, null);
+    }
+
+    /**
+     * The project, at least at {@code minVersion} if given: a cached older
+     * version counts as a miss and is reloaded. Within a request, repeated
+     * lookups share one result through the {@link RequestProjectMemo}.
+     */
+    public Mono<Project> get(String projectId, Long minVersion) {
+        if (projectId == null) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context -> {
+            RequestProjectMemo memo = context.getOrDefault(RequestProjectMemo.CONTEXT_KEY, null);
+            // A minimum version asks for a fresher copy than the request may already hold
+            return memo != null && minVersion == null
+                    ? memo.project(projectId, () -> lookup(projectId, null))
+                    : lookup(projectId, minVersion);
+        });
+    }
+
+    /**
+     * Just the fields permission checks need. Served from a cached or
+     * memoized project when there is one; otherwise loaded with a projection
+     * rather than the whole document, and not cached.
+     */
+    public Mono<ProjectAccess> getAccess(String projectId) {
+        if (projectId == null) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context -> {
+            RequestProjectMemo memo = context.getOrDefault(RequestProjectMemo.CONTEXT_KEY, null);
+            return memo != null
+                    ? memo.access(projectId, () -> lookupAccess(projectId))
+                    : lookupAccess(projectId);
+        });
+    }
+
+    private Mono<ProjectAccess> lookupAccess(String projectId) {
+        Project cached = cached(projectId);
+        if (cached != null) {
+            return Mono.just(ProjectAccess.of(cached));
+        }
+        Query query = Query.query(Criteria.where("_id").is(projectId));
+        query.fields().include(ProjectAccess.FIELDS);
+        return mongoTemplate.findOne(query, Project.class).map(ProjectAccess::of);
+    }
+
+    private Mono<Project> lookup(String projectId, Long minVersion) {
+        Project cached = cached(projectId, minVersion);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long started;
+        synchronized (this) {
+            started = seq;
+        }
+        return projectRepository.findById(projectId)
+                .doOnNext(project -> offer(project, started));
+    }
+
+    private Project cached(String projectId) {
+        return cached(projectId, null);
+    }
+
+    // The live cached project, counting the lookup as a hit or miss
+    private synchronized Project cached(String projectId, Long minVersion) {
+        Entry entry = entries.get(projectId);
+        if (entry != null && entry.project() != null
+                && System.currentTimeMillis() - entry.loadedAt() > ttlMillis) {
+            entries.remove(projectId);
+            evictedExpired.increment();
+            entry = null;
+        }
+        if (entry != null && entry.project() != null && (minVersion == null || entry.version() >= minVersion)) {
+            hits.increment();
+            return entry.project();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Records a project this service just wrote.
+     */
+    public synchronized void put(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        Entry current = entries.get(project.getId());
+        long version = versionOf(project);
+        if (current != null && current.project() != null && current.version() > version) {
+            return;
+        }
+        entries.put(project.getId(), new Entry(project, version, ++seq, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drops the cached project unless it is already at {@code version} or
+     * newer; a null version always drops it.
+     */
+    public synchronized void invalidate(String projectId, Long version) {
+        if (projectId == null) {
+            return;
+        }
+        Entry current = entries.get(projectId);
+        if (version != null && current != null && current.project() != null && current.version() >= version) {
+            return;
+        }
+        if (current != null && current.project() != null) {
+            evictedInvalidated.increment();
+        }
+        entries.put(projectId, new Entry(null, version != null ? version : -1, ++seq, System.currentTimeMillis()));
+    }
+
+    public void invalidate(String projectId) {
+        invalidate(projectId, null);
+    }
+
+    // Caches a loaded project unless something was written to it since the load started
+    private synchronized void offer(Project project, long started) {
+        Entry current = entries.get(project.getId());
+        long version = versionOf(project);
+        if (current != null && current.seq() > started
+                && (current.project() == null || current.version() >= version)) {
+            log.debug("Not caching project {} v{}: it changed while loading", project.getId(), version);
+            return;
+        }
+        if (current != null && current.project() != null && current.version() > version) {
+            return;
+        }
+        entries.put(project.getId(), new Entry(project, version, current != null ? current.seq() : seq,
+                System.currentTimeMillis()));
+    }
+
+    synchronized int size() {
+        return (int) entries.values().stream().filter(entry -> entry.project() != null).count();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static long versionOf(Project project) {
+        return project.getVersion() != null ? project.getVersion() : -1;
+    }
+
+    private static Counter eviction(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder(EVICTIONS).tag("cause", cause)
+                .description("Projects dropped from the cache").register(meterRegistry);
+    }
+}
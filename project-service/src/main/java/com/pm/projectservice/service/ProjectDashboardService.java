@@ -0,0 +1,327 @@
+package com.pm.projectservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.pm.commoncontracts.domain.ParentType;
+import com.pm.commoncontracts.domain.TaskPriority;
+import com.pm.commoncontracts.domain.TaskStatus;
+import com.pm.commoncontracts.dto.CommentDto;
+import com.pm.commoncontracts.dto.ProjectDashboardDto;
+import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.comment.CommentAddedEventPayload;
+import com.pm.commoncontracts.events.comment.CommentDeletedEventPayload;
+import com.pm.commoncontracts.events.comment.CommentEditedEventPayload;
+import com.pm.commoncontracts.events.task.TaskAssignedEventPayload;
+import com.pm.commoncontracts.events.task.TaskCreatedEventPayload;
+import com.pm.commoncontracts.events.task.TaskDeletedEventPayload;
+import com.pm.commoncontracts.events.task.TaskPriorityChangedEventPayload;
+import com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload;
+import com.pm.commoncontracts.events.task.TaskUpdatedEventPayload;
+import com.pm.projectservice.Exception.ResourceNotFoundException;
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.model.ProjectTaskFact;
+import com.pm.projectservice.model.ProjectTaskStats;
+import com.pm.projectservice.utils.ProjectUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maintains the per-project task aggregates behind the dashboard endpoint
+ * from task-events and comment-events, and serves them.
+ *
+ * A task event swaps the task's {@link ProjectTaskFact} for its new state
+ * and gets the previous one back; the difference between the two is then
+ * applied to the project's {@link ProjectTaskStats} as one upserted
+ * {@code $inc}. Events for a task arrive in order (they are keyed by task
+ * id), so the version check on the fact only has to reject redeliveries.
+ * Every counter, the task count included, is moved only from the facts, so
+ * a decrement always takes back what an earlier fact added and no counter
+ * can go below zero. Tasks that existed before these aggregates are counted
+ * by {@link #adoptTasks} and picked up in full the first time they change.
+ */
+@Service
+public class ProjectDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectDashboardService.class);
+    private static final Set<TaskStatus> CLOSED_STATUSES = EnumSet.of(TaskStatus.DONE, TaskStatus.ARCHIVED);
+    // Long enough to outlast any redelivery of a task's events
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProjectCache projectCache;
+
+    public ProjectDashboardService(ReactiveMongoTemplate mongoTemplate, ProjectCache projectCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.projectCache = projectCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(ProjectTaskFact.class)
+                .ensureIndex(new Index().on("deletedAt", Sort.Direction.ASC)
+                        .expire(TOMBSTONE_RETENTION).named("deletedAt_ttl"))
+                .subscribe(null, e -> log.warn("Could not ensure project task fact indexes", e));
+    }
+
+    // ==============================
+    // Dashboard
+    // ==============================
+
+    public Mono<ProjectDashboardDto> getDashboard(String projectId) {
+        Mono<ProjectTaskStats> stats = mongoTemplate.findById(projectId, ProjectTaskStats.class)
+                .defaultIfEmpty(ProjectTaskStats.builder().projectId(projectId).build());
+        return projectCache.get(projectId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Project not found: " + projectId)))
+                .zipWith(stats, (project, projectStats) -> toDashboard(project, projectStats, LocalDate.now(ZoneOffset.UTC)))
+                .doOnError(e -> log.error("Error fetching dashboard of project: {}", projectId, e));
+    }
+
+    private static ProjectDashboardDto toDashboard(Project project, ProjectTaskStats stats, LocalDate today) {
+        Map<TaskStatus, Long> byStatus = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, stats.getByStatus().getOrDefault(status.name(), 0L));
+        }
+        Map<TaskPriority, Long> byPriority = new LinkedHashMap<>();
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, stats.getByPriority().getOrDefault(priority.name(), 0L));
+        }
+        // ISO days compare in date order as strings
+        String todayKey = today.toString();
+        long overdue = stats.getOpenDueByDay().entrySet().stream()
+                .filter(entry -> entry.getKey().compareTo(todayKey) < 0)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return ProjectDashboardDto.builder()
+                .project(ProjectUtils.entityToSummary(project))
+                .taskCount(stats.getTaskCount())
+                .tasksByStatus(byStatus)
+                .tasksByPriority(byPriority)
+                .overdueTaskCount(overdue)
+                .lastActivityAt(stats.getLastActivityAt() != null ? stats.getLastActivityAt().toString() : null)
+                .build();
+    }
+
+    // ==============================
+    // task-events
+    // ==============================
+
+    public Mono<Void> applyTaskEvent(EventEnvelope<?> envelope) {
+        Object payload = envelope.payload();
+        TaskDto task;
+        boolean deleted = false;
+        if (payload instanceof TaskCreatedEventPayload created) {
+            task = created.taskDto();
+        } else if (payload instanceof TaskDeletedEventPayload taskDeleted) {
+            task = taskDeleted.taskDto();
+            deleted = true;
+        } else if (payload instanceof TaskUpdatedEventPayload updated) {
+            task = updated.taskDto();
+        } else if (payload instanceof TaskStatusChangedEventPayload statusChanged) {
+            task = statusChanged.taskDto();
+        } else if (payload instanceof TaskPriorityChangedEventPayload priorityChanged) {
+            task = priorityChanged.dto();
+        } else if (payload instanceof TaskAssignedEventPayload assigned) {
+            task = assigned.taskDto();
+        } else {
+            return Mono.empty();
+        }
+        if (task == null || task.getId() == null || task.getProjectId() == null) {
+            log.warn("Ignoring {} without a task or project id", envelope.eventType());
+            return Mono.empty();
+        }
+        ProjectTaskFact next = deleted ? null : factOf(task);
+        Instant at = activityTime(envelope);
+        return swapFact(task, next)
+                .flatMap(previous -> applyChange(previous.orElse(null), next, task.getProjectId(), at));
+    }
+
+    /**
+     * Counts tasks of a project that predate these aggregates, given their
+     * ids. Each task without a fact gets one that holds only its project;
+     * only those are added to the task count, so tasks already seen on
+     * task-events (or deleted since) are not counted twice. Emits how many
+     * were added.
+     */
+    public Mono<Long> adoptTasks(String projectId, List<String> taskIds) {
+        return Flux.fromIterable(taskIds)
+                .concatMap(taskId -> mongoTemplate.upsert(Query.query(Criteria.where("_id").is(taskId)),
+                        new Update().setOnInsert("projectId", projectId), ProjectTaskFact.class))
+                .filter(result -> result.getUpsertedId() != null)
+                .count()
+                .flatMap(adopted -> adopted == 0
+                        ? Mono.just(adopted)
+                        : mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId)),
+                                new Update().inc("taskCount", adopted), ProjectTaskStats.class)
+                                .thenReturn(adopted));
+    }
+
+    /**
+     * Stores the task's new fact (a tombstone when {@code next} is null) and
+     * emits the one it replaced, empty if the task was not known yet. Emits
+     * nothing for a redelivered event: its filter misses the newer fact, and
+     * the upsert then collides on the task id.
+     */
+    private Mono<Optional<ProjectTaskFact>> swapFact(TaskDto task, ProjectTaskFact next) {
+        Criteria criteria = Criteria.where("_id").is(task.getId()).and("deleted").ne(true);
+        Update update = new Update().set("projectId", task.getProjectId());
+        if (next == null) {
+            update.set("deleted", true).set("deletedAt", Instant.now());
+        } else {
+            if (task.getVersion() != null) {
+                criteria.orOperator(Criteria.where("version").lt(task.getVersion()), Criteria.where("version").is(null));
+            }
+            update.set("status", next.getStatus())
+                    .set("priority", next.getPriority())
+                    .set("openDueDay", next.getOpenDueDay())
+                    .set("version", next.getVersion());
+        }
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(false), ProjectTaskFact.class)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    log.debug("Skipping repeated event for task {}", task.getId());
+                    return Mono.empty();
+                });
+    }
+
+    // Moves the counters from the previous fact to the next, one upsert per affected project
+    private Mono<Void> applyChange(ProjectTaskFact previous, ProjectTaskFact next, String projectId, Instant at) {
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        // The event's project gets the activity even when no counter moves
+        deltas.put(projectId, new HashMap<>());
+        if (previous != null) {
+            contribute(deltas, previous, -1);
+        }
+        if (next != null) {
+            contribute(deltas, next, 1);
+        }
+        return Flux.fromIterable(deltas.entrySet())
+                .concatMap(entry -> {
+                    Update update = new Update().max("lastActivityAt", at);
+                    entry.getValue().forEach((field, delta) -> {
+                        if (delta != 0) {
+                            update.inc(field, delta);
+                        }
+                    });
+                    return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(entry.getKey())), update,
+                            ProjectTaskStats.class);
+                })
+                .then();
+    }
+
+    private static void contribute(Map<String, Map<String, Long>> deltas, ProjectTaskFact fact, long sign) {
+        Map<String, Long> fields = deltas.computeIfAbsent(fact.getProjectId(), id -> new HashMap<>());
+        fields.merge("taskCount", sign, Long::sum);
+        if (fact.getStatus() != null) {
+            fields.merge("byStatus." + fact.getStatus().name(), sign, Long::sum);
+        }
+        if (fact.getPriority() != null) {
+            fields.merge("byPriority." + fact.getPriority().name(), sign, Long::sum);
+        }
+        if (fact.getOpenDueDay() != null) {
+            fields.merge("openDueByDay." + fact.getOpenDueDay(), sign, Long::sum);
+        }
+    }
+
+    private static ProjectTaskFact factOf(TaskDto task) {
+        boolean open = task.getStatus() == null || !CLOSED_STATUSES.contains(task.getStatus());
+        return ProjectTaskFact.builder()
+                .taskId(task.getId())
+                .projectId(task.getProjectId())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .openDueDay(open ? dueDay(task.getDueDate()) : null)
+                .version(task.getVersion())
+                .build();
+    }
+
+    // Task-service sends due dates as Instant strings; plain dates are accepted too
+    private static String dueDay(String dueDate) {
+        if (dueDate == null || dueDate.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(dueDate).atZone(ZoneOffset.UTC).toLocalDate().toString();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(dueDate).toString();
+            } catch (DateTimeParseException ignored) {
+                log.warn("Ignoring unparseable task due date: {}", dueDate);
+                return null;
+            }
+        }
+    }
+
+    // ==============================
+    // comment-events
+    // ==============================
+
+    /**
+     * Comments only move the project's last activity time, with a
+     * {@code $max} that redeliveries cannot disturb. A task comment is
+     * attributed to the project its task fact points at.
+     */
+    public Mono<Void> applyCommentEvent(EventEnvelope<?> envelope) {
+        Object payload = envelope.payload();
+        CommentDto comment;
+        if (payload instanceof CommentAddedEventPayload added) {
+            comment = added.commentDto();
+        } else if (payload instanceof CommentEditedEventPayload edited) {
+            comment = edited.commentDto();
+        } else if (payload instanceof CommentDeletedEventPayload deleted) {
+            comment = deleted.commentDto();
+        } else {
+            return Mono.empty();
+        }
+        if (comment == null || comment.getParentId() == null) {
+            return Mono.empty();
+        }
+        Mono<String> projectId;
+        if (comment.getParentType() == ParentType.PROJECT) {
+            projectId = Mono.just(comment.getParentId());
+        } else if (comment.getParentType() == ParentType.TASK) {
+            Query fact = Query.query(Criteria.where("_id").is(comment.getParentId()));
+            fact.fields().include("projectId");
+            projectId = mongoTemplate.findOne(fact, ProjectTaskFact.class).mapNotNull(ProjectTaskFact::getProjectId);
+        } else {
+            return Mono.empty();
+        }
+        Instant at = activityTime(envelope);
+        return projectId
+                .flatMap(id -> mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id)),
+                        new Update().max("lastActivityAt", at), ProjectTaskStats.class))
+                .then();
+    }
+
+    private static Instant activityTime(EventEnvelope<?> envelope) {
+        return envelope.timestamp() != null ? envelope.timestamp() : Instant.now();
+    }
+}
@@ -2,30 +2,64 @@ package com.pm.projectservice.service;
 
 // Shared module imports
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate; // Import your event payload records
 import org.springframework.stereotype.Service; // Assuming this provides the context key
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.pm.commoncontracts.domain.ProjectMemberRole;
 import com.pm.commoncontracts.domain.ProjectPriority;
 import com.pm.commoncontracts.domain.ProjectStatus;
+import com.pm.commoncontracts.dto.BulkProjectUpdateResultDto;
 import com.pm.commoncontracts.dto.ProjectDto; // Using your existing mapper utility
+import com.pm.commoncontracts.dto.ProjectPageDto;
+import com.pm.commoncontracts.dto.ProjectSummaryDto;
 import com.pm.commoncontracts.dto.TaskDto; // Your internal domain entity
 import com.pm.commoncontracts.envelope.EventEnvelope;
 import com.pm.commoncontracts.events.project.ProjectCreatedEventPayload;
 import com.pm.commoncontracts.events.project.ProjectDeletedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberAddedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberRemovedEventPayload;
 import com.pm.commoncontracts.events.project.ProjectPriorityChangedEventPayload;
 import com.pm.commoncontracts.events.project.ProjectStatusChangedEventPayload;
 import com.pm.commoncontracts.events.project.ProjectTaskCreatedEventPayload;
 import com.pm.commoncontracts.events.project.ProjectUpdatedEventPayload;
+import com.pm.commoncontracts.events.project.UserRemovedFromProjectsEventPayload;
+import com.pm.commoncontracts.requestDto.project.BulkUpdateProjectsRequestDto;
+import com.pm.commonoutbox.outbox.OutboxEventPublisher;
+import com.pm.projectservice.Exception.BadRequestException;
+import com.pm.projectservice.Exception.ResourceNotFoundException;
 import com.pm.projectservice.config.MdcLoggingFilter;
 import com.pm.projectservice.model.Project;
+import com.pm.projectservice.model.ProjectTaskStats;
 import com.pm.projectservice.repository.ProjectRepository; // Import ContextView
+import com.pm.projectservice.utils.ProjectCursor;
+import com.pm.projectservice.utils.ProjectNameKeys;
 import com.pm.projectservice.utils.ProjectUtils;
 
 import reactor.core.publisher.Flux;
@@ -37,9 +71,17 @@ public class ProjectService {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
     private final ProjectRepository projectRepository;
-    private final ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate;
+    private final ProjectCache projectCache;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final OutboxEventPublisher outboxPublisher;
+    // Calls task-service directly, forwarding the caller's identity headers
     private final WebClient taskServiceWebClient;
 
+    private static final String TASKS_PATH = "/api/tasks";
+
+    // Fields that make a user part of a project; each has a (field, updatedAt) index
+    private static final List<String> MEMBERSHIP_FIELDS = List.of("ownerId", "managerIds", "memberIds");
+
     @Value("${spring.application.name}")
     private String serviceName;
     @Value("${kafka.topic.project-events:project-events}")
@@ -47,13 +89,15 @@ public class ProjectService {
 
     // Constructor injection
     public ProjectService(ProjectRepository projectRepository,
-            ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate,
-            @Value("${services.api-gateway.url:http://api-gateway:8080}") String apiGatewayUrl) {
+            ProjectCache projectCache,
+            ReactiveMongoTemplate mongoTemplate,
+            OutboxEventPublisher outboxPublisher,
+            @Qualifier("taskWebClient") WebClient taskServiceWebClient) {
         this.projectRepository = projectRepository;
-        this.kafkaTemplate = kafkaTemplate;
-        this.taskServiceWebClient = WebClient.builder()
-                .baseUrl(apiGatewayUrl + "/api/tasks")
-                .build();
+        this.projectCache = projectCache;
+        this.mongoTemplate = mongoTemplate;
+        this.outboxPublisher = outboxPublisher;
+        this.taskServiceWebClient = taskServiceWebClient;
     }
 
     // ==============================
@@ -67,6 +111,20 @@ public class ProjectService {
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in getAllProjects, skipping element", throwable));
     }
 
+    public Flux<ProjectSummaryDto> getAllProjectSummaries() {
+        return projectRepository.findAllSummaries()
+                .map(ProjectUtils::entityToSummary)
+                .doOnError(e -> log.error("Error fetching project summaries", e))
+                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch project summaries", e)));
+    }
+
+    public Flux<ProjectSummaryDto> getProjectSummariesByStatus(ProjectStatus status) {
+        return projectRepository.findSummariesByStatus(status)
+                .map(ProjectUtils::entityToSummary)
+                .doOnError(e -> log.error("Error fetching project summaries by status: {}", status, e))
+                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch project summaries by status", e)));
+    }
+
     public Flux<ProjectDto> getProjectByName(String name) {
         return projectRepository.findByName(name)
                 .map(ProjectUtils::entityToDto)
@@ -76,14 +134,36 @@ public class ProjectService {
     }
 
     public Mono<ProjectDto> getProjectById(String id) {
-        return projectRepository.findById(id)
-                .map(ProjectUtils::entityToDto)
-                .doOnError(e -> log.error("Error fetching project by ID: {}", id, e))
+        return getProjectById(id, null);
+    }
+
+    /**
+     * Reads the project through the cache; {@code minVersion}, when given, is
+     * the version the caller last wrote, and nothing older is returned.
+     */
+    public Mono<ProjectDto> getProjectById(String id, Long minVersion) {
+        return findProjectById(id, minVersion)
+                .flatMap(project -> getTaskCount(id).map(count -> toDto(project, count)))
                 .switchIfEmpty(Mono.error(new RuntimeException("Project not found: " + id)))
                 .onErrorResume(e -> Mono.error(new RuntimeException("Failed to fetch project by id", e)))
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in getProjectById, skipping element", throwable));
     }
 
+    /**
+     * The cached project entity, for callers that look at its version before
+     * mapping it (see {@link #toDto(Project, long)}). Empty if it does not exist.
+     */
+    public Mono<Project> findProjectById(String id, Long minVersion) {
+        return projectCache.get(id, minVersion)
+                .doOnError(e -> log.error("Error fetching project by ID: {}", id, e));
+    }
+
+    public ProjectDto toDto(Project project, long taskCount) {
+        ProjectDto dto = ProjectUtils.entityToDto(project);
+        dto.setTaskCount(taskCount);
+        return dto;
+    }
+
     public Flux<ProjectDto> getProjectByCreatedBy(String owner) {
         return projectRepository.findByCreatedBy(owner)
                 .map(ProjectUtils::entityToDto)
@@ -100,25 +180,155 @@ public class ProjectService {
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in getProjectsByStatus, skipping element", throwable));
     }
 
-    // ==============================
-    // Get all tasks for a project (with event publishing)
-    // ==============================
-    public Flux<String> getAllTaskIdsByProjectId(String projectId) {
-        return projectRepository.findById(projectId)
-                .flatMapMany(project -> {
-                    if (project.getTaskIds() == null || project.getTaskIds().isEmpty()) {
-                        return Flux.empty();
+    /**
+     * One page of the projects a user belongs to (as owner, manager or
+     * member), optionally narrowed by status and priority.
+     *
+     * The membership test is pushed into the query as a top-level
+     * {@code $or} with one branch per role field, each carrying the filters
+     * and keyset bound, so every branch can walk its own
+     * {@code (roleField, sort)} index and MongoDB merges the sorted branches.
+     * One extra project is fetched to tell whether there is a next page.
+     */
+    public Mono<ProjectPageDto> getMyProjects(String userId, List<ProjectStatus> statuses,
+            List<ProjectPriority> priorities, String sort, Sort.Direction direction, int limit, String cursor) {
+        if (!ProjectCursor.SORT_FIELDS.contains(sort)) {
+            return Mono.error(new BadRequestException("Unsupported sort field: " + sort
+                    + " (expected one of " + ProjectCursor.SORT_FIELDS + ")"));
+        }
+        ProjectCursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? ProjectCursor.decode(cursor, sort, direction) : null;
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+
+        List<Criteria> branches = MEMBERSHIP_FIELDS.stream()
+                .map(field -> {
+                    List<Criteria> parts = new ArrayList<>();
+                    parts.add(Criteria.where(field).is(userId));
+                    if (statuses != null && !statuses.isEmpty()) {
+                        parts.add(Criteria.where("status").in(statuses));
+                    }
+                    if (priorities != null && !priorities.isEmpty()) {
+                        parts.add(Criteria.where("priority").in(priorities));
+                    }
+                    if (after != null) {
+                        parts.add(after.toCriteria());
+                    }
+                    return new Criteria().andOperator(parts);
+                })
+                .toList();
+        Query query = Query.query(new Criteria().orOperator(branches))
+                .with(Sort.by(direction, sort).and(Sort.by(direction, "_id")))
+                .limit(limit + 1);
+
+        return mongoTemplate.find(query, Project.class)
+                .collectList()
+                .map(projects -> {
+                    boolean hasMore = projects.size() > limit;
+                    List<Project> page = hasMore ? projects.subList(0, limit) : projects;
+                    String nextCursor = hasMore
+                            ? ProjectCursor.after(page.get(page.size() - 1), sort, direction).encode()
+                            : null;
+                    return ProjectPageDto.builder()
+                            .items(page.stream().map(ProjectUtils::entityToDto).toList())
+                            .nextCursor(nextCursor)
+                            .build();
+                })
+                .doOnError(e -> log.error("Error fetching projects of user: {}", userId, e));
+    }
+
+    /**
+     * Projects the user belongs to whose name matches a search, ranked for
+     * project pickers: names starting with the text first (so an exact match
+     * leads), then names having a word that starts with each word of the
+     * text, each group in name order.
+     *
+     * Both groups are anchored prefix matches on the lower-cased search keys,
+     * answered from the {@code nameKey} and {@code nameTokens} indexes with
+     * membership checked on the candidates. The word match only runs when
+     * the prefix match leaves room under the limit.
+     */
+    public Flux<ProjectSummaryDto> searchProjects(String userId, String text, int limit) {
+        String key = ProjectNameKeys.key(text);
+        if (key == null || key.isEmpty()) {
+            return Flux.error(new BadRequestException("Search text must not be blank"));
+        }
+        List<String> tokens = ProjectNameKeys.tokens(text);
+        Criteria membership = new Criteria().orOperator(MEMBERSHIP_FIELDS.stream()
+                .map(field -> Criteria.where(field).is(userId))
+                .toList());
+
+        Criteria byPrefix = new Criteria().andOperator(
+                Criteria.where("nameKey").regex(ProjectNameKeys.prefixRegex(key)), membership);
+        return mongoTemplate.find(nameSearchQuery(byPrefix, limit), Project.class)
+                .collectList()
+                .flatMapMany(prefixMatches -> {
+                    if (prefixMatches.size() >= limit || tokens.isEmpty()) {
+                        return Flux.fromIterable(prefixMatches);
                     }
-                    return Flux.fromIterable(project.getTaskIds());
+                    Object[] tokenPrefixes = tokens.stream()
+                            .map(token -> Pattern.compile(ProjectNameKeys.prefixRegex(token)))
+                            .toArray();
+                    Criteria byTokens = new Criteria().andOperator(
+                            Criteria.where("nameTokens").all(tokenPrefixes),
+                            Criteria.where("_id").nin(prefixMatches.stream().map(Project::getId).toList()),
+                            membership);
+                    return Flux.fromIterable(prefixMatches)
+                            .concatWith(mongoTemplate.find(nameSearchQuery(byTokens, limit - prefixMatches.size()),
+                                    Project.class));
                 })
+                .map(ProjectUtils::entityToSummary)
+                .doOnError(e -> log.error("Error searching projects of user {} for '{}'", userId, text, e));
+    }
+
+    private static Query nameSearchQuery(Criteria criteria, int limit) {
+        return new BasicQuery(criteria.getCriteriaObject(), Document.parse(ProjectRepository.SUMMARY_FIELDS))
+                .with(Sort.by("nameKey", "_id"))
+                .limit(limit);
+    }
+
+    // ==============================
+    // Tasks of a project (owned by task-service)
+    // ==============================
+
+    /**
+     * Lists the project's task ids from task-service, which finds them
+     * through its {@code projectId} index. Projects no longer embed the ids.
+     */
+    public Flux<String> getAllTaskIdsByProjectId(String projectId, ServerHttpRequest request) {
+        return requireProject(projectId)
+                .thenMany(taskServiceWebClient.get()
+                        .uri(uriBuilder -> uriBuilder.path(TASKS_PATH + "/ids").queryParam("projectId", projectId).build())
+                        .headers(headers -> forwardHeaders(request, headers))
+                        .retrieve()
+                        .bodyToFlux(String.class))
                 .doOnError(e -> log.error("Error fetching task IDs for project: {}", projectId, e))
-                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch task IDs for project", e)))
-                .onErrorContinue((throwable, o) -> log.error("Unhandled error in getAllTaskIdsByProjectId, skipping element", throwable));
+                .onErrorResume(e -> !(e instanceof ResourceNotFoundException),
+                        e -> Flux.error(new RuntimeException("Failed to fetch task IDs for project", e)));
+    }
+
+    /**
+     * Number of tasks in the project, as counted from task-events.
+     */
+    public Mono<Long> getTaskCount(String projectId) {
+        return mongoTemplate.findById(projectId, ProjectTaskStats.class)
+                .map(ProjectTaskStats::getTaskCount)
+                .defaultIfEmpty(0L);
     }
 
     // ==============================
     // Create a task for a specific project
     // ==============================
+
+    /**
+     * Creates the task in task-service. The project document is neither read
+     * nor written: its existence comes from the access lookup the permission
+     * check already made in this request, and its task counter is a separate
+     * document bumped with one {@code $inc} when the TASK_CREATED event
+     * arrives, so concurrent creations never contend on the project's version.
+     */
     public Mono<TaskDto> createTaskForProject(String projectId, TaskDto taskDto, ServerHttpRequest request) {
         TaskDto taskToCreate = TaskDto.builder()
                 .id(taskDto.getId())
@@ -139,76 +349,57 @@ public class ProjectService {
                 .projectId(projectId)
                 .build();
 
-        // 1. Persist the task in the real task microservice through API Gateway
-        return taskServiceWebClient.post()
-                .uri("")
-                .headers(headers -> {
-                    // Forward authentication headers from the original request
-                    String authHeader = request.getHeaders().getFirst("Authorization");
-                    if (authHeader != null) {
-                        headers.set("Authorization", authHeader);
-                    }
+        // 1. Make sure the project exists, from the request's memoized access lookup
+        return projectCache.getAccess(projectId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Project not found: " + projectId)))
+                // 2. Persist the task in task-service
+                .then(taskServiceWebClient.post()
+                        .uri(TASKS_PATH)
+                        .headers(headers -> forwardHeaders(request, headers))
+                        .bodyValue(taskToCreate)
+                        .retrieve()
+                        .bodyToMono(TaskDto.class)
+                        .doOnError(e -> log.error("Error creating task for project: {}", projectId, e))
+                        .onErrorResume(e -> Mono.error(new RuntimeException("Failed to create task for project", e))))
+                // 3. Enqueue the event once the task exists
+                .flatMap(createdTask -> enqueueProjectTaskCreatedEvent(createdTask, projectId).thenReturn(createdTask));
+    }
 
-                    String userIdHeader = request.getHeaders().getFirst("X-User-Id");
-                    if (userIdHeader != null) {
-                        headers.set("X-User-Id", userIdHeader);
-                    }
+    private static void forwardHeaders(ServerHttpRequest request, HttpHeaders headers) {
+        // Forward authentication headers from the original request
+        String authHeader = request.getHeaders().getFirst("Authorization");
+        if (authHeader != null) {
+            headers.set("Authorization", authHeader);
+        }
 
-                    // Forward any other relevant headers
-                    String correlationId = request.getHeaders().getFirst("X-Correlation-ID");
-                    if (correlationId != null) {
-                        headers.set("X-Correlation-ID", correlationId);
-                    }
-                })
-                .bodyValue(taskToCreate)
-                .retrieve()
-                .bodyToMono(TaskDto.class)
-                .doOnError(e -> log.error("Error creating task for project: {}", projectId, e))
-                .onErrorResume(e -> Mono.error(new RuntimeException("Failed to create task for project", e)))
-                .flatMap(createdTask
-                        -> // 2. Add the created task's ID to the project
-                        projectRepository.findById(projectId)
-                        .switchIfEmpty(Mono.error(new RuntimeException("Project not found with ID: " + projectId)))
-                        .flatMap(project -> {
-                            // Ensure taskIds list is not null
-                            if (project.getTaskIds() == null) {
-                                project.setTaskIds(new ArrayList<>());
-                            }
-                            project.getTaskIds().add(createdTask.getId());
-                            return projectRepository.save(project)
-                                    .thenReturn(createdTask);
-                        })
-                        .doOnError(e -> log.error("Error updating project with new task ID: {}", projectId, e))
-                        .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update project with new task ID", e)))
-                        // 3. Publish event after both task creation and project update
-                        .doOnSuccess(savedTask -> publishProjectTaskCreatedEvent(savedTask, projectId))
-                )
-                .onErrorContinue((throwable, o) -> log.error("Unhandled error in createTaskForProject, skipping element", throwable));
-    }
+        // Identity headers set by the gateway, which task-service authenticates from
+        for (String identityHeader : List.of("X-User-Id", "X-User-Email", "X-User-Role")) {
+            String value = request.getHeaders().getFirst(identityHeader);
+            if (value != null) {
+                headers.set(identityHeader, value);
+            }
+        }
 
-    private void publishProjectTaskCreatedEvent(TaskDto createdTask, String projectId) {
-        try {
-            ProjectTaskCreatedEventPayload payload = new ProjectTaskCreatedEventPayload(createdTask, projectId);
-            EventEnvelope<ProjectTaskCreatedEventPayload> envelope = new EventEnvelope<>(
-                    "N/A-project-task-create",
-                    ProjectTaskCreatedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectTaskCreatedEvent envelope for projectId: {} and taskId: {}", projectId, createdTask.getId());
-            kafkaTemplate.send(projectEventsTopic, projectId, envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectTaskCreatedEvent envelope for projectId: {}", projectId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectTaskCreatedEvent for projectId: {}", projectId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectTaskCreatedEvent for projectId: {}", projectId, e);
+        // Forward any other relevant headers
+        String correlationId = request.getHeaders().getFirst("X-Correlation-ID");
+        if (correlationId != null) {
+            headers.set("X-Correlation-ID", correlationId);
         }
     }
 
+    private Mono<Void> enqueueProjectTaskCreatedEvent(TaskDto createdTask, String projectId) {
+        ProjectTaskCreatedEventPayload payload = new ProjectTaskCreatedEventPayload(createdTask, projectId);
+        EventEnvelope<ProjectTaskCreatedEventPayload> envelope = new EventEnvelope<>(
+                "N/A-project-task-create",
+                ProjectTaskCreatedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectTaskCreatedEvent envelope for projectId: {} and taskId: {}", projectId, createdTask.getId());
+        return outboxPublisher.enqueue(projectEventsTopic, projectId, envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectTaskCreatedEvent envelope for projectId: {}", projectId, e));
+    }
+
     // ==============================
     // Write operations (Transformed)
     // ==============================
@@ -236,7 +427,8 @@ public class ProjectService {
             return projectRepository.save(projectEntity)
                     .doOnError(e -> log.error("Error creating project", e))
                     .onErrorResume(e -> Mono.error(new RuntimeException("Failed to create project", e)))
-                    .doOnSuccess(createdProject -> publishProjectCreatedEvent(createdProject, contextView))
+                    .doOnNext(projectCache::put)
+                    .delayUntil(createdProject -> publishProjectCreatedEvent(createdProject, contextView))
                     .map(ProjectUtils::entityToDto)
                     .onErrorContinue((throwable, o) -> log.error("Unhandled error in createProject, skipping element", throwable));
         });
@@ -304,19 +496,21 @@ public class ProjectService {
                             return projectRepository.save(existingProject)
                                     .doOnError(e -> log.error("Error updating project with ID: {}", id, e))
                                     .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update project", e)))
-                                    .doOnSuccess(updatedProject -> {
+                                    .doOnNext(projectCache::put)
+                                    .flatMap(updatedProject -> {
                                         ProjectDto updatedDto = ProjectUtils.entityToDto(updatedProject);
 
                                         // Publish general update event
-                                        publishProjectUpdatedEvent(updatedProject, contextView);
+                                        Mono<Void> events = publishProjectUpdatedEvent(updatedProject, contextView);
 
                                         // Publish specific events if fields changed
                                         if (finalStatusChanged) {
-                                            publishProjectStatusChangedEvent(updatedDto, contextView);
+                                            events = events.then(publishProjectStatusChangedEvent(updatedDto, contextView));
                                         }
                                         if (finalPriorityChanged) {
-                                            publishProjectPriorityChangedEvent(updatedDto, contextView);
+                                            events = events.then(publishProjectPriorityChangedEvent(updatedDto, contextView));
                                         }
+                                        return events.thenReturn(updatedProject);
                                     });
                         })
                         .map(ProjectUtils::entityToDto)
@@ -336,61 +530,40 @@ public class ProjectService {
                     return projectRepository.save(project)
                             .doOnError(e -> log.error("Error updating project status for projectId: {}", projectId, e))
                             .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update project status", e)))
+                            .doOnNext(projectCache::put)
                             .map(ProjectUtils::entityToDto)
-                            .doOnSuccess(updatedDto -> {
-                                if (statusChanged) {
-                                    publishProjectStatusChangedEvent(updatedDto);
-                                }
-                            });
+                            .flatMap(updatedDto -> statusChanged
+                                    ? publishProjectStatusChangedEvent(updatedDto).thenReturn(updatedDto)
+                                    : Mono.just(updatedDto));
                 })
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in updateProjectStatus, skipping element", throwable));
     }
 
-    private void publishProjectStatusChangedEvent(ProjectDto projectDto) {
-        try {
-            ProjectStatusChangedEventPayload payload = new ProjectStatusChangedEventPayload(projectDto);
-            EventEnvelope<ProjectStatusChangedEventPayload> envelope = new EventEnvelope<>(
-                    "N/A-status-change",
-                    ProjectStatusChangedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId());
-            kafkaTemplate.send(projectEventsTopic, projectDto.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId(), e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectStatusChangedEvent for projectId: {}", projectDto.getId(), e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectStatusChangedEvent for projectId: {}", projectDto.getId(), e);
-        }
+    private Mono<Void> publishProjectStatusChangedEvent(ProjectDto projectDto) {
+        ProjectStatusChangedEventPayload payload = new ProjectStatusChangedEventPayload(projectDto);
+        EventEnvelope<ProjectStatusChangedEventPayload> envelope = new EventEnvelope<>(
+                "N/A-status-change",
+                ProjectStatusChangedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId());
+        return outboxPublisher.enqueue(projectEventsTopic, projectDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId(), e));
     }
 
-    private void publishProjectStatusChangedEvent(ProjectDto projectDto, ContextView contextView) {
-        try {
-            String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-status-change");
-            ProjectStatusChangedEventPayload payload = new ProjectStatusChangedEventPayload(projectDto);
-            EventEnvelope<ProjectStatusChangedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    ProjectStatusChangedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectStatusChangedEvent envelope for projectId: {} with correlationId: {}", projectDto.getId(), correlationId);
-            kafkaTemplate.send(projectEventsTopic, projectDto.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId(), e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectStatusChangedEvent for projectId: {}", projectDto.getId(), e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectStatusChangedEvent for projectId: {}", projectDto.getId(), e);
-        }
+    private Mono<Void> publishProjectStatusChangedEvent(ProjectDto projectDto, ContextView contextView) {
+        String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-status-change");
+        ProjectStatusChangedEventPayload payload = new ProjectStatusChangedEventPayload(projectDto);
+        EventEnvelope<ProjectStatusChangedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectStatusChangedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectStatusChangedEvent envelope for projectId: {} with correlationId: {}", projectDto.getId(), correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, projectDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectStatusChangedEvent envelope for projectId: {}", projectDto.getId(), e));
     }
 
     public Mono<ProjectDto> updateProjectPriority(String projectId, ProjectPriority newPriority, Long expectedVersion) {
@@ -404,61 +577,208 @@ public class ProjectService {
                     return projectRepository.save(project)
                             .doOnError(e -> log.error("Error updating project priority for projectId: {}", projectId, e))
                             .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update project priority", e)))
+                            .doOnNext(projectCache::put)
                             .map(ProjectUtils::entityToDto)
-                            .doOnSuccess(updatedDto -> {
-                                if (priorityChanged) {
-                                    publishProjectPriorityChangedEvent(updatedDto);
-                                }
-                            });
+                            .flatMap(updatedDto -> priorityChanged
+                                    ? publishProjectPriorityChangedEvent(updatedDto).thenReturn(updatedDto)
+                                    : Mono.just(updatedDto));
                 })
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in updateProjectPriority, skipping element", throwable));
     }
 
-    private void publishProjectPriorityChangedEvent(ProjectDto projectDto) {
-        try {
-            ProjectPriorityChangedEventPayload payload = new ProjectPriorityChangedEventPayload(projectDto);
-            EventEnvelope<ProjectPriorityChangedEventPayload> envelope = new EventEnvelope<>(
-                    "N/A-priority-change",
-                    ProjectPriorityChangedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId());
-            kafkaTemplate.send(projectEventsTopic, projectDto.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId(), e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectPriorityChangedEvent for projectId: {}", projectDto.getId(), e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectPriorityChangedEvent for projectId: {}", projectDto.getId(), e);
+    private Mono<Void> publishProjectPriorityChangedEvent(ProjectDto projectDto) {
+        ProjectPriorityChangedEventPayload payload = new ProjectPriorityChangedEventPayload(projectDto);
+        EventEnvelope<ProjectPriorityChangedEventPayload> envelope = new EventEnvelope<>(
+                "N/A-priority-change",
+                ProjectPriorityChangedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId());
+        return outboxPublisher.enqueue(projectEventsTopic, projectDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId(), e));
+    }
+
+    private Mono<Void> publishProjectPriorityChangedEvent(ProjectDto projectDto, ContextView contextView) {
+        String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-priority-change");
+        ProjectPriorityChangedEventPayload payload = new ProjectPriorityChangedEventPayload(projectDto);
+        EventEnvelope<ProjectPriorityChangedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectPriorityChangedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectPriorityChangedEvent envelope for projectId: {} with correlationId: {}", projectDto.getId(), correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, projectDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId(), e));
+    }
+
+    // An item of a bulk update, with the project as read; outcome is null while the item still has to be written
+    private record BulkPlan(BulkUpdateProjectsRequestDto.Item item, Project project, BulkProjectUpdateResultDto.Outcome outcome) {
+    }
+
+    /**
+     * Applies status and/or priority changes to many projects at once: one
+     * read of the projects involved, one unordered bulkWrite whose updates
+     * only match the version that was read, and one batch of events.
+     *
+     * Items are checked against the projects as read, and missing projects,
+     * denied changes, version mismatches and items that would change nothing
+     * are reported without writing. A project that changes between the read
+     * and the write makes its update match nothing. bulkWrite only reports
+     * totals, so when some updates did not apply the projects are read again
+     * to tell which did. Every update in the batch stamps the same
+     * {@code updatedAt}, so a project counts as updated only when it is
+     * exactly one version further on and still carries that stamp; a
+     * concurrent writer that set the same values has a stamp of its own.
+     *
+     * @param permission checks PRJ_STATUS_CHANGE or PRJ_PRIORITY_CHANGE on a project
+     */
+    public Mono<BulkProjectUpdateResultDto> bulkUpdateProjects(List<BulkUpdateProjectsRequestDto.Item> items, String actorId,
+            BiFunction<Project, String, Mono<Boolean>> permission) {
+        Set<String> ids = new LinkedHashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Project.class)
+                .collectMap(Project::getId)
+                .flatMap(projects -> {
+                    Set<String> seen = new HashSet<>();
+                    return Flux.fromIterable(items)
+                            .concatMap(item -> planBulkItem(item, projects.get(item.getId()), seen.add(item.getId()), permission))
+                            .collectList();
+                })
+                .flatMap(plans -> applyBulkPlans(plans, actorId))
+                .doOnError(e -> log.error("Error applying bulk update to {} project(s)", items.size(), e));
+    }
+
+    private Mono<BulkPlan> planBulkItem(BulkUpdateProjectsRequestDto.Item item, Project project, boolean firstForProject,
+            BiFunction<Project, String, Mono<Boolean>> permission) {
+        if (!firstForProject || (item.getNewStatus() == null && item.getNewPriority() == null)) {
+            return Mono.just(new BulkPlan(item, project, BulkProjectUpdateResultDto.Outcome.INVALID));
+        }
+        if (project == null) {
+            return Mono.just(new BulkPlan(item, null, BulkProjectUpdateResultDto.Outcome.NOT_FOUND));
         }
+        Mono<Boolean> allowed = item.getNewStatus() != null ? permission.apply(project, "PRJ_STATUS_CHANGE") : Mono.just(true);
+        return allowed
+                .flatMap(ok -> ok && item.getNewPriority() != null ? permission.apply(project, "PRJ_PRIORITY_CHANGE") : Mono.just(ok))
+                .map(ok -> {
+                    if (!ok) {
+                        return new BulkPlan(item, project, BulkProjectUpdateResultDto.Outcome.FORBIDDEN);
+                    }
+                    if (item.getExpectedVersion() != null && !item.getExpectedVersion().equals(project.getVersion())) {
+                        return new BulkPlan(item, project, BulkProjectUpdateResultDto.Outcome.CONFLICT);
+                    }
+                    boolean changes = (item.getNewStatus() != null && item.getNewStatus() != project.getStatus())
+                            || (item.getNewPriority() != null && item.getNewPriority() != project.getPriority());
+                    return new BulkPlan(item, project, changes ? null : BulkProjectUpdateResultDto.Outcome.UNCHANGED);
+                });
     }
 
-    private void publishProjectPriorityChangedEvent(ProjectDto projectDto, ContextView contextView) {
-        try {
-            String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-priority-change");
-            ProjectPriorityChangedEventPayload payload = new ProjectPriorityChangedEventPayload(projectDto);
-            EventEnvelope<ProjectPriorityChangedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    ProjectPriorityChangedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectPriorityChangedEvent envelope for projectId: {} with correlationId: {}", projectDto.getId(), correlationId);
-            kafkaTemplate.send(projectEventsTopic, projectDto.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectPriorityChangedEvent envelope for projectId: {}", projectDto.getId(), e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectPriorityChangedEvent for projectId: {}", projectDto.getId(), e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectPriorityChangedEvent for projectId: {}", projectDto.getId(), e);
+    private Mono<BulkProjectUpdateResultDto> applyBulkPlans(List<BulkPlan> plans, String actorId) {
+        List<BulkPlan> writes = plans.stream().filter(plan -> plan.outcome() == null).toList();
+        if (writes.isEmpty()) {
+            return Mono.just(bulkResult(plans, Map.of()));
+        }
+        // Mongo keeps dates to the millisecond, so the stamp reads back equal
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Project.class);
+        for (BulkPlan plan : writes) {
+            Update update = versionedUpdate(actorId, now);
+            if (plan.item().getNewStatus() != null) {
+                update.set("status", plan.item().getNewStatus());
+            }
+            if (plan.item().getNewPriority() != null) {
+                update.set("priority", plan.item().getNewPriority());
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(plan.project().getId())
+                    .and("version").is(plan.project().getVersion())), update);
+        }
+        return Mono.deferContextual(contextView -> bulk.execute()
+                // Empty when every update applied; otherwise the projects as they now are
+                .flatMap(result -> result.getModifiedCount() == writes.size()
+                        ? Mono.just(Optional.<Map<String, Project>>empty())
+                        : currentVersions(writes).map(Optional::of))
+                .flatMap(reread -> {
+                    Map<String, BulkProjectUpdateResultDto.ItemResult> written = new HashMap<>();
+                    List<OutboxEventPublisher.Message> events = new ArrayList<>();
+                    String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-bulk-update");
+                    for (BulkPlan plan : writes) {
+                        String id = plan.project().getId();
+                        if (reread.isPresent() && !bulkWriteApplied(plan, reread.get().get(id), now)) {
+                            Project current = reread.get().get(id);
+                            projectCache.invalidate(id);
+                            written.put(id, new BulkProjectUpdateResultDto.ItemResult(id, BulkProjectUpdateResultDto.Outcome.CONFLICT,
+                                    current != null ? current.getVersion() : null));
+                            continue;
+                        }
+                        events.addAll(applyBulkItem(plan, actorId, now, correlationId));
+                        projectCache.put(plan.project());
+                        written.put(id, new BulkProjectUpdateResultDto.ItemResult(id, BulkProjectUpdateResultDto.Outcome.UPDATED,
+                                plan.project().getVersion()));
+                    }
+                    long updated = written.values().stream()
+                            .filter(itemResult -> itemResult.getOutcome() == BulkProjectUpdateResultDto.Outcome.UPDATED).count();
+                    log.info("Bulk update changed {} of {} project(s). CorrID: {}", updated, plans.size(), correlationId);
+                    return outboxPublisher.enqueueAll(events)
+                            .doOnError(e -> log.error("Failed to enqueue bulk update events. CorrID: {}", correlationId, e))
+                            .thenReturn(bulkResult(plans, written));
+                }));
+    }
+
+    // Re-reads the versions and update stamps of projects whose bulk update may not have applied
+    private Mono<Map<String, Project>> currentVersions(List<BulkPlan> writes) {
+        Query query = Query.query(Criteria.where("_id").in(writes.stream().map(plan -> plan.project().getId()).toList()));
+        query.fields().include("_id", "version", "updatedAt");
+        return mongoTemplate.find(query, Project.class).collectMap(Project::getId);
+    }
+
+    // The state this batch's update leaves behind: the version read plus one, stamped with the batch's updatedAt
+    private static boolean bulkWriteApplied(BulkPlan plan, Project current, Instant writtenAt) {
+        long readVersion = plan.project().getVersion() != null ? plan.project().getVersion() : 0;
+        return current != null
+                && current.getVersion() != null && current.getVersion() == readVersion + 1
+                && writtenAt.equals(current.getUpdatedAt());
+    }
+
+    // Brings the project as read up to date with the applied update and builds its events
+    private List<OutboxEventPublisher.Message> applyBulkItem(BulkPlan plan, String actorId, Instant now, String correlationId) {
+        Project project = plan.project();
+        boolean statusChanged = plan.item().getNewStatus() != null && plan.item().getNewStatus() != project.getStatus();
+        boolean priorityChanged = plan.item().getNewPriority() != null && plan.item().getNewPriority() != project.getPriority();
+        if (plan.item().getNewStatus() != null) {
+            project.setStatus(plan.item().getNewStatus());
+        }
+        if (plan.item().getNewPriority() != null) {
+            project.setPriority(plan.item().getNewPriority());
+        }
+        project.setVersion(project.getVersion() != null ? project.getVersion() + 1 : 1);
+        project.setUpdatedAt(now);
+        if (actorId != null) {
+            project.setLastModifiedBy(actorId);
+        }
+        ProjectDto dto = ProjectUtils.entityToDto(project);
+        List<OutboxEventPublisher.Message> events = new ArrayList<>(2);
+        if (statusChanged) {
+            events.add(new OutboxEventPublisher.Message(projectEventsTopic, project.getId(), new EventEnvelope<>(correlationId,
+                    ProjectStatusChangedEventPayload.EVENT_TYPE, serviceName, new ProjectStatusChangedEventPayload(dto))));
         }
+        if (priorityChanged) {
+            events.add(new OutboxEventPublisher.Message(projectEventsTopic, project.getId(), new EventEnvelope<>(correlationId,
+                    ProjectPriorityChangedEventPayload.EVENT_TYPE, serviceName, new ProjectPriorityChangedEventPayload(dto))));
+        }
+        return events;
+    }
+
+    private static BulkProjectUpdateResultDto bulkResult(List<BulkPlan> plans,
+            Map<String, BulkProjectUpdateResultDto.ItemResult> written) {
+        List<BulkProjectUpdateResultDto.ItemResult> results = new ArrayList<>(plans.size());
+        for (BulkPlan plan : plans) {
+            results.add(plan.outcome() == null
+                    ? written.get(plan.project().getId())
+                    : new BulkProjectUpdateResultDto.ItemResult(plan.item().getId(), plan.outcome(),
+                            plan.project() != null ? plan.project().getVersion() : null));
+        }
+        return BulkProjectUpdateResultDto.builder().results(results).build();
     }
 
     public Mono<ProjectDto> updateProjectCombined(String id, ProjectDto dto) {
@@ -486,44 +806,36 @@ public class ProjectService {
                     return projectRepository.save(project)
                             .doOnError(e -> log.error("Error updating project combined fields for ID: {}", id, e))
                             .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update project combined fields", e)))
+                            .doOnNext(projectCache::put)
                             .map(ProjectUtils::entityToDto)
-                            .doOnSuccess(updatedDto -> {
+                            .flatMap(updatedDto -> {
                                 // Publish general update event
-                                publishProjectUpdatedEvent(updatedDto);
+                                Mono<Void> events = publishProjectUpdatedEvent(updatedDto);
 
                                 // Publish specific events if fields changed
                                 if (statusChanged) {
-                                    publishProjectStatusChangedEvent(updatedDto);
+                                    events = events.then(publishProjectStatusChangedEvent(updatedDto));
                                 }
                                 if (priorityChanged) {
-                                    publishProjectPriorityChangedEvent(updatedDto);
+                                    events = events.then(publishProjectPriorityChangedEvent(updatedDto));
                                 }
+                                return events.thenReturn(updatedDto);
                             });
                 })
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in updateProjectCombined, skipping element", throwable));
     }
 
-    private void publishProjectUpdatedEvent(ProjectDto projectDto) {
-        try {
-            ProjectUpdatedEventPayload payload = new ProjectUpdatedEventPayload(projectDto);
-            EventEnvelope<ProjectUpdatedEventPayload> envelope = new EventEnvelope<>(
-                    "N/A-project-update",
-                    ProjectUpdatedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectUpdatedEvent envelope for projectId: {}", projectDto.getId());
-            kafkaTemplate.send(projectEventsTopic, projectDto.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectUpdatedEvent envelope for projectId: {}", projectDto.getId(), e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectUpdatedEvent for projectId: {}", projectDto.getId(), e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectUpdatedEvent for projectId: {}", projectDto.getId(), e);
-        }
+    private Mono<Void> publishProjectUpdatedEvent(ProjectDto projectDto) {
+        ProjectUpdatedEventPayload payload = new ProjectUpdatedEventPayload(projectDto);
+        EventEnvelope<ProjectUpdatedEventPayload> envelope = new EventEnvelope<>(
+                "N/A-project-update",
+                ProjectUpdatedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectUpdatedEvent envelope for projectId: {}", projectDto.getId());
+        return outboxPublisher.enqueue(projectEventsTopic, projectDto.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectUpdatedEvent envelope for projectId: {}", projectDto.getId(), e));
     }
 
     public Mono<Void> deleteProject(String id) {
@@ -531,106 +843,261 @@ public class ProjectService {
         return Mono.deferContextual(contextView
                 -> projectRepository.findById(id)
                         .flatMap(projectToDelete
-                                -> projectRepository.deleteById(id).thenReturn(projectToDelete)
+                                -> projectRepository.deleteById(id)
+                                        .then(mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), ProjectTaskStats.class))
+                                        .thenReturn(projectToDelete)
                         )
                         .doOnError(e -> log.error("Error deleting project with ID: {}", id, e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to delete project", e)))
-                        .doOnSuccess(deletedProject -> publishProjectDeletedEvent(deletedProject, contextView))
-                        .then()
+                        .doOnNext(deletedProject -> projectCache.invalidate(id))
+                        .flatMap(deletedProject -> publishProjectDeletedEvent(deletedProject, contextView))
                         .onErrorContinue((throwable, o) -> log.error("Unhandled error in deleteProject, skipping element", throwable))
         );
     }
 
+    // ==============================
+    // Membership (single-write updates)
+    // ==============================
+
+    /**
+     * Adds a user to a project with one conditional {@code $addToSet}, without
+     * reading the project first. The filter only matches when the user does
+     * not already hold the role, so a repeated add writes nothing and
+     * publishes nothing. Only then is the project's existence checked, to
+     * tell "already a member" from "no such project".
+     *
+     * @return true if the membership changed
+     */
+    public Mono<Boolean> addMember(String projectId, String userId, ProjectMemberRole role, String actorId) {
+        ProjectMemberRole effectiveRole = role != null ? role : ProjectMemberRole.MEMBER;
+        String roleField = effectiveRole == ProjectMemberRole.MANAGER ? "managerIds" : "memberIds";
+        Query query = Query.query(Criteria.where("_id").is(projectId).and(roleField).ne(userId));
+        // Managers are members too, so memberIds stays the full roster
+        Update update = versionedUpdate(actorId).addToSet("memberIds", userId);
+        if (effectiveRole == ProjectMemberRole.MANAGER) {
+            update.addToSet("managerIds", userId);
+        }
+        return Mono.deferContextual(contextView -> mongoTemplate.updateFirst(query, update, Project.class)
+                .flatMap(result -> result.getModifiedCount() > 0
+                        ? Mono.just(true)
+                        : requireProject(projectId).thenReturn(false))
+                .flatMap(changed -> {
+                    if (!changed) {
+                        log.debug("User {} already has role {} in project {}", userId, effectiveRole, projectId);
+                        return Mono.just(false);
+                    }
+                    projectCache.invalidate(projectId);
+                    log.info("Added user {} to project {} as {}", userId, projectId, effectiveRole);
+                    return publishProjectMemberAddedEvent(
+                            new ProjectMemberAddedEventPayload(projectId, userId, effectiveRole, actorId), contextView)
+                            .thenReturn(true);
+                })
+                .doOnError(e -> log.error("Error adding user {} to project {}", userId, projectId, e)));
+    }
+
+    /**
+     * Removes a user from a project's members and managers with a single
+     * {@code $pull}, without reading the project first. Ownership is not
+     * affected.
+     *
+     * @return true if the membership changed
+     */
+    public Mono<Boolean> removeMember(String projectId, String userId, String actorId) {
+        Query query = Query.query(Criteria.where("_id").is(projectId)
+                .orOperator(Criteria.where("memberIds").is(userId), Criteria.where("managerIds").is(userId)));
+        Update update = versionedUpdate(actorId).pull("memberIds", userId).pull("managerIds", userId);
+        return Mono.deferContextual(contextView -> mongoTemplate.updateFirst(query, update, Project.class)
+                .flatMap(result -> result.getModifiedCount() > 0
+                        ? Mono.just(true)
+                        : requireProject(projectId).thenReturn(false))
+                .flatMap(changed -> {
+                    if (!changed) {
+                        log.debug("User {} is not a member of project {}", userId, projectId);
+                        return Mono.just(false);
+                    }
+                    projectCache.invalidate(projectId);
+                    log.info("Removed user {} from project {}", userId, projectId);
+                    return publishProjectMemberRemovedEvent(
+                            new ProjectMemberRemovedEventPayload(projectId, userId, actorId), contextView)
+                            .thenReturn(true);
+                })
+                .doOnError(e -> log.error("Error removing user {} from project {}", userId, projectId, e)));
+    }
+
+    // Bumps the version so a concurrent full-document save based on an older read fails its optimistic lock
+    private static Update versionedUpdate(String actorId) {
+        return versionedUpdate(actorId, Instant.now());
+    }
+
+    private static Update versionedUpdate(String actorId, Instant now) {
+        Update update = new Update().inc("version", 1).set("updatedAt", now);
+        if (actorId != null) {
+            update.set("lastModifiedBy", actorId);
+        }
+        return update;
+    }
+
+    private Mono<Void> requireProject(String projectId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(projectId)), Project.class)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("Project not found: " + projectId)));
+    }
+
+    /**
+     * Removes a deleted user from every project in one indexed
+     * {@code updateMulti} ({@code $pull} from memberIds and managerIds, both
+     * indexed in mongodb-schema.js) instead of scanning the collection and
+     * saving each project.
+     *
+     * Projects the user owned are first handed to their first remaining
+     * manager, or failing that their first remaining member; a project with
+     * neither keeps its owner and is logged. One summary event lists the
+     * affected projects and new owners.
+     */
     public Mono<Void> removeUserFromAllProjects(String userId) {
-        return projectRepository.findAll()
-                .filter(project -> project.getMemberIds() != null && project.getMemberIds().contains(userId))
+        Criteria membership = new Criteria().orOperator(
+                Criteria.where("memberIds").is(userId), Criteria.where("managerIds").is(userId));
+        Query affectedProjects = Query.query(membership);
+        affectedProjects.fields().include("_id");
+        Update pull = versionedUpdate(null).pull("memberIds", userId).pull("managerIds", userId);
+
+        return Mono.deferContextual(contextView -> transferOwnedProjects(userId)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .zipWith(mongoTemplate.find(affectedProjects, Project.class).map(Project::getId).collectList())
+                .flatMap(owners -> mongoTemplate.updateMulti(Query.query(membership), pull, Project.class)
+                        .doOnNext(result -> log.info("Removed user {} from {} project(s); transferred ownership of {}",
+                                userId, result.getModifiedCount(), owners.getT1().size()))
+                        .flatMap(result -> {
+                            owners.getT1().keySet().forEach(projectCache::invalidate);
+                            owners.getT2().forEach(projectCache::invalidate);
+                            if (owners.getT2().isEmpty() && owners.getT1().isEmpty()) {
+                                return Mono.<Void>empty();
+                            }
+                            return publishUserRemovedFromProjectsEvent(new UserRemovedFromProjectsEventPayload(
+                                    userId, owners.getT2(), owners.getT1()), contextView);
+                        }))
+                .doOnError(e -> log.error("Error removing user {} from projects", userId, e))
+                .then());
+    }
+
+    // Emits projectId -> new owner for each project the user owned and that had someone to take it over
+    private Flux<Map.Entry<String, String>> transferOwnedProjects(String userId) {
+        Query owned = Query.query(Criteria.where("ownerId").is(userId));
+        owned.fields().include("managerIds").include("memberIds");
+        return mongoTemplate.find(owned, Project.class)
                 .flatMap(project -> {
-                    project.getMemberIds().removeIf(id -> id.equals(userId));
-                    return projectRepository.save(project)
-                            .doOnError(e -> log.error("Error removing user {} from project {}", userId, project.getId(), e))
-                            .onErrorResume(e -> Mono.error(new RuntimeException("Failed to remove user from project", e)))
-                            .doOnSuccess(p -> log.info("Removed user {} from project {}", userId, project.getId()));
-                })
-                .onErrorContinue((throwable, o) -> log.error("Unhandled error in removeUserFromAllProjects, skipping element", throwable))
-                .then();
+                    String successor = successor(project, userId);
+                    if (successor == null) {
+                        log.warn("Project {} owned by deleted user {} has no other manager or member to take it over", project.getId(), userId);
+                        return Mono.empty();
+                    }
+                    // Conditional on the owner so a concurrent transfer is not overwritten
+                    Query query = Query.query(Criteria.where("_id").is(project.getId()).and("ownerId").is(userId));
+                    return mongoTemplate.updateFirst(query, versionedUpdate(null).set("ownerId", successor), Project.class)
+                            .filter(result -> result.getModifiedCount() > 0)
+                            .map(result -> Map.entry(project.getId(), successor));
+                });
+    }
+
+    private static String successor(Project project, String userId) {
+        for (List<String> candidates : List.of(project.getManagerIds(), project.getMemberIds())) {
+            if (candidates != null) {
+                for (String candidate : candidates) {
+                    if (candidate != null && !candidate.equals(userId)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return null;
     }
 
     // ==============================
     // Event Publishing Helper Methods
     // ==============================
-    private void publishProjectCreatedEvent(Project createdProject, ContextView contextView) {
+    private Mono<Void> publishProjectCreatedEvent(Project createdProject, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-proj-create");
-        try {
-            ProjectDto projectDto = ProjectUtils.entityToDto(createdProject);
-            ProjectCreatedEventPayload payload = new ProjectCreatedEventPayload(projectDto);
-            EventEnvelope<ProjectCreatedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    ProjectCreatedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectCreatedEvent envelope. CorrID: {}", correlationId);
-            kafkaTemplate.send(projectEventsTopic, createdProject.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectCreatedEvent envelope. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectCreatedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectCreatedEvent. CorrID: {}", correlationId, e);
-        }
+        ProjectDto projectDto = ProjectUtils.entityToDto(createdProject);
+        ProjectCreatedEventPayload payload = new ProjectCreatedEventPayload(projectDto);
+        EventEnvelope<ProjectCreatedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectCreatedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectCreatedEvent envelope. CorrID: {}", correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, createdProject.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectCreatedEvent envelope. CorrID: {}", correlationId, e));
     }
 
-    private void publishProjectUpdatedEvent(Project updatedProject, ContextView contextView) {
+    private Mono<Void> publishProjectUpdatedEvent(Project updatedProject, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-proj-update");
-        try {
-            ProjectDto projectDto = ProjectUtils.entityToDto(updatedProject);
-            ProjectUpdatedEventPayload payload = new ProjectUpdatedEventPayload(projectDto);
-            EventEnvelope<ProjectUpdatedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    ProjectUpdatedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectUpdatedEvent envelope. CorrID: {}", correlationId);
-            kafkaTemplate.send(projectEventsTopic, updatedProject.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectUpdatedEvent envelope. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectUpdatedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectUpdatedEvent. CorrID: {}", correlationId, e);
-        }
+        ProjectDto projectDto = ProjectUtils.entityToDto(updatedProject);
+        ProjectUpdatedEventPayload payload = new ProjectUpdatedEventPayload(projectDto);
+        EventEnvelope<ProjectUpdatedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectUpdatedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectUpdatedEvent envelope. CorrID: {}", correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, updatedProject.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectUpdatedEvent envelope. CorrID: {}", correlationId, e));
+    }
+
+    private Mono<Void> publishProjectMemberAddedEvent(ProjectMemberAddedEventPayload payload, ContextView contextView) {
+        String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-member-add");
+        EventEnvelope<ProjectMemberAddedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectMemberAddedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectMemberAddedEvent envelope for projectId: {}. CorrID: {}", payload.projectId(), correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, payload.projectId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectMemberAddedEvent envelope. CorrID: {}", correlationId, e));
     }
 
-    private void publishProjectDeletedEvent(Project deletedProject, ContextView contextView) {
+    private Mono<Void> publishProjectMemberRemovedEvent(ProjectMemberRemovedEventPayload payload, ContextView contextView) {
+        String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-member-remove");
+        EventEnvelope<ProjectMemberRemovedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectMemberRemovedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectMemberRemovedEvent envelope for projectId: {}. CorrID: {}", payload.projectId(), correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, payload.projectId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectMemberRemovedEvent envelope. CorrID: {}", correlationId, e));
+    }
+
+    private Mono<Void> publishUserRemovedFromProjectsEvent(UserRemovedFromProjectsEventPayload payload, ContextView contextView) {
+        String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-user-removal");
+        EventEnvelope<UserRemovedFromProjectsEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                UserRemovedFromProjectsEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing UserRemovedFromProjectsEvent envelope for userId: {}. CorrID: {}", payload.userId(), correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, payload.userId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue UserRemovedFromProjectsEvent envelope. CorrID: {}", correlationId, e));
+    }
+
+    private Mono<Void> publishProjectDeletedEvent(Project deletedProject, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-proj-delete");
-        try {
-            ProjectDto projectDto = ProjectUtils.entityToDto(deletedProject);
-            ProjectDeletedEventPayload payload = new ProjectDeletedEventPayload(projectDto);
-            EventEnvelope<ProjectDeletedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    ProjectDeletedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing ProjectDeletedEvent envelope. CorrID: {}", correlationId);
-            kafkaTemplate.send(projectEventsTopic, deletedProject.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send ProjectDeletedEvent envelope. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing ProjectDeletedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending ProjectDeletedEvent. CorrID: {}", correlationId, e);
-        }
+        ProjectDto projectDto = ProjectUtils.entityToDto(deletedProject);
+        ProjectDeletedEventPayload payload = new ProjectDeletedEventPayload(projectDto);
+        EventEnvelope<ProjectDeletedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                ProjectDeletedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing ProjectDeletedEvent envelope. CorrID: {}", correlationId);
+        return outboxPublisher.enqueue(projectEventsTopic, deletedProject.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue ProjectDeletedEvent envelope. CorrID: {}", correlationId, e));
     }
 
 }
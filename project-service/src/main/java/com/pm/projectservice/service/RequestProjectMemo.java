@@ -0,0 +1,40 @@
+package com.pm.projectservice.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.model.ProjectAccess;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Project lookups made while serving one request, carried in the Reactor
+ * Context so the permission check and the operation itself share a single
+ * load. A full project also answers access lookups; an access projection
+ * never stands in for a full project.
+ *
+ * Only reads go through the memo. Writes in the same request are not
+ * reflected, which is fine as long as no request reads a project back after
+ * writing it.
+ */
+public final class RequestProjectMemo {
+
+    public static final String CONTEXT_KEY = "projectMemo";
+
+    private final Map<String, Mono<Project>> projects = new ConcurrentHashMap<>();
+    private final Map<String, Mono<ProjectAccess>> access = new ConcurrentHashMap<>();
+
+    Mono<Project> project(String projectId, Supplier<Mono<Project>> loader) {
+        return projects.computeIfAbsent(projectId, id -> loader.get().cache());
+    }
+
+    Mono<ProjectAccess> access(String projectId, Supplier<Mono<ProjectAccess>> loader) {
+        Mono<Project> project = projects.get(projectId);
+        if (project != null) {
+            return project.map(ProjectAccess::of);
+        }
+        return access.computeIfAbsent(projectId, id -> loader.get().cache());
+    }
+}
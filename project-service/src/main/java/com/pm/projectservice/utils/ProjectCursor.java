@@ -0,0 +1,103 @@
+package com.pm.projectservice.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.pm.projectservice.Exception.BadRequestException;
+import com.pm.projectservice.model.Project;
+
+/**
+ * Keyset pagination cursor for project listings: the sort key and id of the
+ * last project on the previous page, plus the sort it was taken under.
+ *
+ * The next page starts strictly after that (sort key, id) pair, so a page
+ * costs one index range scan however deep into the listing it is, and
+ * projects created or deleted meanwhile do not shift later pages. Projects
+ * without a value for the sort key come last in descending order and first
+ * in ascending order, as MongoDB sorts them.
+ */
+public record ProjectCursor(String sort, Sort.Direction direction, String lastId, Object lastValue) {
+
+    public static final List<String> SORT_FIELDS = List.of("updatedAt", "createdAt", "name");
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Cursor pointing just past the given project.
+     */
+    public static ProjectCursor after(Project project, String sort, Sort.Direction direction) {
+        return new ProjectCursor(sort, direction, project.getId(), sortKey(sort).apply(project));
+    }
+
+    public String encode() {
+        String value;
+        if (lastValue == null) {
+            value = "n";
+        } else if (lastValue instanceof Instant instant) {
+            value = "t" + instant;
+        } else {
+            value = "s" + lastValue;
+        }
+        String raw = sort + SEPARATOR + direction + SEPARATOR + lastId + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a client-supplied cursor, which must have been issued for the
+     * same sort and direction.
+     */
+    public static ProjectCursor decode(String cursor, String sort, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || parts[3].isEmpty()) {
+                throw new BadRequestException("Malformed cursor");
+            }
+            if (!parts[0].equals(sort) || !parts[1].equals(direction.name())) {
+                throw new BadRequestException("Cursor was issued for a different sort order");
+            }
+            Object value = switch (parts[3].charAt(0)) {
+                case 'n' -> null;
+                case 't' -> Instant.parse(parts[3].substring(1));
+                case 's' -> parts[3].substring(1);
+                default -> throw new BadRequestException("Malformed cursor");
+            };
+            return new ProjectCursor(sort, direction, parts[2], value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Matches the projects that sort after this cursor.
+     */
+    public Criteria toCriteria() {
+        boolean ascending = direction.isAscending();
+        Criteria sameKeyLaterId = ascending
+                ? Criteria.where(sort).is(lastValue).and("_id").gt(lastId)
+                : Criteria.where(sort).is(lastValue).and("_id").lt(lastId);
+        if (lastValue == null) {
+            return ascending
+                    ? new Criteria().orOperator(sameKeyLaterId, Criteria.where(sort).ne(null))
+                    : sameKeyLaterId;
+        }
+        return ascending
+                ? new Criteria().orOperator(Criteria.where(sort).gt(lastValue), sameKeyLaterId)
+                : new Criteria().orOperator(Criteria.where(sort).lt(lastValue), sameKeyLaterId, Criteria.where(sort).is(null));
+    }
+
+    private static Function<Project, Object> sortKey(String sort) {
+        return switch (sort) {
+            case "createdAt" -> Project::getCreatedAt;
+            case "name" -> Project::getName;
+            default -> Project::getUpdatedAt;
+        };
+    }
+}
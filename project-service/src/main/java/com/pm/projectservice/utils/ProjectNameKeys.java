@@ -0,0 +1,51 @@
+package com.pm.projectservice.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized forms of a project name that name search runs against.
+ *
+ * The key is the whole name lower-cased with runs of whitespace collapsed,
+ * and the tokens are its letter/digit words. Both are stored on the project
+ * and indexed, so a case-insensitive prefix search is an anchored regex on
+ * already lower-cased values, which MongoDB turns into an index range scan.
+ */
+public final class ProjectNameKeys {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern REGEX_SPECIAL = Pattern.compile("[^\\p{L}\\p{N} ]");
+
+    private ProjectNameKeys() {
+    }
+
+    public static String key(String name) {
+        if (name == null) {
+            return null;
+        }
+        return WHITESPACE.matcher(name.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    public static List<String> tokens(String name) {
+        String key = key(name);
+        if (key == null) {
+            return List.of();
+        }
+        return Arrays.stream(NON_WORD.split(key))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Anchored regex matching values that start with the given normalized
+     * text. Escapes with backslashes rather than \Q...\E so MongoDB can
+     * still derive index bounds from the literal prefix.
+     */
+    public static String prefixRegex(String normalized) {
+        return "^" + REGEX_SPECIAL.matcher(normalized).replaceAll("\\\\$0");
+    }
+}
@@ -1,6 +1,7 @@
 package com.pm.projectservice.utils;
 
 import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.dto.ProjectSummaryDto;
 import com.pm.projectservice.model.Project;
 
 public class ProjectUtils {
@@ -33,7 +34,6 @@ public class ProjectUtils {
                 .managerIds(sanitizeObjectIdList(project.getManagerIds()))
                 .memberIds(sanitizeObjectIdList(project.getMemberIds()))
                 .assignedTo(sanitizeObjectIdString(project.getAssignedTo()))
-                .taskIds(sanitizeObjectIdList(project.getTaskIds()))
                 .createdBy(sanitizeObjectIdString(project.getCreatedBy()))
                 .lastModifiedBy(sanitizeObjectIdString(project.getLastModifiedBy()))
                 .version(project.getVersion());
@@ -45,6 +45,21 @@ public class ProjectUtils {
         return builder.build();
     }
 
+    // Works on projects loaded with the ProjectRepository summary projection
+    public static ProjectSummaryDto entityToSummary(Project project) {
+        return ProjectSummaryDto.builder()
+                .id(sanitizeObjectIdString(project.getId()))
+                .name(project.getName())
+                .status(project.getStatus())
+                .priority(project.getPriority())
+                .ownerId(sanitizeObjectIdString(project.getOwnerId()))
+                .startDate(project.getStartDate() != null ? project.getStartDate().toString() : null)
+                .endDate(project.getEndDate() != null ? project.getEndDate().toString() : null)
+                .updatedAt(project.getUpdatedAt() != null ? project.getUpdatedAt().toString() : null)
+                .version(project.getVersion())
+                .build();
+    }
+
     public static Project dtoToEntity(ProjectDto dto) {
         Project.ProjectBuilder builder = Project.builder()
                 .id(dto.getId())
@@ -55,8 +70,7 @@ public class ProjectUtils {
                 .ownerId(dto.getOwnerId())
                 .managerIds(dto.getManagerIds())
                 .memberIds(dto.getMemberIds())
-                .assignedTo(dto.getAssignedTo()) // Map assignedTo field
-                .taskIds(dto.getTaskIds()); // Map taskIds field
+                .assignedTo(dto.getAssignedTo()); // Map assignedTo field
 
         // Only set version and auditing fields for existing entities (updates)
         if (dto.getId() != null) {
@@ -0,0 +1,82 @@
+package com.pm.projectservice.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.pm.projectservice.service.ProjectDashboardService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the migration of embedded project taskIds into task counters
+ */
+public class TaskIdsMigrationTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final ProjectDashboardService dashboardService = mock(ProjectDashboardService.class);
+    private final TaskIdsMigration migration = new TaskIdsMigration(mongoTemplate, dashboardService);
+
+    @Test
+    void testStrippedTaskIdsAreAdoptedIntoTheProjectsCounters() {
+        ObjectId legacyId = new ObjectId();
+        legacyProjects("p1");
+        strip("p1", Mono.just(new Document("_id", "p1").append("taskIds", List.of("t1", legacyId))));
+        when(dashboardService.adoptTasks(anyString(), anyList())).thenReturn(Mono.just(2L));
+
+        migration.migrate();
+
+        verify(dashboardService).adoptTasks("p1", List.of("t1", legacyId.toString()));
+    }
+
+    @Test
+    void testProjectStrippedMeanwhileIsNotCountedAgain() {
+        legacyProjects("p1", "p2");
+        strip("p1", Mono.empty());
+        strip("p2", Mono.just(new Document("_id", "p2").append("taskIds", List.of())));
+
+        migration.migrate();
+
+        verify(dashboardService, never()).adoptTasks(anyString(), anyList());
+    }
+
+    @Test
+    void testOnlyProjectsStillCarryingTaskIdsAreStripped() {
+        legacyProjects("p1");
+        strip("p1", Mono.empty());
+
+        migration.migrate();
+
+        verify(mongoTemplate).findAndModify(argThat(query -> query.getQueryObject().containsKey("taskIds")),
+                argThat(update -> update.getUpdateObject().get("$unset", Document.class).containsKey("taskIds")),
+                any(FindAndModifyOptions.class), eq(Document.class), eq("projects"));
+    }
+
+    private void legacyProjects(String... ids) {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("projects")))
+                .thenReturn(Flux.fromArray(ids).map(id -> new Document("_id", id)));
+    }
+
+    private void strip(String projectId, Mono<Document> previous) {
+        when(mongoTemplate.findAndModify(argThat(query -> query != null && projectId.equals(query.getQueryObject().get("_id"))),
+                any(Update.class), any(FindAndModifyOptions.class), eq(Document.class), eq("projects")))
+                .thenReturn(previous);
+    }
+}
@@ -0,0 +1,186 @@
+package com.pm.projectservice.service;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.pm.commoncontracts.domain.ProjectMemberRole;
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.project.ProjectDeletedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberAddedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberRemovedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectUpdatedEventPayload;
+import com.pm.projectservice.consumer.ProjectCacheEventConsumer;
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.repository.ProjectRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the read-through ProjectCache and its invalidation from
+ * project-events
+ */
+public class ProjectCacheTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRepeatedLookupsAreServedFromTheCache() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        when(projectRepository.findById("p1")).thenReturn(Mono.just(project("p1", 1L)));
+
+        cache.get("p1").block();
+        cache.get("p1").block();
+
+        verify(projectRepository, times(1)).findById("p1");
+        assertThat(meterRegistry.get(ProjectCache.REQUESTS).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testEntriesExpireAfterTheTtl() throws InterruptedException {
+        ProjectCache cache = cache(10, Duration.ofMillis(50));
+        when(projectRepository.findById("p1")).thenReturn(Mono.just(project("p1", 1L)), Mono.just(project("p1", 2L)));
+
+        cache.get("p1").block();
+        Thread.sleep(100);
+
+        assertThat(cache.get("p1").block().getVersion()).isEqualTo(2L);
+        assertThat(meterRegistry.get(ProjectCache.EVICTIONS).tag("cause", "expired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsDroppedBeyondMaxSize() {
+        ProjectCache cache = cache(2, Duration.ofMinutes(1));
+        cache.put(project("p1", 1L));
+        cache.put(project("p2", 1L));
+        cache.get("p1").block();
+        cache.put(project("p3", 1L));
+        when(projectRepository.findById("p2")).thenReturn(Mono.empty());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("p2").block()).isNull();
+        verify(projectRepository).findById("p2");
+    }
+
+    @Test
+    void testUpdatePutsTheSavedProjectButNeverAnOlderVersion() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put(project("p1", 3L));
+        cache.put(project("p1", 2L));
+
+        assertThat(cache.get("p1").block().getVersion()).isEqualTo(3L);
+
+        cache.put(project("p1", 4L));
+
+        assertThat(cache.get("p1").block().getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void testMinVersionReloadsAnOlderCachedCopy() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put(project("p1", 3L));
+        when(projectRepository.findById("p1")).thenReturn(Mono.just(project("p1", 4L)));
+
+        assertThat(cache.get("p1", 3L).block().getVersion()).isEqualTo(3L);
+        assertThat(cache.get("p1", 4L).block().getVersion()).isEqualTo(4L);
+        assertThat(cache.get("p1").block().getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void testInvalidationRejectsALoadInFlight() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        Sinks.One<Project> stale = Sinks.one();
+        when(projectRepository.findById("p1")).thenReturn(stale.asMono(), Mono.just(project("p1", 2L)));
+
+        Mono<Project> loading = cache.get("p1").cache();
+        loading.subscribe();
+        cache.invalidate("p1");
+        stale.tryEmitValue(project("p1", 1L));
+
+        assertThat(loading.block().getVersion()).isEqualTo(1L);
+        assertThat(cache.get("p1").block().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testUpdateEventOnlyDropsOlderCopies() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put(project("p1", 3L));
+
+        consume(cache, new ProjectUpdatedEventPayload(dto("p1", 3L)));
+
+        assertThat(cache.size()).isEqualTo(1);
+
+        consume(cache, new ProjectUpdatedEventPayload(dto("p1", 4L)));
+
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get(ProjectCache.EVICTIONS).tag("cause", "invalidated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeleteEventDropsTheProject() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put(project("p1", 3L));
+        when(projectRepository.findById("p1")).thenReturn(Mono.empty());
+
+        consume(cache, new ProjectDeletedEventPayload(dto("p1", 3L)));
+
+        assertThat(cache.get("p1").block()).isNull();
+    }
+
+    @Test
+    void testMemberChangeEventsDropTheProject() {
+        ProjectCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put(project("p1", 3L));
+        cache.put(project("p2", 3L));
+
+        consume(cache, new ProjectMemberAddedEventPayload("p1", "u2", ProjectMemberRole.MEMBER, "u1"));
+        consume(cache, new ProjectMemberRemovedEventPayload("p2", "u2", "u1"));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private ProjectCache cache(int maxSize, Duration ttl) {
+        return new ProjectCache(projectRepository, mock(ReactiveMongoTemplate.class), meterRegistry, maxSize, ttl);
+    }
+
+    // Runs one project-events record through a cache invalidation consumer
+    @SuppressWarnings("unchecked")
+    private static void consume(ProjectCache cache, Object payload) {
+        ReceiverRecord<String, EventEnvelope<?>> record = mock(ReceiverRecord.class);
+        EventEnvelope<?> envelope = new EventEnvelope<>("corr", "TEST", "project-service", payload);
+        when(record.value()).thenAnswer(invocation -> envelope);
+        when(record.receiverOffset()).thenReturn(mock(ReceiverOffset.class));
+        KafkaReceiver<String, EventEnvelope<?>> receiver = mock(KafkaReceiver.class);
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        ProjectCacheEventConsumer consumer = new ProjectCacheEventConsumer(receiver, cache);
+        consumer.start();
+        consumer.stop();
+    }
+
+    private static Project project(String id, Long version) {
+        return Project.builder().id(id).name("Project " + id).version(version).build();
+    }
+
+    private static ProjectDto dto(String id, Long version) {
+        ProjectDto dto = new ProjectDto();
+        dto.setId(id);
+        dto.setVersion(version);
+        return dto;
+    }
+}
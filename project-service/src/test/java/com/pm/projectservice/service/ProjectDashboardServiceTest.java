@@ -0,0 +1,177 @@
+package com.pm.projectservice.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+import com.pm.commoncontracts.domain.TaskPriority;
+import com.pm.commoncontracts.domain.TaskStatus;
+import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.task.TaskCreatedEventPayload;
+import com.pm.commoncontracts.events.task.TaskDeletedEventPayload;
+import com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload;
+import com.pm.commoncontracts.events.task.TaskUpdatedEventPayload;
+import com.pm.projectservice.model.ProjectTaskFact;
+import com.pm.projectservice.model.ProjectTaskStats;
+
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the task aggregates ProjectDashboardService keeps from
+ * task-events
+ */
+public class ProjectDashboardServiceTest {
+
+    private static final Instant AT = Instant.parse("2026-10-01T10:00:00Z");
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final ProjectDashboardService service = new ProjectDashboardService(mongoTemplate, mock(ProjectCache.class));
+
+    // $inc applied to each project's stats, by project id
+    private final Map<String, Document> increments = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ProjectTaskStats.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    Update update = invocation.getArgument(1);
+                    Document inc = update.getUpdateObject().get("$inc", Document.class);
+                    increments.put(query.getQueryObject().getString("_id"), inc != null ? inc : new Document());
+                    return Mono.just(UpdateResult.acknowledged(1, 1L, null));
+                });
+    }
+
+    @Test
+    void testCreatedTaskIsCountedInItsProject() {
+        previousFact(Mono.empty());
+
+        service.applyTaskEvent(event(new TaskCreatedEventPayload(task("p1", TaskStatus.TODO, 1L)))).block();
+
+        assertThat(increments).containsOnlyKeys("p1");
+        assertThat(increments.get("p1")).containsEntry("taskCount", 1L)
+                .containsEntry("byStatus.TODO", 1L)
+                .containsEntry("byPriority.HIGH", 1L);
+    }
+
+    @Test
+    void testStatusChangeMovesOnlyTheStatusCounters() {
+        previousFact(Mono.just(fact("p1", TaskStatus.TODO, 1L)));
+
+        service.applyTaskEvent(event(new TaskStatusChangedEventPayload(task("p1", TaskStatus.IN_PROGRESS, 2L)))).block();
+
+        assertThat(increments.get("p1")).containsOnly(
+                Map.entry("byStatus.TODO", -1L), Map.entry("byStatus.IN_PROGRESS", 1L));
+    }
+
+    @Test
+    void testRedeliveredEventChangesNothing() {
+        // The fact already holds this version, so the filter misses and the upsert collides on the task id
+        previousFact(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        service.applyTaskEvent(event(new TaskCreatedEventPayload(task("p1", TaskStatus.TODO, 1L)))).block();
+
+        assertThat(increments).isEmpty();
+    }
+
+    @Test
+    void testStaleVersionOnlyReplacesOlderFacts() {
+        ArgumentCaptor<Query> swap = previousFact(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        service.applyTaskEvent(event(new TaskUpdatedEventPayload(task("p1", TaskStatus.TODO, 3L)))).block();
+
+        assertThat(swap.getValue().getQueryObject().toJson()).contains("\"version\": {\"$lt\": 3}")
+                .contains("\"deleted\": {\"$ne\": true}");
+        assertThat(increments).isEmpty();
+    }
+
+    @Test
+    void testTaskMovingBetweenProjectsMovesItsCounters() {
+        previousFact(Mono.just(fact("p1", TaskStatus.TODO, 1L)));
+
+        service.applyTaskEvent(event(new TaskUpdatedEventPayload(task("p2", TaskStatus.TODO, 2L)))).block();
+
+        assertThat(increments.get("p1")).containsOnly(Map.entry("taskCount", -1L),
+                Map.entry("byStatus.TODO", -1L), Map.entry("byPriority.HIGH", -1L));
+        assertThat(increments.get("p2")).containsOnly(Map.entry("taskCount", 1L),
+                Map.entry("byStatus.TODO", 1L), Map.entry("byPriority.HIGH", 1L));
+    }
+
+    @Test
+    void testDeleteLeavesATombstoneAndTakesBackTheFact() {
+        ArgumentCaptor<Update> tombstone = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.findAndModify(any(Query.class), tombstone.capture(), any(FindAndModifyOptions.class),
+                eq(ProjectTaskFact.class))).thenReturn(Mono.just(fact("p1", TaskStatus.DONE, 4L)));
+
+        service.applyTaskEvent(event(new TaskDeletedEventPayload(task("p1", TaskStatus.DONE, 4L)))).block();
+
+        assertThat(tombstone.getValue().getUpdateObject().get("$set", Document.class)).containsEntry("deleted", true)
+                .containsKey("deletedAt");
+        assertThat(increments.get("p1")).containsOnly(Map.entry("taskCount", -1L),
+                Map.entry("byStatus.DONE", -1L), Map.entry("byPriority.HIGH", -1L));
+    }
+
+    @Test
+    void testDeleteOfAnUnknownTaskDoesNotDecrement() {
+        previousFact(Mono.empty());
+
+        service.applyTaskEvent(event(new TaskDeletedEventPayload(task("p1", TaskStatus.TODO, 1L)))).block();
+
+        assertThat(increments.get("p1")).isEmpty();
+    }
+
+    @Test
+    void testAdoptTasksOnlyCountsTasksWithoutAFact() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ProjectTaskFact.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    boolean known = "t2".equals(query.getQueryObject().getString("_id"));
+                    return Mono.just(UpdateResult.acknowledged(known ? 1 : 0, 0L, known ? null : new BsonString("x")));
+                });
+
+        assertThat(service.adoptTasks("p1", List.of("t1", "t2", "t3")).block()).isEqualTo(2L);
+        assertThat(increments.get("p1")).containsOnly(Map.entry("taskCount", 2L));
+    }
+
+    private ArgumentCaptor<Query> previousFact(Mono<ProjectTaskFact> previous) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ProjectTaskFact.class))).thenReturn(previous);
+        return query;
+    }
+
+    private static TaskDto task(String projectId, TaskStatus status, Long version) {
+        return TaskDto.builder().id("t1").projectId(projectId).status(status).priority(TaskPriority.HIGH)
+                .version(version).build();
+    }
+
+    private static ProjectTaskFact fact(String projectId, TaskStatus status, Long version) {
+        return ProjectTaskFact.builder().taskId("t1").projectId(projectId).status(status)
+                .priority(TaskPriority.HIGH).version(version).build();
+    }
+
+    private static EventEnvelope<?> event(Object payload) {
+        return new EventEnvelope<>(UUID.randomUUID(), "corr", "TASK_EVENT", "task-service", AT, 1, payload);
+    }
+}
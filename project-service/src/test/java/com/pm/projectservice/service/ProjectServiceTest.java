@@ -0,0 +1,297 @@
+package com.pm.projectservice.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.pm.commoncontracts.domain.ProjectPriority;
+import com.pm.commoncontracts.domain.ProjectStatus;
+import com.pm.commoncontracts.dto.BulkProjectUpdateResultDto;
+import com.pm.commoncontracts.dto.BulkProjectUpdateResultDto.Outcome;
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.dto.ProjectPageDto;
+import com.pm.commoncontracts.dto.ProjectSummaryDto;
+import com.pm.commoncontracts.events.project.ProjectPriorityChangedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectStatusChangedEventPayload;
+import com.pm.commoncontracts.requestDto.project.BulkUpdateProjectsRequestDto.Item;
+import com.pm.commonoutbox.outbox.OutboxEventPublisher;
+import com.pm.projectservice.Exception.BadRequestException;
+import com.pm.projectservice.model.Project;
+import com.pm.projectservice.repository.ProjectRepository;
+import com.pm.projectservice.utils.ProjectCursor;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for ProjectService bulk status/priority updates and the
+ * membership-scoped listing and name search
+ */
+public class ProjectServiceTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final OutboxEventPublisher outboxPublisher = mock(OutboxEventPublisher.class);
+    private final ProjectCache projectCache = mock(ProjectCache.class);
+    private final ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+    private final ProjectService service = new ProjectService(mock(ProjectRepository.class), projectCache, mongoTemplate,
+            outboxPublisher, mock(WebClient.class));
+
+    @SuppressWarnings("unchecked")
+    private final ArgumentCaptor<List<OutboxEventPublisher.Message>> events = ArgumentCaptor.forClass(List.class);
+
+    // p2 may change its status but not its priority
+    private final BiFunction<Project, String, Mono<Boolean>> permission = (project, action) ->
+            Mono.just(!("p2".equals(project.getId()) && "PRJ_PRIORITY_CHANGE".equals(action)));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "serviceName", "project-service");
+        ReflectionTestUtils.setField(service, "projectEventsTopic", "project-events");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Project.class)).thenReturn(bulk);
+        when(outboxPublisher.enqueueAll(events.capture())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void testBulkUpdateReportsPartialAuthorizationAndNoOpRows() {
+        projects(project("p1", 3L), project("p2", 5L), project("p3", 1L));
+        written(1);
+
+        BulkProjectUpdateResultDto result = service.bulkUpdateProjects(List.of(
+                new Item("p1", null, ProjectStatus.IN_PROGRESS, ProjectPriority.HIGH),
+                new Item("p2", null, ProjectStatus.COMPLETED, ProjectPriority.HIGH),
+                new Item("p3", null, ProjectStatus.PLANNING, ProjectPriority.MEDIUM),
+                new Item("p4", null, ProjectStatus.COMPLETED, null),
+                new Item("p5", 7L, ProjectStatus.COMPLETED, null),
+                new Item("p1", null, ProjectStatus.COMPLETED, null)), "u1", permission).block();
+
+        assertThat(result.getResults()).extracting(BulkProjectUpdateResultDto.ItemResult::getOutcome).containsExactly(
+                Outcome.UPDATED, Outcome.FORBIDDEN, Outcome.UNCHANGED, Outcome.NOT_FOUND, Outcome.NOT_FOUND, Outcome.INVALID);
+        assertThat(result.getResults().get(0).getVersion()).isEqualTo(4L);
+        assertThat(result.getResults().get(1).getVersion()).isEqualTo(5L);
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(1)).updateOne(filters.capture(), any(Update.class));
+        assertThat(filters.getValue().getQueryObject()).containsEntry("_id", "p1").containsEntry("version", 3L);
+    }
+
+    @Test
+    void testBulkUpdateEmitsOnlyTheEventsOfChangedFieldsPerRow() {
+        projects(project("p1", 3L), project("p3", 1L));
+        written(2);
+
+        service.bulkUpdateProjects(List.of(
+                new Item("p1", null, ProjectStatus.IN_PROGRESS, ProjectPriority.HIGH),
+                new Item("p3", 1L, ProjectStatus.PLANNING, ProjectPriority.LOW)), "u1", permission).block();
+
+        assertThat(events.getValue()).extracting(message -> message.key() + ":" + message.envelope().eventType())
+                .containsExactly("p1:" + ProjectStatusChangedEventPayload.EVENT_TYPE,
+                        "p1:" + ProjectPriorityChangedEventPayload.EVENT_TYPE,
+                        "p3:" + ProjectPriorityChangedEventPayload.EVENT_TYPE);
+        verify(projectCache, times(2)).put(any(Project.class));
+    }
+
+    @Test
+    void testBulkUpdateWithNothingToWriteSkipsTheWrite() {
+        projects(project("p3", 1L));
+
+        BulkProjectUpdateResultDto result = service.bulkUpdateProjects(List.of(
+                new Item("p3", null, ProjectStatus.PLANNING, ProjectPriority.MEDIUM)), "u1", permission).block();
+
+        assertThat(result.getResults()).extracting(BulkProjectUpdateResultDto.ItemResult::getOutcome)
+                .containsExactly(Outcome.UNCHANGED);
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Project.class));
+        verify(outboxPublisher, never()).enqueueAll(anyList());
+    }
+
+    @Test
+    void testConcurrentWriterWithTheSameValuesIsAConflict() {
+        written(1);
+        // p1 was updated by someone else to the same values, one version on; p3 carries this batch's stamp
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        when(bulk.updateOne(any(Query.class), updates.capture())).thenReturn(bulk);
+        when(mongoTemplate.find(any(Query.class), eq(Project.class)))
+                .thenReturn(Flux.just(project("p1", 3L), project("p3", 1L)))
+                .thenAnswer(invocation -> {
+                    Instant stamp = (Instant) updates.getAllValues().get(1).getUpdateObject()
+                            .get("$set", Document.class).get("updatedAt");
+                    Project p1 = project("p1", 4L);
+                    p1.setStatus(ProjectStatus.IN_PROGRESS);
+                    p1.setUpdatedAt(stamp.minusMillis(1));
+                    Project p3 = project("p3", 2L);
+                    p3.setUpdatedAt(stamp);
+                    return Flux.just(p1, p3);
+                });
+
+        BulkProjectUpdateResultDto result = service.bulkUpdateProjects(List.of(
+                new Item("p1", null, ProjectStatus.IN_PROGRESS, null),
+                new Item("p3", null, ProjectStatus.COMPLETED, null)), "u1", permission).block();
+
+        assertThat(result.getResults()).extracting(itemResult -> itemResult.getId() + ":" + itemResult.getOutcome()
+                + "@" + itemResult.getVersion())
+                .containsExactly("p1:CONFLICT@4", "p3:UPDATED@2");
+        assertThat(events.getValue()).extracting(OutboxEventPublisher.Message::key).containsExactly("p3");
+        verify(projectCache).invalidate("p1");
+    }
+
+    @Test
+    void testMyProjectsQueryCoversEveryMembershipWithTheFilters() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Project.class))).thenReturn(Flux.empty());
+
+        ProjectPageDto page = service.getMyProjects("u1", List.of(ProjectStatus.IN_PROGRESS), List.of(ProjectPriority.HIGH),
+                "updatedAt", Sort.Direction.DESC, 2, null).block();
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(membershipBranches(query.getValue())).containsExactly(
+                List.of(new Document("ownerId", "u1"), new Document("status", new Document("$in", List.of(ProjectStatus.IN_PROGRESS))),
+                        new Document("priority", new Document("$in", List.of(ProjectPriority.HIGH)))),
+                List.of(new Document("managerIds", "u1"), new Document("status", new Document("$in", List.of(ProjectStatus.IN_PROGRESS))),
+                        new Document("priority", new Document("$in", List.of(ProjectPriority.HIGH)))),
+                List.of(new Document("memberIds", "u1"), new Document("status", new Document("$in", List.of(ProjectStatus.IN_PROGRESS))),
+                        new Document("priority", new Document("$in", List.of(ProjectPriority.HIGH)))));
+        assertThat(query.getValue().getSortObject()).containsExactly(Map.entry("updatedAt", -1), Map.entry("_id", -1));
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void testMyProjectsPageEndsWithACursorAfterItsLastProject() {
+        Instant same = Instant.parse("2026-10-01T10:00:00Z");
+        Project first = project("p3", 1L);
+        first.setUpdatedAt(same);
+        Project second = project("p2", 1L);
+        second.setUpdatedAt(same);
+        Project extra = project("p1", 1L);
+        extra.setUpdatedAt(same);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Project.class)))
+                .thenReturn(Flux.just(first, second, extra))
+                .thenReturn(Flux.just(extra));
+
+        ProjectPageDto page = service.getMyProjects("u1", null, null, "updatedAt", Sort.Direction.DESC, 2, null).block();
+
+        assertThat(page.getItems()).extracting(ProjectDto::getId).containsExactly("p3", "p2");
+        assertThat(ProjectCursor.decode(page.getNextCursor(), "updatedAt", Sort.Direction.DESC))
+                .isEqualTo(new ProjectCursor("updatedAt", Sort.Direction.DESC, "p2", same));
+
+        ProjectPageDto last = service.getMyProjects("u1", null, null, "updatedAt", Sort.Direction.DESC, 2,
+                page.getNextCursor()).block();
+
+        assertThat(last.getItems()).extracting(ProjectDto::getId).containsExactly("p1");
+        assertThat(last.getNextCursor()).isNull();
+        // Each membership branch resumes after (updatedAt, _id) of the previous page's last project
+        Document after = new ProjectCursor("updatedAt", Sort.Direction.DESC, "p2", same).toCriteria().getCriteriaObject();
+        assertThat(membershipBranches(query.getValue())).hasSize(3).allSatisfy(branch -> assertThat(branch).contains(after));
+    }
+
+    @Test
+    void testMyProjectsRejectsUnknownSortsAndForeignCursors() {
+        assertThatThrownBy(() -> service.getMyProjects("u1", null, null, "ownerId", Sort.Direction.DESC, 2, null).block())
+                .isInstanceOf(BadRequestException.class);
+        String byName = new ProjectCursor("name", Sort.Direction.ASC, "p1", "Apollo").encode();
+        assertThatThrownBy(() -> service.getMyProjects("u1", null, null, "updatedAt", Sort.Direction.DESC, 2, byName).block())
+                .isInstanceOf(BadRequestException.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Project.class));
+    }
+
+    @Test
+    void testSearchRanksNamePrefixMatchesBeforeTokenMatches() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Project.class)))
+                .thenReturn(Flux.just(project("p1", 1L)))
+                .thenReturn(Flux.just(project("p2", 1L)));
+
+        List<ProjectSummaryDto> found = service.searchProjects("u1", "  Apo   Launch ", 3).collectList().block();
+
+        assertThat(found).extracting(ProjectSummaryDto::getId).containsExactly("p1", "p2");
+        Query byPrefix = query.getAllValues().get(0);
+        assertThat(searchConditions(byPrefix).get(0).get("nameKey").toString()).contains("^apo launch");
+        assertThat(byPrefix.getSortObject()).containsExactly(Map.entry("nameKey", 1), Map.entry("_id", 1));
+        assertThat(byPrefix.getLimit()).isEqualTo(3);
+
+        // Token matches fill the rest of the limit and never repeat a prefix match
+        Query byTokens = query.getAllValues().get(1);
+        assertThat(searchConditions(byTokens).get(0).get("nameTokens", Document.class).getList("$all", Object.class))
+                .extracting(Object::toString).containsExactly("^apo", "^launch");
+        assertThat(searchConditions(byTokens).get(1)).isEqualTo(new Document("_id", new Document("$nin", List.of("p1"))));
+        assertThat(byTokens.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void testSearchStaysWithinTheUsersProjects() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Project.class))).thenReturn(Flux.empty());
+
+        service.searchProjects("u1", "apollo", 5).collectList().block();
+
+        Document membership = new Document("$or", List.of(new Document("ownerId", "u1"),
+                new Document("managerIds", "u1"), new Document("memberIds", "u1")));
+        assertThat(query.getAllValues()).hasSize(2)
+                .allSatisfy(search -> assertThat(searchConditions(search)).last().isEqualTo(membership));
+    }
+
+    @Test
+    void testSearchSkipsTokenMatchesOnceThePrefixMatchesFillTheLimit() {
+        projects(project("p1", 1L), project("p2", 1L));
+
+        assertThat(service.searchProjects("u1", "apollo launch", 2).collectList().block()).hasSize(2);
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Project.class));
+
+        assertThatThrownBy(() -> service.searchProjects("u1", "   ", 2).collectList().block())
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    // The conditions of a name search query, membership last
+    private static List<Document> searchConditions(Query query) {
+        return query.getQueryObject().getList("$and", Document.class);
+    }
+
+    // The conditions of each membership branch of a listing query
+    private static List<List<Document>> membershipBranches(Query query) {
+        return query.getQueryObject().getList("$or", Document.class).stream()
+                .map(branch -> branch.getList("$and", Document.class))
+                .toList();
+    }
+
+    private void projects(Project... projects) {
+        when(mongoTemplate.find(any(Query.class), eq(Project.class))).thenReturn(Flux.just(projects));
+    }
+
+    private void written(int modified) {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getModifiedCount()).thenReturn(modified);
+        when(bulk.execute()).thenReturn(Mono.just(result));
+    }
+
+    private static Project project(String id, Long version) {
+        Project project = Project.builder().id(id).name("Project " + id).ownerId("owner").version(version).build();
+        project.setStatus(ProjectStatus.PLANNING);
+        project.setPriority(ProjectPriority.MEDIUM);
+        return project;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pm.projectservice.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.pm.projectservice.Exception.BadRequestException;
+import com.pm.projectservice.model.Project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the keyset cursor of project listings
+ */
+public class ProjectCursorTest {
+
+    private static final Instant UPDATED = Instant.parse("2026-10-01T10:15:30.123Z");
+
+    @Test
+    void testCursorRoundTripsEverySortKeyType() {
+        Project project = Project.builder().id("p1").name("Apollo|Beta").updatedAt(UPDATED).build();
+
+        ProjectCursor byTime = ProjectCursor.after(project, "updatedAt", Sort.Direction.DESC);
+        assertThat(ProjectCursor.decode(byTime.encode(), "updatedAt", Sort.Direction.DESC)).isEqualTo(byTime);
+        assertThat(byTime.lastValue()).isEqualTo(UPDATED);
+
+        // The value is the last field, so it may contain the separator
+        ProjectCursor byName = ProjectCursor.after(project, "name", Sort.Direction.ASC);
+        assertThat(ProjectCursor.decode(byName.encode(), "name", Sort.Direction.ASC).lastValue()).isEqualTo("Apollo|Beta");
+
+        ProjectCursor missing = ProjectCursor.after(project, "createdAt", Sort.Direction.DESC);
+        assertThat(ProjectCursor.decode(missing.encode(), "createdAt", Sort.Direction.DESC))
+                .isEqualTo(new ProjectCursor("createdAt", Sort.Direction.DESC, "p1", null));
+    }
+
+    @Test
+    void testEncodedCursorIsUrlSafe() {
+        Project project = Project.builder().id("p1").name("???>>>~~~").build();
+
+        assertThat(ProjectCursor.after(project, "name", Sort.Direction.ASC).encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void testMalformedCursorsAreRejected() {
+        for (String cursor : new String[] {"not base64!", raw("updatedAt|DESC|p1"), raw("updatedAt|DESC|p1|"),
+                raw("updatedAt|DESC|p1|x1"), raw("updatedAt|DESC|p1|tyesterday")}) {
+            assertThatThrownBy(() -> ProjectCursor.decode(cursor, "updatedAt", Sort.Direction.DESC))
+                    .as(cursor).isInstanceOf(BadRequestException.class).hasMessage("Malformed cursor");
+        }
+    }
+
+    @Test
+    void testCursorIsBoundToItsSortOrder() {
+        String cursor = new ProjectCursor("updatedAt", Sort.Direction.DESC, "p1", UPDATED).encode();
+
+        assertThatThrownBy(() -> ProjectCursor.decode(cursor, "updatedAt", Sort.Direction.ASC))
+                .isInstanceOf(BadRequestException.class).hasMessageContaining("different sort order");
+        assertThatThrownBy(() -> ProjectCursor.decode(cursor, "createdAt", Sort.Direction.DESC))
+                .isInstanceOf(BadRequestException.class).hasMessageContaining("different sort order");
+    }
+
+    @Test
+    void testEqualSortKeysAreOrderedById() {
+        String descending = new ProjectCursor("name", Sort.Direction.DESC, "p5", "Apollo").toCriteria()
+                .getCriteriaObject().toJson();
+        assertThat(descending).contains("{\"name\": {\"$lt\": \"Apollo\"}}")
+                .contains("{\"name\": \"Apollo\", \"_id\": {\"$lt\": \"p5\"}}")
+                .contains("{\"name\": null}");
+
+        String ascending = new ProjectCursor("name", Sort.Direction.ASC, "p5", "Apollo").toCriteria()
+                .getCriteriaObject().toJson();
+        assertThat(ascending).contains("{\"name\": {\"$gt\": \"Apollo\"}}")
+                .contains("{\"name\": \"Apollo\", \"_id\": {\"$gt\": \"p5\"}}")
+                .doesNotContain("\"name\": null");
+    }
+
+    @Test
+    void testMissingSortKeysSortFirstAscendingAndLastDescending() {
+        String ascending = new ProjectCursor("createdAt", Sort.Direction.ASC, "p5", null).toCriteria()
+                .getCriteriaObject().toJson();
+        assertThat(ascending).contains("{\"createdAt\": null, \"_id\": {\"$gt\": \"p5\"}}")
+                .contains("{\"createdAt\": {\"$ne\": null}}");
+
+        String descending = new ProjectCursor("createdAt", Sort.Direction.DESC, "p5", null).toCriteria()
+                .getCriteriaObject().toJson();
+        assertThat(descending).isEqualTo("{\"createdAt\": null, \"_id\": {\"$lt\": \"p5\"}}");
+    }
+
+    private static String raw(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,38 @@
+package com.pm.projectservice.utils;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the normalized name forms that project name search runs
+ * against
+ */
+public class ProjectNameKeysTest {
+
+    @Test
+    void testKeyIsLowerCasedWithWhitespaceCollapsed() {
+        assertThat(ProjectNameKeys.key("  Apollo \t  Launch\nPlan  ")).isEqualTo("apollo launch plan");
+        assertThat(ProjectNameKeys.key(null)).isNull();
+    }
+
+    @Test
+    void testTokensSplitOnPunctuationAndDropDuplicates() {
+        assertThat(ProjectNameKeys.tokens("Apollo-11: Launch/launch (v2.0)"))
+                .containsExactly("apollo", "11", "launch", "v2", "0");
+        assertThat(ProjectNameKeys.tokens("  --  ")).isEmpty();
+        assertThat(ProjectNameKeys.tokens(null)).isEmpty();
+    }
+
+    @Test
+    void testPrefixRegexEscapesRegexMetacharacters() {
+        String regex = ProjectNameKeys.prefixRegex("c++ (v1.0)");
+
+        assertThat(regex).isEqualTo("^c\\+\\+ \\(v1\\.0\\)");
+        assertThat(Pattern.compile(regex).matcher("c++ (v1.0) backend").lookingAt()).isTrue();
+        assertThat(Pattern.compile(regex).matcher("cc v1x0").lookingAt()).isFalse();
+        assertThat(Pattern.compile(regex).matcher("new c++ (v1.0)").lookingAt()).isFalse();
+    }
+}
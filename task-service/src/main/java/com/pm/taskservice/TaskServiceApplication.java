@@ -3,7 +3,7 @@ package com.pm.taskservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication(scanBasePackages = {"com.pm.taskservice", "com.pm.commonsecurity"})
+@SpringBootApplication(scanBasePackages = {"com.pm.taskservice", "com.pm.commonsecurity", "com.pm.commonoutbox"})
 public class TaskServiceApplication {
 
     public static void main(String[] args) {
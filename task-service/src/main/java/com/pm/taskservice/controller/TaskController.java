@@ -3,7 +3,9 @@ package com.pm.taskservice.controller;
 // Import DTO from the SHARED module
 import java.net.URI;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,12 +26,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.dto.TaskSummaryDto;
 import com.pm.commoncontracts.requestDto.task.UpdateTaskPriorityRequestDto;
 import com.pm.commoncontracts.requestDto.task.UpdateTaskStatusRequestDto;
+import com.pm.commonwebsupport.http.ConditionalGet;
 import com.pm.taskservice.exception.ConflictException;
 import com.pm.taskservice.exception.ResourceNotFoundException;
 import com.pm.taskservice.security.TaskPermissionEvaluator;
 import com.pm.taskservice.service.TaskService;
+import com.pm.taskservice.utils.TaskUtils;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -83,22 +88,24 @@ public class TaskController {
     }
 
     @GetMapping
-    public Flux<TaskDto> getAllTasks(Authentication authentication) {
+    public Mono<ResponseEntity<List<TaskDto>>> getAllTasks(ServerHttpRequest request, Authentication authentication) {
         log.info("Received request to get all tasks");
 
         // Check permission reactively
-        return taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
-                    }
-
-                    return taskService.getTasks(); // Return Flux directly
-                });
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            return taskService.getTasks(); // Return Flux directly
+                        }),
+                TaskDto::getId, TaskDto::getVersion, Function.identity());
     }
 
     @GetMapping("/my-tasks")
-    public Flux<TaskDto> getMyTasks(
+    public Mono<ResponseEntity<List<TaskDto>>> getMyTasks(
             ServerHttpRequest request,
             Authentication authentication
     ) {
@@ -107,26 +114,29 @@ public class TaskController {
 
         if (userId == null || userId.trim().isEmpty()) {
             log.warn("No user ID found in X-User-Id header");
-            return Flux.error(new AccessDeniedException("User ID not found in request headers"));
+            return Mono.error(new AccessDeniedException("User ID not found in request headers"));
         }
 
         log.info("Getting tasks for user ID: {}", userId);
 
         // Check permission reactively
-        return taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        log.warn("Access denied for user {}: insufficient permissions to read tasks", userId);
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
-                    }
-
-                    log.info("Permission granted - fetching tasks for user: {}", userId);
-                    return taskService.getTasksByAssigneeId(userId);
-                });
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                log.warn("Access denied for user {}: insufficient permissions to read tasks", userId);
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            log.info("Permission granted - fetching tasks for user: {}", userId);
+                            return taskService.getTasksByAssigneeId(userId);
+                        }),
+                TaskDto::getId, TaskDto::getVersion, Function.identity());
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<TaskDto>> getTaskById(@PathVariable String id, Authentication authentication) {
+    public Mono<ResponseEntity<TaskDto>> getTaskById(@PathVariable String id, ServerHttpRequest request,
+            Authentication authentication) {
         log.info("Received request to get task by ID: {}", id);
 
         // Check permission reactively using taskPermissionEvaluator
@@ -135,8 +145,10 @@ public class TaskController {
                     if (!hasPermission) {
                         return Mono.error(new AccessDeniedException("Access denied: insufficient permissions to read this task"));
                     }
-                    return taskService.getTaskById(id)
-                            .map(ResponseEntity::ok);
+                    return ConditionalGet.entity(request, taskService.findTaskById(id),
+                                    task -> ConditionalGet.versionTag(task.getVersion()),
+                                    task -> Mono.just(TaskUtils.entityToDto(task)))
+                            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Task not found: " + id)));
                 })
                 .onErrorResume(e -> {
                     if (e instanceof AccessDeniedException) {
@@ -147,7 +159,7 @@ public class TaskController {
     }
 
     @GetMapping(params = "projectId")
-    public Flux<TaskDto> getTasksByProjectId(@RequestParam String projectId, Authentication authentication) {
+    public Mono<ResponseEntity<List<TaskDto>>> getTasksByProjectId(@RequestParam String projectId, ServerHttpRequest request, Authentication authentication) {
         log.info("Received request to get tasks for project ID: {}", projectId);
         log.info("Authentication object: {}", authentication);
         log.info("Is authenticated: {}", authentication != null ? authentication.isAuthenticated() : "null");
@@ -162,36 +174,87 @@ public class TaskController {
         // If unauthenticated (e.g., during local development), allow read-only access
         if (authentication == null || !authentication.isAuthenticated()) {
             log.info("No authentication or not authenticated - allowing read access");
-            return taskService.getTasksByProjectId(projectId);
+            return ConditionalGet.collection(request, taskService.getTasksByProjectId(projectId),
+                    TaskDto::getId, TaskDto::getVersion, Function.identity());
         }
 
         log.info("Checking TASK_READ permission for authenticated user");
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .doOnNext(hasPermission -> log.info("Permission check result: {}", hasPermission))
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                log.warn("Access denied for user: insufficient permissions to read tasks");
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            log.info("Permission granted - fetching tasks for project: {}", projectId);
+                            return taskService.getTasksByProjectId(projectId);
+                        }),
+                TaskDto::getId, TaskDto::getVersion, Function.identity());
+    }
+
+    @GetMapping(params = {"projectId", "view=summary"})
+    public Mono<ResponseEntity<List<TaskSummaryDto>>> getTaskSummariesByProjectId(@RequestParam String projectId, ServerHttpRequest request, Authentication authentication) {
+        log.info("Received request to get task summaries for project ID: {}", projectId);
+
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            return taskService.getTaskSummariesByProjectId(projectId);
+                        }),
+                TaskSummaryDto::getId, TaskSummaryDto::getVersion, Function.identity());
+    }
+
+    @GetMapping(params = {"assignedTo", "view=summary"})
+    public Mono<ResponseEntity<List<TaskSummaryDto>>> getTaskSummariesByAssigneeId(@RequestParam String assignedTo, ServerHttpRequest request, Authentication authentication) {
+        log.info("Received request to get task summaries assigned to: {}", assignedTo);
+
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            return taskService.getTaskSummariesByAssigneeId(assignedTo);
+                        }),
+                TaskSummaryDto::getId, TaskSummaryDto::getVersion, Function.identity());
+    }
+
+    @GetMapping(path = "/ids", params = "projectId")
+    public Flux<String> getTaskIdsByProjectId(@RequestParam String projectId, Authentication authentication) {
+        log.info("Received request to get task IDs for project: {}", projectId);
+
         return taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
-                .doOnNext(hasPermission -> log.info("Permission check result: {}", hasPermission))
                 .flatMapMany(hasPermission -> {
                     if (!hasPermission) {
-                        log.warn("Access denied for user: insufficient permissions to read tasks");
                         return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
                     }
 
-                    log.info("Permission granted - fetching tasks for project: {}", projectId);
-                    return taskService.getTasksByProjectId(projectId);
+                    return taskService.getTaskIdsByProjectId(projectId);
                 });
     }
 
     @GetMapping(params = "assignedTo")
-    public Flux<TaskDto> getTasksByAssigneeId(@RequestParam String assignedTo, Authentication authentication) {
+    public Mono<ResponseEntity<List<TaskDto>>> getTasksByAssigneeId(@RequestParam String assignedTo, ServerHttpRequest request, Authentication authentication) {
         log.info("Received request to get tasks assigned to: {}", assignedTo);
 
         // Check permission reactively
-        return taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
-                .flatMapMany(hasPermission -> {
-                    if (!hasPermission) {
-                        return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
-                    }
-
-                    return taskService.getTasksByAssigneeId(assignedTo);
-                });
+        return ConditionalGet.collection(request,
+                taskPermissionEvaluator.hasGeneralPermission(authentication, "TASK_READ")
+                        .flatMapMany(hasPermission -> {
+                            if (!hasPermission) {
+                                return Flux.error(new AccessDeniedException("Access denied: insufficient permissions to read tasks"));
+                            }
+
+                            return taskService.getTasksByAssigneeId(assignedTo);
+                        }),
+                TaskDto::getId, TaskDto::getVersion, Function.identity());
     }
 
     @PatchMapping("/{id}/status")
@@ -1,6 +1,7 @@
 package com.pm.taskservice.repository;
 
 import com.pm.taskservice.model.Task;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -8,5 +9,19 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface TaskRepository extends ReactiveMongoRepository<Task, String> {
     Flux<Task> findByProjectId(String projectId);
+
+    // Ids only, served from the projectId index
+    @Query(value = "{ 'projectId': ?0 }", fields = "{ '_id': 1 }")
+    Flux<Task> findIdsByProjectId(String projectId);
+
     Flux<Task> findByAssigneeId(String assigneeId); // Updated from findByAssignedTo
+
+    // Summary projections: only the fields TaskUtils.entityToSummary reads
+    String SUMMARY_FIELDS = "{ 'projectId': 1, 'name': 1, 'status': 1, 'priority': 1, 'assigneeId': 1, 'dueDate': 1, 'updatedAt': 1, 'version': 1 }";
+
+    @Query(value = "{ 'projectId': ?0 }", fields = SUMMARY_FIELDS)
+    Flux<Task> findSummariesByProjectId(String projectId);
+
+    @Query(value = "{ 'assigneeId': ?0 }", fields = SUMMARY_FIELDS)
+    Flux<Task> findSummariesByAssigneeId(String assigneeId);
 }
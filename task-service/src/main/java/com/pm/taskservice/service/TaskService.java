@@ -5,13 +5,13 @@ import java.time.Instant;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.pm.commoncontracts.domain.TaskPriority; // Assuming this provides the context key
 import com.pm.commoncontracts.domain.TaskStatus;
 import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.dto.TaskSummaryDto;
 import com.pm.commoncontracts.dto.UserDto;
 import com.pm.commoncontracts.envelope.EventEnvelope; // Using your existing mapper utility
 import com.pm.commoncontracts.events.task.TaskAssignedEventPayload; // Your internal domain entity
@@ -20,6 +20,7 @@ import com.pm.commoncontracts.events.task.TaskDeletedEventPayload;
 import com.pm.commoncontracts.events.task.TaskPriorityChangedEventPayload;
 import com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload;
 import com.pm.commoncontracts.events.task.TaskUpdatedEventPayload;
+import com.pm.commonoutbox.outbox.OutboxEventPublisher;
 import com.pm.taskservice.config.MdcLoggingFilter;
 import com.pm.taskservice.exception.ConflictException;
 import com.pm.taskservice.exception.ResourceNotFoundException;
@@ -37,7 +38,7 @@ import reactor.util.context.ContextView;
 public class TaskService {
 
     private final TaskRepository repository;
-    private final ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate;
+    private final OutboxEventPublisher outboxPublisher;
     private final WebClient userWebClient;
 
     @Value("${kafka.topic.task-events}")
@@ -48,11 +49,11 @@ public class TaskService {
 
     public TaskService(
             TaskRepository repository,
-            ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate,
+            OutboxEventPublisher outboxPublisher,
             @Qualifier("userWebClient") WebClient userWebClient
     ) {
         this.repository = repository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxPublisher = outboxPublisher;
         this.userWebClient = userWebClient;
     }
 
@@ -67,6 +68,15 @@ public class TaskService {
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in getTasks, skipping element", throwable));
     }
 
+    /**
+     * The task entity, for callers that look at its version before mapping
+     * it. Empty if it does not exist.
+     */
+    public Mono<Task> findTaskById(String id) {
+        return repository.findById(id)
+                .doOnError(e -> log.error("Error fetching task by ID: {}", id, e));
+    }
+
     public Mono<TaskDto> getTaskById(String id) {
         return repository.findById(id)
                 .map(TaskUtils::entityToDto)
@@ -85,6 +95,27 @@ public class TaskService {
                 .onErrorContinue((throwable, o) -> log.error("Unhandled error in getTasksByProjectId, skipping element", throwable));
     }
 
+    public Flux<TaskSummaryDto> getTaskSummariesByProjectId(String projectId) {
+        return repository.findSummariesByProjectId(projectId)
+                .map(TaskUtils::entityToSummary)
+                .doOnError(e -> log.error("Error fetching task summaries by project ID: {}", projectId, e))
+                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch task summaries by projectId", e)));
+    }
+
+    public Flux<TaskSummaryDto> getTaskSummariesByAssigneeId(String assigneeId) {
+        return repository.findSummariesByAssigneeId(assigneeId)
+                .map(TaskUtils::entityToSummary)
+                .doOnError(e -> log.error("Error fetching task summaries by assignee ID: {}", assigneeId, e))
+                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch task summaries by assigneeId", e)));
+    }
+
+    public Flux<String> getTaskIdsByProjectId(String projectId) {
+        return repository.findIdsByProjectId(projectId)
+                .map(Task::getId)
+                .doOnError(e -> log.error("Error fetching task IDs by project ID: {}", projectId, e))
+                .onErrorResume(e -> Flux.error(new RuntimeException("Failed to fetch task IDs by projectId", e)));
+    }
+
     public Flux<TaskDto> getTasksByAssigneeId(String assigneeId) {
         return repository.findByAssigneeId(assigneeId)
                 .flatMap(task -> enrichTaskWithUserInfo(TaskUtils.entityToDto(task)))
@@ -119,7 +150,7 @@ public class TaskService {
             }
 
             return repository.insert(taskEntity)
-                    .doOnSuccess(createdTask -> publishTaskCreatedEvent(createdTask, contextView)) // Publish event on success
+                    .delayUntil(createdTask -> publishTaskCreatedEvent(createdTask, contextView)) // Publish event on success
                     .doOnError(e -> log.error("Error creating task", e))
                     .onErrorResume(e -> Mono.error(new RuntimeException("Failed to create task", e)))
                     .map(TaskUtils::entityToDto); // Map final entity to DTO for response
@@ -157,12 +188,8 @@ public class TaskService {
                             // Save using repository. Spring Data's save handles the @Version increment and check.
                             return repository.save(task);
                         })
-                        .doOnSuccess(savedTask -> {
-                            // Only publish event AFTER successful save
-                            if (savedTask != null) { // Check if save actually happened (though save usually returns the object)
-                                publishTaskStatusChangedEvent(savedTask, contextView); // Pass saved task (with new version)
-                            }
-                        })
+                        // Only publish event AFTER successful save
+                        .delayUntil(savedTask -> publishTaskStatusChangedEvent(savedTask, contextView)) // Pass saved task (with new version)
                         .doOnError(e -> log.error("Error updating task status", e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update task status", e)))
                         .map(TaskUtils::entityToDto) // Map the successfully saved task (with incremented version) to DTO
@@ -201,11 +228,12 @@ public class TaskService {
 
                             return repository.save(task);
                         })
-                        .doOnSuccess(saved -> {
-                            publishTaskUpdatedEvent(saved, contextView);
+                        .flatMap(saved -> {
+                            Mono<Void> events = publishTaskUpdatedEvent(saved, contextView);
                             if (saved.getStatus() != dto.getStatus()) {
-                                publishTaskStatusChangedEvent(saved, contextView);
+                                events = events.then(publishTaskStatusChangedEvent(saved, contextView));
                             }
+                            return events.thenReturn(saved);
                         })
                         .doOnError(e -> log.error("Error updating task combined", e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update task combined", e)))
@@ -233,7 +261,7 @@ public class TaskService {
                             task.setPriority(newPriority);
                             return repository.save(task);
                         })
-                        .doOnSuccess(saved -> publishTaskPriorityChangedEvent(saved, ctx))
+                        .delayUntil(saved -> publishTaskPriorityChangedEvent(saved, ctx))
                         .doOnError(e -> log.error("Error updating task priority", e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to update task priority", e)))
                         .map(TaskUtils::entityToDto)
@@ -258,7 +286,7 @@ public class TaskService {
                         .flatMap(savedTask -> {
                             TaskDto taskDto = TaskUtils.entityToDto(savedTask);
                             return enrichTaskWithUserInfo(taskDto)
-                                    .doOnNext(enrichedDto -> publishTaskAssignedEvent(savedTask, enrichedDto.getAssigneeName(), reactor.util.context.Context.empty()));
+                                    .delayUntil(enrichedDto -> publishTaskAssignedEvent(savedTask, enrichedDto.getAssigneeName(), reactor.util.context.Context.empty()));
                         })
                         .doOnError(e -> log.error("Error assigning task", e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to assign task", e)))
@@ -275,7 +303,7 @@ public class TaskService {
                         .switchIfEmpty(Mono.error(new ResourceNotFoundException("Task not found: " + taskId)))
                         .flatMap(task
                                 -> repository.delete(task)
-                                .doOnSuccess(ignored -> publishTaskDeletedEvent(task, ctx))
+                                .then(publishTaskDeletedEvent(task, ctx))
                         )
                         .doOnError(e -> log.error("Error deleting task", e))
                         .onErrorResume(e -> Mono.error(new RuntimeException("Failed to delete task", e)))
@@ -304,32 +332,22 @@ public class TaskService {
     // ==============================
     // Event Publishing Helper Methods
     // ==============================
-    private void publishTaskCreatedEvent(Task createdTask, ContextView contextView) {
+    private Mono<Void> publishTaskCreatedEvent(Task createdTask, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-create");
-        try {
-            TaskDto taskDto = TaskUtils.entityToDto(createdTask);
-            TaskCreatedEventPayload payload = new TaskCreatedEventPayload(taskDto);
-            EventEnvelope<TaskCreatedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    TaskCreatedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing TaskCreatedEvent envelope. CorrID: {}", correlationId);
-            kafkaTemplate.send(taskEventsTopic, createdTask.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send TaskCreatedEvent envelope. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing TaskCreatedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending TaskCreatedEvent. CorrID: {}", correlationId, e);
-        }
+        TaskDto taskDto = TaskUtils.entityToDto(createdTask);
+        TaskCreatedEventPayload payload = new TaskCreatedEventPayload(taskDto);
+        EventEnvelope<TaskCreatedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                TaskCreatedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing TaskCreatedEvent envelope. CorrID: {}", correlationId);
+        return outboxPublisher.enqueue(taskEventsTopic, createdTask.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue TaskCreatedEvent envelope. CorrID: {}", correlationId, e));
     }
 
-    private void publishTaskStatusChangedEvent(Task savedTask, ContextView contextView) {
+    private Mono<Void> publishTaskStatusChangedEvent(Task savedTask, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-fallback");
         TaskDto taskDto = TaskUtils.entityToDto(savedTask); // Using entityToDto instead of dtoToEntity
         TaskStatusChangedEventPayload payload = new TaskStatusChangedEventPayload(taskDto);
@@ -337,42 +355,26 @@ public class TaskService {
                 correlationId, TaskStatusChangedEventPayload.EVENT_TYPE, serviceName, payload
         );
         log.info("Publishing TaskStatusChangedEvent envelope. New Version: {}. CorrID: {}", savedTask.getVersion(), correlationId);
-        kafkaTemplate.send(taskEventsTopic, savedTask.getId(), envelope)
-                .doOnError(e -> log.error("Failed to send TaskStatusChangedEvent envelope. CorrID: {}", correlationId, e))
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing TaskStatusChangedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .subscribe();
+        return outboxPublisher.enqueue(taskEventsTopic, savedTask.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue TaskStatusChangedEvent envelope. CorrID: {}", correlationId, e));
     }
 
-    private void publishTaskDeletedEvent(Task deletedTask, ContextView contextView) {
+    private Mono<Void> publishTaskDeletedEvent(Task deletedTask, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-delete");
-        try {
-            TaskDto taskDto = TaskUtils.entityToDto(deletedTask);
-            TaskDeletedEventPayload payload = new TaskDeletedEventPayload(taskDto);
-            EventEnvelope<TaskDeletedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    TaskDeletedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-            log.info("Publishing TaskDeletedEvent envelope. CorrID: {}", correlationId);
-            kafkaTemplate.send(taskEventsTopic, deletedTask.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send TaskDeletedEvent envelope. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing TaskDeletedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending TaskDeletedEvent. CorrID: {}", correlationId, e);
-        }
+        TaskDto taskDto = TaskUtils.entityToDto(deletedTask);
+        TaskDeletedEventPayload payload = new TaskDeletedEventPayload(taskDto);
+        EventEnvelope<TaskDeletedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                TaskDeletedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+        log.info("Publishing TaskDeletedEvent envelope. CorrID: {}", correlationId);
+        return outboxPublisher.enqueue(taskEventsTopic, deletedTask.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue TaskDeletedEvent envelope. CorrID: {}", correlationId, e));
     }
 
-    private void publishTaskUpdatedEvent(Task updatedTask, ContextView contextView) {
+    private Mono<Void> publishTaskUpdatedEvent(Task updatedTask, ContextView contextView) {
         String correlationId = contextView.getOrDefault(
                 MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY,
                 "N/A-update"
@@ -386,20 +388,14 @@ public class TaskService {
                 payload
         );
         log.info("Publishing TaskUpdatedEvent envelope. CorrID: {}", correlationId);
-        kafkaTemplate
-                .send(taskEventsTopic, updatedTask.getId(), envelope)
+        return outboxPublisher
+                .enqueue(taskEventsTopic, updatedTask.getId(), envelope)
                 .doOnError(e
-                        -> log.error("Failed to send TaskUpdatedEvent envelope. CorrID: {}", correlationId, e)
-                )
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing TaskUpdatedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .subscribe();
+                        -> log.error("Failed to enqueue TaskUpdatedEvent envelope. CorrID: {}", correlationId, e)
+                );
     }
 
-    private void publishTaskPriorityChangedEvent(Task savedTask, ContextView ctx) {
+    private Mono<Void> publishTaskPriorityChangedEvent(Task savedTask, ContextView ctx) {
         String correlationId = ctx.getOrDefault(
                 MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY,
                 "N/A-priority"
@@ -412,42 +408,26 @@ public class TaskService {
                 serviceName,
                 payload
         );
-        kafkaTemplate
-                .send(taskEventsTopic, savedTask.getId(), envelope)
-                .doOnError(e -> log.error("Failed to send TaskPriorityChangedEvent. CorrID: {}", correlationId, e))
-                .onErrorResume(e -> {
-                    // TODO: Optionally send to dead-letter topic here
-                    log.error("Unrecoverable error publishing TaskPriorityChangedEvent. CorrID: {}", correlationId, e);
-                    return Mono.empty();
-                })
-                .subscribe();
+        return outboxPublisher
+                .enqueue(taskEventsTopic, savedTask.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue TaskPriorityChangedEvent. CorrID: {}", correlationId, e));
     }
 
-    private void publishTaskAssignedEvent(Task task, String assigneeName, ContextView contextView) {
+    private Mono<Void> publishTaskAssignedEvent(Task task, String assigneeName, ContextView contextView) {
         String correlationId = contextView.getOrDefault(MdcLoggingFilter.CORRELATION_ID_CONTEXT_KEY, "N/A-assign");
-        try {
-            TaskDto taskDto = TaskUtils.entityToDto(task);
-            taskDto.setAssigneeName(assigneeName);
-
-            TaskAssignedEventPayload payload = new TaskAssignedEventPayload(taskDto);
-            EventEnvelope<TaskAssignedEventPayload> envelope = new EventEnvelope<>(
-                    correlationId,
-                    TaskAssignedEventPayload.EVENT_TYPE,
-                    serviceName,
-                    payload
-            );
-
-            kafkaTemplate.send(taskEventsTopic, task.getId(), envelope)
-                    .doOnError(e -> log.error("Failed to send TaskAssignedEvent. CorrID: {}", correlationId, e))
-                    .onErrorResume(e -> {
-                        // TODO: Optionally send to dead-letter topic here
-                        log.error("Unrecoverable error publishing TaskAssignedEvent. CorrID: {}", correlationId, e);
-                        return Mono.empty();
-                    })
-                    .subscribe();
-        } catch (Exception e) {
-            log.error("Error preparing or sending TaskAssignedEvent. CorrID: {}", correlationId, e);
-        }
+        TaskDto taskDto = TaskUtils.entityToDto(task);
+        taskDto.setAssigneeName(assigneeName);
+
+        TaskAssignedEventPayload payload = new TaskAssignedEventPayload(taskDto);
+        EventEnvelope<TaskAssignedEventPayload> envelope = new EventEnvelope<>(
+                correlationId,
+                TaskAssignedEventPayload.EVENT_TYPE,
+                serviceName,
+                payload
+        );
+
+        return outboxPublisher.enqueue(taskEventsTopic, task.getId(), envelope)
+                .doOnError(e -> log.error("Failed to enqueue TaskAssignedEvent. CorrID: {}", correlationId, e));
     }
 
     private Mono<TaskDto> enrichTaskWithUserInfo(TaskDto taskDto) {
@@ -1,6 +1,7 @@
 package com.pm.taskservice.utils;
 
 import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.dto.TaskSummaryDto;
 import com.pm.taskservice.model.Task;
 
 public class TaskUtils {
@@ -41,6 +42,21 @@ public class TaskUtils {
         return builder.build();
     }
 
+    // Works on tasks loaded with the TaskRepository summary projection
+    public static TaskSummaryDto entityToSummary(Task task) {
+        return TaskSummaryDto.builder()
+                .id(sanitizeObjectIdString(task.getId()))
+                .projectId(sanitizeObjectIdString(task.getProjectId()))
+                .name(task.getName())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .assigneeId(sanitizeObjectIdString(task.getAssigneeId()))
+                .dueDate(task.getDueDate() != null ? task.getDueDate().toString() : null)
+                .updatedAt(task.getUpdatedAt() != null ? task.getUpdatedAt().toString() : null)
+                .version(task.getVersion())
+                .build();
+    }
+
     public static Task dtoToEntity(TaskDto dto) {
         Task.TaskBuilder builder = Task.builder()
                 .id(dto.getId())
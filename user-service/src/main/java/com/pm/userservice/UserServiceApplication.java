@@ -3,7 +3,7 @@ package com.pm.userservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication(scanBasePackages = {"com.pm.userservice", "com.pm.commonsecurity"})
+@SpringBootApplication(scanBasePackages = {"com.pm.userservice", "com.pm.commonsecurity", "com.pm.commonoutbox"})
 public class UserServiceApplication {
 
     public static void main(String[] args) {
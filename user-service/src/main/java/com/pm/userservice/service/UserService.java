@@ -3,7 +3,6 @@ package com.pm.userservice.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
 import org.springframework.stereotype.Service;
 
 import com.pm.commoncontracts.domain.UserRole;
@@ -12,6 +11,7 @@ import com.pm.commoncontracts.envelope.EventEnvelope;
 import com.pm.commoncontracts.events.user.UserCreatedEventPayload;
 import com.pm.commoncontracts.events.user.UserDeletedEventPayload;
 import com.pm.commoncontracts.events.user.UserUpdatedEventPayload;
+import com.pm.commonoutbox.outbox.OutboxEventPublisher;
 import com.pm.userservice.config.MdcLoggingFilter;
 import com.pm.userservice.exception.ConflictException;
 import com.pm.userservice.exception.ResourceNotFoundException;
@@ -28,7 +28,7 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository repository;
-    private final ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate;
+    private final OutboxEventPublisher outboxPublisher;
 
     @Value("${spring.application.name}")
     private String serviceName;
@@ -37,14 +37,14 @@ public class UserService {
     private String userEventsTopic;
 
     public UserService(UserRepository repository,
-            ReactiveKafkaProducerTemplate<String, EventEnvelope<?>> kafkaTemplate) {
+            OutboxEventPublisher outboxPublisher) {
         this.repository = repository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxPublisher = outboxPublisher;
     }
 
     private <T> Mono<Void> sendEvent(String key, EventEnvelope<T> envelope) {
-        return kafkaTemplate.send(userEventsTopic, key, envelope)
-                .doOnError(e -> log.error("Failed to send event {}. CorrID: {}", envelope.eventType(), envelope.correlationId(), e))
+        return outboxPublisher.enqueue(userEventsTopic, key, envelope)
+                .doOnError(e -> log.error("Failed to enqueue event {}. CorrID: {}", envelope.eventType(), envelope.correlationId(), e))
                 .then();
     }
 
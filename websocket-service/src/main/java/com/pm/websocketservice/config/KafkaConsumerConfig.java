@@ -1,7 +1,9 @@
 package com.pm.websocketservice.config;
 
-import java.util.Collections;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +27,11 @@ public class KafkaConsumerConfig {
     }
 
     private ReceiverOptions<String, EventEnvelope<?>> createEventEnvelopeReceiverOptions(String topic) {
+        return createEventEnvelopeReceiverOptions(List.of(topic), Map.of());
+    }
+
+    private ReceiverOptions<String, EventEnvelope<?>> createEventEnvelopeReceiverOptions(Collection<String> topics,
+            Map<String, Object> overrides) {
         // Start with Spring Boot's auto-configured properties from application.yml
         Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
 
@@ -46,8 +53,10 @@ public class KafkaConsumerConfig {
                 + "commentDeletedEventPayload:com.pm.commoncontracts.events.comment.CommentDeletedEventPayload"
         );
 
+        props.putAll(overrides);
+
         return ReceiverOptions.<String, EventEnvelope<?>>create(props)
-                .subscription(Collections.singleton(topic));
+                .subscription(topics);
     }
 
     @Bean
@@ -61,4 +70,22 @@ public class KafkaConsumerConfig {
             @Value("${kafka.topic.websocket-dispatch:websocket-dispatch}") String websocketDispatchTopic) {
         return KafkaReceiver.create(createEventEnvelopeReceiverOptions(websocketDispatchTopic));
     }
+
+    /**
+     * Options for the membership cache feed. Exposed as options rather than a
+     * receiver so the event dispatcher does not pick it up. Each instance
+     * uses its own consumer group and reads from the earliest offset, so the
+     * cache is rebuilt from the event log on every start.
+     */
+    @Bean
+    public ReceiverOptions<String, EventEnvelope<?>> membershipReceiverOptions(
+            @Value("${kafka.topic.project-events:project-events}") String projectEventsTopic,
+            @Value("${kafka.topic.task-events:task-events}") String taskEventsTopic,
+            @Value("${kafka.topic.user-events:user-events}") String userEventsTopic,
+            @Value("${spring.application.name:websocket-service}") String applicationName) {
+        return createEventEnvelopeReceiverOptions(
+                List.of(projectEventsTopic, taskEventsTopic, userEventsTopic),
+                Map.of(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-membership-" + UUID.randomUUID(),
+                        ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"));
+    }
 }
@@ -0,0 +1,88 @@
+package com.pm.websocketservice.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.pm.websocketservice.presence.PresenceState;
+
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.SenderOptions;
+
+/**
+ * Kafka wiring for cross-instance presence: a compacted topic holding the
+ * latest viewers per instance and topic, a producer for this instance's
+ * state and a consumer that reads everyone's.
+ */
+@Configuration
+public class KafkaPresenceConfig {
+
+    private final KafkaProperties kafkaProperties;
+
+    public KafkaPresenceConfig(KafkaProperties kafkaProperties) {
+        this.kafkaProperties = kafkaProperties;
+    }
+
+    @Bean
+    public NewTopic presenceTopic(@Value("${kafka.topic.presence:websocket-presence}") String presenceTopic) {
+        return TopicBuilder.name(presenceTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                // Roll segments often so compaction can drop superseded states and tombstones quickly
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofMinutes(10).toMillis()))
+                .build();
+    }
+
+    @Bean
+    public ReactiveKafkaProducerTemplate<String, PresenceState> presenceProducer() {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // Presence is ephemeral and republished periodically: give up quickly rather than queue stale state
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 5000);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 10000);
+        return new ReactiveKafkaProducerTemplate<>(SenderOptions.create(props));
+    }
+
+    /**
+     * Each instance reads the whole compacted topic from the start with its
+     * own consumer group, so it learns the current presence on every boot.
+     */
+    @Bean
+    public ReceiverOptions<String, PresenceState> presenceReceiverOptions(
+            @Value("${kafka.topic.presence:websocket-presence}") String presenceTopic,
+            @Value("${spring.application.name:websocket-service}") String applicationName) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-presence-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Plain JSON without type headers, unlike the event envelopes configured in application.yml
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, PresenceState.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, PresenceState.class.getPackageName());
+        props.remove(JsonDeserializer.TYPE_MAPPINGS);
+        return ReceiverOptions.<String, PresenceState>create(props)
+                .subscription(List.of(presenceTopic));
+    }
+}
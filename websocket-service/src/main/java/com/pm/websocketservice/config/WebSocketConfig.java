@@ -3,16 +3,20 @@ package com.pm.websocketservice.config;
 import java.util.HashMap; // Import the new handler
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
 import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
 
 import com.pm.websocketservice.controller.ProjectWebSocketHandler;
 
 import lombok.RequiredArgsConstructor;
+import reactor.netty.http.server.WebsocketServerSpec;
 
 @Configuration
 @RequiredArgsConstructor
@@ -36,9 +40,14 @@ public class WebSocketConfig {
         return handlerMapping;
     }
 
-    // WebSocketHandlerAdapter is needed to process WebSocket requests
+    // WebSocketHandlerAdapter is needed to process WebSocket requests.
+    // With compression enabled the server accepts the permessage-deflate extension
+    // (RFC 7692) when the client offers it; browsers do so automatically.
     @Bean
-    public WebSocketHandlerAdapter handlerAdapter() {
-        return new WebSocketHandlerAdapter();
+    public WebSocketHandlerAdapter handlerAdapter(
+            @Value("${websocket.compression.enabled:true}") boolean compressionEnabled) {
+        ReactorNettyRequestUpgradeStrategy upgradeStrategy = new ReactorNettyRequestUpgradeStrategy(
+                () -> WebsocketServerSpec.builder().compress(compressionEnabled));
+        return new WebSocketHandlerAdapter(new HandshakeWebSocketService(upgradeStrategy));
     }
 }
@@ -0,0 +1,119 @@
+package com.pm.websocketservice.controller;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pm.websocketservice.service.ClientCommandProcessor;
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.SubscriptionRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server-Sent Events fallback for clients behind proxies that block WebSocket
+ * upgrades. The stream is a session in the same {@link SubscriptionRegistry}
+ * as WebSocket clients and receives the same frames, so a broadcast is
+ * serialized once for both.
+ *
+ * SSE only flows server to client, so commands use a separate request:
+ * <ul>
+ * <li>{@code GET /sse/updates?topic=project:123&topic=user:42} opens the
+ * stream, subscribes to the given topics, and first sends a {@code session}
+ * event carrying the session id. A {@code Last-Event-ID} header (sent by the
+ * browser on reconnect) or {@code resumeFrom} parameter replays missed
+ * events.</li>
+ * <li>{@code POST /sse/updates/{sessionId}/commands} takes the same JSON
+ * commands as the WebSocket. Replies arrive on the stream.</li>
+ * </ul>
+ */
+@Slf4j
+@RestController
+public class EventStreamController {
+
+    static final String SESSION_EVENT = "session";
+
+    private final SubscriptionRegistry registry;
+    private final ClientCommandProcessor commandProcessor;
+    private final Duration keepAlive;
+
+    public EventStreamController(SubscriptionRegistry registry,
+            ClientCommandProcessor commandProcessor,
+            @Value("${websocket.sse.keep-alive:15s}") Duration keepAlive) {
+        this.registry = registry;
+        this.commandProcessor = commandProcessor;
+        this.keepAlive = keepAlive;
+    }
+
+    @GetMapping(path = "/sse/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> stream(@RequestHeader HttpHeaders headers,
+            @RequestParam(name = "topic", required = false) List<String> topics,
+            @RequestParam(name = "resumeFrom", required = false) String resumeFrom,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        ClientSession client = registry.registerEventStream(headers);
+        log.info("SSE session established: {} (user {})", client.getId(), client.getUserId());
+
+        String resumePoint = lastEventId != null ? lastEventId : resumeFrom;
+        Mono<Void> initialSubscriptions = Flux.fromIterable(topics != null ? topics : List.<String>of())
+                .concatMap(topic -> commandProcessor.process(client, subscribeCommand(topic, resumePoint)))
+                .then();
+
+        ServerSentEvent<String> sessionEvent = ServerSentEvent.builder(client.getId()).event(SESSION_EVENT).build();
+        // Comments keep proxies from closing an idle stream; they stop once the session is closed
+        Flux<ServerSentEvent<String>> keepAlives = Flux.interval(keepAlive)
+                .takeWhile(tick -> client.isOpen())
+                .map(tick -> ServerSentEvent.<String>builder().comment("keep-alive").build());
+
+        return Flux.concat(Mono.just(sessionEvent), initialSubscriptions.thenMany(client.serverSentEvents()))
+                .mergeWith(keepAlives)
+                .doFinally(signal -> {
+                    log.info("SSE session [{}] closing with signal: {}. Removing from all subscriptions.", client.getId(), signal);
+                    registry.unregister(client);
+                });
+    }
+
+    @PostMapping(path = "/sse/updates/{sessionId}/commands", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Void>> command(@PathVariable String sessionId,
+            @RequestHeader(name = "X-User-Id", required = false) String userId,
+            @RequestBody String command) {
+        ClientSession client = registry.findSession(sessionId);
+        if (client == null || !client.isServerSentEvents()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        // Only the user the stream was opened for may drive it
+        if (!Objects.equals(client.getUserId(), userId)) {
+            log.warn("User [{}] attempted to send a command to SSE session [{}] of user [{}]", userId, sessionId, client.getUserId());
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return commandProcessor.process(client, command)
+                .thenReturn(ResponseEntity.accepted().<Void>build());
+    }
+
+    private static Map<String, Object> subscribeCommand(String topic, String resumeFrom) {
+        Map<String, Object> command = new LinkedHashMap<>();
+        command.put("type", "subscribe");
+        command.put("topic", topic);
+        if (resumeFrom != null) {
+            command.put("resumeFrom", resumeFrom);
+        }
+        return command;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pm.websocketservice.presence;
+
+import java.util.List;
+
+/**
+ * Presence snapshot sent to a topic's subscribers: everyone currently viewing
+ * the topic across all instances, and who joined or left since the previous
+ * snapshot, e.g.
+ * {"type":"presence","topic":"project:123","viewers":["u1","u2"],"joined":["u2"],"left":[]}.
+ */
+public record PresenceFrame(
+        String type,
+        String topic,
+        List<String> viewers,
+        List<String> joined,
+        List<String> left
+) {
+
+    public static final String TYPE = "presence";
+    // Name subscriptions list in their "eventTypes" allowlist to receive presence
+    public static final String EVENT_TYPE = "PRESENCE";
+
+    public PresenceFrame(String topic, List<String> viewers, List<String> joined, List<String> left) {
+        this(TYPE, topic, viewers, joined, left);
+    }
+}
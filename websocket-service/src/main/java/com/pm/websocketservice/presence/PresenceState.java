@@ -0,0 +1,16 @@
+package com.pm.websocketservice.presence;
+
+import java.util.Set;
+
+/**
+ * One instance's viewers of one topic, as published on the compacted presence
+ * topic under the key {@code <instanceId>|<topic>}. An instance that no longer
+ * has viewers on the topic publishes a tombstone instead.
+ */
+public record PresenceState(
+        String instanceId,
+        String topic,
+        Set<String> userIds,
+        long updatedAt
+) {
+}
@@ -0,0 +1,300 @@
+package com.pm.websocketservice.presence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.SubscriptionListener;
+import com.pm.websocketservice.service.SubscriptionRegistry;
+import com.pm.websocketservice.service.Topics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Tracks who is viewing each project and task topic and tells the topic's
+ * subscribers, without clients announcing themselves to each other.
+ *
+ * Viewers are derived from this instance's own subscriptions: an
+ * authenticated session subscribed to a concrete project or task topic (no
+ * wildcard) views it. Changes only mark the topic dirty. Every
+ * {@code websocket.presence.interval} the dirty topics get one snapshot
+ * each, with the joined and left users since the previous one, so a burst of
+ * tabs opening costs one frame per subscriber rather than one per join.
+ *
+ * Across instances, each one publishes its viewers per topic to a compacted
+ * Kafka topic keyed {@code <instanceId>|<topic>}, and reads everyone else's.
+ * Entries are republished every {@code refresh} and ignored once older than
+ * {@code ttl}, so a crashed instance's viewers eventually disappear.
+ */
+@Slf4j
+@Component
+public class PresenceTracker implements SubscriptionListener {
+
+    static final char KEY_SEPARATOR = '|';
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final SubscriptionRegistry registry;
+    private final ReactiveKafkaProducerTemplate<String, PresenceState> presenceProducer;
+    private final ReceiverOptions<String, PresenceState> presenceReceiverOptions;
+    private final String presenceTopic;
+    private final Duration interval;
+    private final Duration refresh;
+    private final Duration ttl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Topic -> user -> that user's subscribed sessions on this instance; guarded by itself
+    private final Map<String, Map<String, Integer>> localViewers = new HashMap<>();
+    // Topic -> instance -> that instance's last published viewers
+    private final Map<String, Map<String, PresenceState>> remoteViewers = new ConcurrentHashMap<>();
+    // Topic -> viewers in the last snapshot sent
+    private final Map<String, Set<String>> broadcastViewers = new ConcurrentHashMap<>();
+    private final Set<String> dirtyTopics = ConcurrentHashMap.newKeySet();
+    // Topics a session joined since the last flush: they get a snapshot even if the viewers did not change
+    private final Set<String> snapshotTopics = ConcurrentHashMap.newKeySet();
+    private final Set<String> unpublishedTopics = ConcurrentHashMap.newKeySet();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    public PresenceTracker(SubscriptionRegistry registry,
+            ReactiveKafkaProducerTemplate<String, PresenceState> presenceProducer,
+            ReceiverOptions<String, PresenceState> presenceReceiverOptions,
+            @Value("${kafka.topic.presence:websocket-presence}") String presenceTopic,
+            @Value("${websocket.presence.interval:1s}") Duration interval,
+            @Value("${websocket.presence.refresh:30s}") Duration refresh,
+            @Value("${websocket.presence.ttl:90s}") Duration ttl) {
+        this.registry = registry;
+        this.presenceProducer = presenceProducer;
+        this.presenceReceiverOptions = presenceReceiverOptions;
+        this.presenceTopic = presenceTopic;
+        this.interval = interval;
+        this.refresh = refresh;
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    public void start() {
+        registry.addListener(this);
+        log.info("Starting presence tracking as instance {} (snapshots every {}, sync via topic {})", instanceId, interval, presenceTopic);
+        subscriptions.add(KafkaReceiver.create(presenceReceiverOptions)
+                .receive()
+                .doOnNext(this::processRecord)
+                .onErrorContinue((err, obj) -> log.error("Error processing presence record, skipping. Record: {}", obj, err))
+                .subscribe());
+        subscriptions.add(Flux.interval(interval)
+                .doOnNext(tick -> flush())
+                .onErrorContinue((err, obj) -> log.error("Error flushing presence snapshots", err))
+                .subscribe());
+        subscriptions.add(Flux.interval(refresh)
+                .doOnNext(tick -> refresh())
+                .onErrorContinue((err, obj) -> log.error("Error refreshing presence state", err))
+                .subscribe());
+    }
+
+    @Override
+    public void onSubscribed(String pattern, ClientSession client) {
+        if (!isTracked(pattern, client)) {
+            return;
+        }
+        synchronized (localViewers) {
+            localViewers.computeIfAbsent(pattern, k -> new HashMap<>()).merge(client.getUserId(), 1, Integer::sum);
+        }
+        snapshotTopics.add(pattern);
+        markChanged(pattern);
+    }
+
+    @Override
+    public void onUnsubscribed(String pattern, ClientSession client) {
+        if (!isTracked(pattern, client)) {
+            return;
+        }
+        synchronized (localViewers) {
+            Map<String, Integer> users = localViewers.get(pattern);
+            if (users == null) {
+                return;
+            }
+            users.computeIfPresent(client.getUserId(), (userId, sessions) -> sessions > 1 ? sessions - 1 : null);
+            if (users.isEmpty()) {
+                localViewers.remove(pattern);
+            }
+        }
+        markChanged(pattern);
+    }
+
+    /**
+     * Everyone viewing the topic on any instance.
+     */
+    public Set<String> viewers(String topic) {
+        Set<String> viewers = new TreeSet<>(localUsers(topic));
+        long oldest = System.currentTimeMillis() - ttl.toMillis();
+        Map<String, PresenceState> remote = remoteViewers.get(topic);
+        if (remote != null) {
+            remote.values().stream()
+                    .filter(state -> state.updatedAt() >= oldest)
+                    .forEach(state -> viewers.addAll(state.userIds()));
+        }
+        return viewers;
+    }
+
+    /**
+     * Publishes changed local state and sends one snapshot per dirty topic.
+     */
+    void flush() {
+        for (String topic : drain(unpublishedTopics)) {
+            publish(topic, localUsers(topic));
+        }
+        for (String topic : drain(dirtyTopics)) {
+            broadcast(topic, snapshotTopics.remove(topic));
+        }
+    }
+
+    private void broadcast(String topic, boolean force) {
+        Set<String> viewers = viewers(topic);
+        Set<String> previous = broadcastViewers.getOrDefault(topic, Set.of());
+        List<String> joined = viewers.stream().filter(userId -> !previous.contains(userId)).toList();
+        List<String> left = previous.stream().filter(userId -> !viewers.contains(userId)).sorted().toList();
+        if (viewers.isEmpty()) {
+            broadcastViewers.remove(topic);
+        } else {
+            broadcastViewers.put(topic, viewers);
+        }
+        if (joined.isEmpty() && left.isEmpty() && !force) {
+            return;
+        }
+        log.debug("Presence on topic [{}]: {} viewer(s), joined {}, left {}", topic, viewers.size(), joined, left);
+        registry.sendTransient(topic, new PresenceFrame(topic, List.copyOf(viewers), joined, left), PresenceFrame.EVENT_TYPE);
+    }
+
+    /**
+     * Republishes this instance's state so other instances keep trusting it,
+     * and drops remote state that has not been refreshed within the TTL.
+     */
+    void refresh() {
+        synchronized (localViewers) {
+            unpublishedTopics.addAll(localViewers.keySet());
+        }
+        long oldest = System.currentTimeMillis() - ttl.toMillis();
+        remoteViewers.forEach((topic, states) -> {
+            if (states.values().removeIf(state -> state.updatedAt() < oldest)) {
+                log.debug("Expired stale remote presence on topic [{}]", topic);
+                dirtyTopics.add(topic);
+            }
+            if (states.isEmpty()) {
+                remoteViewers.remove(topic, states);
+            }
+        });
+    }
+
+    private void processRecord(ReceiverRecord<String, PresenceState> record) {
+        applyRemote(record.key(), record.value());
+    }
+
+    /**
+     * Applies another instance's published state; a null state is a
+     * tombstone removing that instance's viewers of the topic.
+     */
+    void applyRemote(String key, PresenceState state) {
+        int idx = key == null ? -1 : key.indexOf(KEY_SEPARATOR);
+        if (idx < 0) {
+            log.warn("Ignoring presence record with malformed key [{}]", key);
+            return;
+        }
+        String sourceInstance = key.substring(0, idx);
+        String topic = key.substring(idx + 1);
+        if (instanceId.equals(sourceInstance)) {
+            return;
+        }
+        PresenceState previous;
+        if (state == null) {
+            Map<String, PresenceState> states = remoteViewers.get(topic);
+            previous = states != null ? states.remove(sourceInstance) : null;
+        } else {
+            previous = remoteViewers.computeIfAbsent(topic, k -> new ConcurrentHashMap<>()).put(sourceInstance, state);
+        }
+        Set<String> before = previous != null ? previous.userIds() : Set.of();
+        Set<String> after = state != null ? state.userIds() : Set.of();
+        // Heartbeat republishes carry the same viewers and need no snapshot
+        if (!before.equals(after)) {
+            dirtyTopics.add(topic);
+        }
+    }
+
+    private void publish(String topic, Set<String> userIds) {
+        PresenceState state = userIds.isEmpty()
+                ? null
+                : new PresenceState(instanceId, topic, userIds, System.currentTimeMillis());
+        send(topic, state).subscribe();
+    }
+
+    private Mono<Void> send(String topic, PresenceState state) {
+        return presenceProducer.send(presenceTopic, instanceId + KEY_SEPARATOR + topic, state)
+                .doOnError(e -> log.warn("Failed to publish presence for topic [{}]: {}", topic, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private void markChanged(String topic) {
+        unpublishedTopics.add(topic);
+        dirtyTopics.add(topic);
+    }
+
+    private Set<String> localUsers(String topic) {
+        synchronized (localViewers) {
+            Map<String, Integer> users = localViewers.get(topic);
+            return users == null ? Set.of() : new HashSet<>(users.keySet());
+        }
+    }
+
+    private static boolean isTracked(String pattern, ClientSession client) {
+        if (client.getUserId() == null || pattern.contains(Topics.WILDCARD)) {
+            return false;
+        }
+        String root = Topics.root(pattern);
+        return root.startsWith("project:") || root.startsWith("task:");
+    }
+
+    private static List<String> drain(Set<String> topics) {
+        List<String> drained = new ArrayList<>();
+        for (String topic : topics) {
+            if (topics.remove(topic)) {
+                drained.add(topic);
+            }
+        }
+        return drained;
+    }
+
+    @PreDestroy
+    public void stop() {
+        log.info("Stopping presence tracking; withdrawing this instance's viewers");
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+        List<String> topics;
+        synchronized (localViewers) {
+            topics = new ArrayList<>(localViewers.keySet());
+        }
+        // Tombstones let other instances drop our viewers now rather than after the TTL
+        Flux.fromIterable(topics)
+                .flatMap(topic -> send(topic, null))
+                .then()
+                .timeout(SHUTDOWN_TIMEOUT, Mono.empty())
+                .block();
+    }
+}
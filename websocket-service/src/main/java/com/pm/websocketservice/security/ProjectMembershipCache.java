@@ -0,0 +1,231 @@
+package com.pm.websocketservice.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.pm.commoncontracts.dto.ProjectDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local view of who may follow which project, kept current from project,
+ * task and user events so that subscribe checks never leave the process.
+ *
+ * User ids are interned to small ints and each project holds its members
+ * (owner, creator, managers, members) as a sorted {@code int[]}, so a check is
+ * two hash lookups and a binary search with no allocation. Arrays are
+ * replaced, never mutated, which keeps reads lock-free; updates arrive from
+ * a single consumer and are serialized on the cache.
+ */
+@Slf4j
+@Component
+public class ProjectMembershipCache {
+
+    private static final int[] NO_MEMBERS = new int[0];
+
+    private final Map<String, Integer> userIndex = new ConcurrentHashMap<>();
+    private final Map<String, int[]> projectMembers = new ConcurrentHashMap<>();
+    // projectId -> owner and creator, who stay members whatever membership deltas say
+    private final Map<String, Set<String>> projectOwners = new ConcurrentHashMap<>();
+    // taskId -> projectId, to authorize task:<id> topics
+    private final Map<String, String> taskProjects = new ConcurrentHashMap<>();
+    // Reverse of userIndex, only read under the cache lock
+    private String[] userIds = new String[64];
+    private int userCount;
+
+    public boolean isMember(String projectId, String userId) {
+        Integer idx = userIndex.get(userId);
+        if (idx == null) {
+            return false;
+        }
+        int[] members = projectMembers.get(projectId);
+        return members != null && Arrays.binarySearch(members, idx) >= 0;
+    }
+
+    public String projectOf(String taskId) {
+        return taskProjects.get(taskId);
+    }
+
+    /**
+     * Replaces a project's member set from a full project snapshot.
+     *
+     * @return ids of users who were members before and no longer are
+     */
+    public synchronized Set<String> putProject(ProjectDto project) {
+        if (project == null || project.getId() == null) {
+            return Set.of();
+        }
+        Set<String> owners = new HashSet<>();
+        addIfPresent(owners, project.getOwnerId());
+        addIfPresent(owners, project.getCreatedBy());
+        projectOwners.put(project.getId(), owners);
+        Set<String> ids = new HashSet<>(owners);
+        addAllIfPresent(ids, project.getManagerIds());
+        addAllIfPresent(ids, project.getMemberIds());
+
+        int[] members = new int[ids.size()];
+        int i = 0;
+        for (String id : ids) {
+            members[i++] = intern(id);
+        }
+        Arrays.sort(members);
+        int[] previous = projectMembers.put(project.getId(), members);
+        log.debug("Cached {} member(s) for project [{}]", members.length, project.getId());
+        return removed(previous, members);
+    }
+
+    /**
+     * Applies a single member joining a project. Ignored for projects not
+     * seen yet; their snapshot will include the member.
+     */
+    public synchronized void addMember(String projectId, String userId) {
+        int[] members = projectMembers.get(projectId);
+        if (members == null || userId == null || userId.isBlank()) {
+            return;
+        }
+        int idx = intern(userId);
+        int pos = Arrays.binarySearch(members, idx);
+        if (pos >= 0) {
+            return;
+        }
+        int insert = -pos - 1;
+        int[] updated = new int[members.length + 1];
+        System.arraycopy(members, 0, updated, 0, insert);
+        updated[insert] = idx;
+        System.arraycopy(members, insert, updated, insert + 1, members.length - insert);
+        projectMembers.put(projectId, updated);
+    }
+
+    /**
+     * Applies a single member leaving a project. The owner and creator keep
+     * access regardless.
+     *
+     * @return true if the user lost access to the project
+     */
+    public synchronized boolean removeMember(String projectId, String userId) {
+        int[] members = projectMembers.get(projectId);
+        Integer idx = userIndex.get(userId);
+        if (members == null || idx == null || projectOwners.getOrDefault(projectId, Set.of()).contains(userId)) {
+            return false;
+        }
+        int[] updated = without(members, idx);
+        if (updated == members) {
+            return false;
+        }
+        projectMembers.put(projectId, updated);
+        return true;
+    }
+
+    /**
+     * Hands a project over to a new owner, who keeps access from then on
+     * even if later removed as a member.
+     */
+    public synchronized void transferOwnership(String projectId, String previousOwnerId, String newOwnerId) {
+        Set<String> owners = projectOwners.get(projectId);
+        if (owners == null || newOwnerId == null) {
+            return;
+        }
+        Set<String> updated = new HashSet<>(owners);
+        updated.remove(previousOwnerId);
+        updated.add(newOwnerId);
+        projectOwners.put(projectId, updated);
+        addMember(projectId, newOwnerId);
+    }
+
+    /**
+     * @return ids of users who were members of the project
+     */
+    public synchronized Set<String> removeProject(String projectId) {
+        int[] previous = projectMembers.remove(projectId);
+        projectOwners.remove(projectId);
+        taskProjects.values().removeIf(projectId::equals);
+        return removed(previous, NO_MEMBERS);
+    }
+
+    public void putTask(String taskId, String projectId) {
+        if (taskId != null && projectId != null) {
+            taskProjects.put(taskId, projectId);
+        }
+    }
+
+    public void removeTask(String taskId) {
+        if (taskId != null) {
+            taskProjects.remove(taskId);
+        }
+    }
+
+    /**
+     * Forgets a deleted user. The interned index is dropped rather than
+     * reused, so stale entries in member arrays can never match anyone.
+     */
+    public synchronized void removeUser(String userId) {
+        Integer idx = userIndex.remove(userId);
+        if (idx == null) {
+            return;
+        }
+        userIds[idx] = null;
+        projectMembers.replaceAll((projectId, members) -> without(members, idx));
+    }
+
+    public int projectCount() {
+        return projectMembers.size();
+    }
+
+    private int intern(String userId) {
+        Integer existing = userIndex.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        if (userCount == userIds.length) {
+            userIds = Arrays.copyOf(userIds, userCount * 2);
+        }
+        int idx = userCount++;
+        userIds[idx] = userId;
+        userIndex.put(userId, idx);
+        return idx;
+    }
+
+    // The sorted array without idx, or the same array if idx is absent
+    private static int[] without(int[] members, int idx) {
+        int pos = Arrays.binarySearch(members, idx);
+        if (pos < 0) {
+            return members;
+        }
+        int[] updated = new int[members.length - 1];
+        System.arraycopy(members, 0, updated, 0, pos);
+        System.arraycopy(members, pos + 1, updated, pos, members.length - pos - 1);
+        return updated;
+    }
+
+    // Members of previous that are not in current; both arrays sorted
+    private Set<String> removed(int[] previous, int[] current) {
+        if (previous == null || previous.length == 0) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (int idx : previous) {
+            if (Arrays.binarySearch(current, idx) < 0 && userIds[idx] != null) {
+                result.add(userIds[idx]);
+            }
+        }
+        return result;
+    }
+
+    private static void addIfPresent(Set<String> ids, String id) {
+        if (id != null && !id.isBlank()) {
+            ids.add(id);
+        }
+    }
+
+    private static void addAllIfPresent(Set<String> ids, Collection<String> values) {
+        if (values != null) {
+            values.forEach(id -> addIfPresent(ids, id));
+        }
+    }
+}
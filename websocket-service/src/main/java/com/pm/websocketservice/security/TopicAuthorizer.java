@@ -0,0 +1,71 @@
+package com.pm.websocketservice.security;
+
+import org.springframework.stereotype.Component;
+
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.ControlFrame;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides whether a session may subscribe to a topic pattern, using the
+ * identity the gateway attached to the handshake and the local
+ * {@link ProjectMembershipCache}:
+ * <ul>
+ * <li>{@code user:<id>...} only for that same user;</li>
+ * <li>{@code project:<id>...} for admins and project members;</li>
+ * <li>{@code task:<id>...} for admins and members of the task's project.</li>
+ * </ul>
+ * Any other root is refused.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicAuthorizer {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String PROJECT_PREFIX = "project:";
+    private static final String TASK_PREFIX = "task:";
+
+    private final ProjectMembershipCache membershipCache;
+
+    /**
+     * @return null if the subscription is allowed, otherwise the
+     *         {@link ControlFrame} error reason to send back
+     */
+    public String checkSubscribe(ClientSession client, String pattern) {
+        String userId = client.getUserId();
+        if (userId == null) {
+            return ControlFrame.UNAUTHENTICATED;
+        }
+        int end = pattern.indexOf('/');
+        if (end < 0) {
+            end = pattern.length();
+        }
+        if (pattern.startsWith(USER_PREFIX)) {
+            return regionEquals(pattern, USER_PREFIX.length(), end, userId) ? null : ControlFrame.FORBIDDEN;
+        }
+        if (pattern.startsWith(PROJECT_PREFIX)) {
+            if (client.isAdmin()) {
+                return null;
+            }
+            String projectId = pattern.substring(PROJECT_PREFIX.length(), end);
+            return membershipCache.isMember(projectId, userId) ? null : ControlFrame.FORBIDDEN;
+        }
+        if (pattern.startsWith(TASK_PREFIX)) {
+            if (client.isAdmin()) {
+                return null;
+            }
+            String projectId = membershipCache.projectOf(pattern.substring(TASK_PREFIX.length(), end));
+            return projectId != null && membershipCache.isMember(projectId, userId) ? null : ControlFrame.FORBIDDEN;
+        }
+        return ControlFrame.FORBIDDEN;
+    }
+
+    public boolean canSubscribe(ClientSession client, String pattern) {
+        return checkSubscribe(client, pattern) == null;
+    }
+
+    private static boolean regionEquals(String pattern, int start, int end, String value) {
+        return end - start == value.length() && pattern.regionMatches(start, value, 0, value.length());
+    }
+}
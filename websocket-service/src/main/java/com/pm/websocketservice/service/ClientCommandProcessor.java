@@ -0,0 +1,187 @@
+package com.pm.websocketservice.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.websocketservice.security.TopicAuthorizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client commands (subscribe, unsubscribe, user-auth), shared by the WebSocket
+ * handler and the Server-Sent Events endpoint so both transports behave the
+ * same.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientCommandProcessor {
+
+    private final SubscriptionRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final TopicAuthorizer topicAuthorizer;
+
+    /**
+     * Processes a command from a WebSocket or Server-Sent Events client. Expects JSON
+     * like: {"type": "subscribe", "topic": "project:123"}, {"type":
+     * "unsubscribe", "topic": "project:123"} or {"type": "user-auth", "userId":
+     * "..."}. Both "subscribe" and "user-auth" accept an optional "resumeFrom"
+     * sequence (the last "seq" the client saw on that topic) to replay events
+     * missed while disconnected, and an optional "encoding" ("json", "cbor" or
+     * "smile") that switches all frames sent to this session from then on.
+     * Topics are hierarchical patterns (see {@link Topics}): subscribing to
+     * "project:123/task/*" follows every task of project 123, while
+     * "project:123" keeps following the project and everything below it.
+     * The user is the one the gateway authenticated at the handshake: a
+     * "user-auth" naming anyone else, or a subscription the user may not
+     * see, is answered with an "error" frame instead of being applied.
+     * "subscribe" also accepts an optional "eventTypes" allowlist, as an
+     * array or a comma-separated string (e.g. ["COMMENT_ADDED",
+     * "COMMENT_EDITED"]), to receive only those event types on the topic.
+     */
+    public Mono<Void> process(ClientSession session, String jsonPayload) {
+        try {
+            // Use TypeReference for generic Map deserialization
+            Map<String, Object> command = objectMapper.readValue(jsonPayload, new TypeReference<Map<String, Object>>() {
+            });
+            return apply(session, command, jsonPayload);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse command JSON from client [{}]: {}", session.getId(), jsonPayload, e);
+            // Optionally send an error message back to the client?
+        }
+        return Mono.empty(); // Consume the message
+    }
+
+    /**
+     * Processes an already parsed command, e.g. the initial subscriptions an
+     * SSE client passes on its stream request.
+     */
+    public Mono<Void> process(ClientSession session, Map<String, Object> command) {
+        return apply(session, command, command);
+    }
+
+    private Mono<Void> apply(ClientSession session, Map<String, Object> command, Object jsonPayload) {
+        try {
+            String type = text(command, "type");
+            String topic = text(command, "topic");
+            String userId = text(command, "userId");
+            String projectId = text(command, "projectId"); // Legacy support
+            Long resumeFrom = parseResumeFrom(text(command, "resumeFrom"));
+            applyEncoding(session, text(command, "encoding"));
+
+            if ("user-auth".equalsIgnoreCase(type) && userId != null && !userId.isBlank()) {
+                String userTopic = Topics.user(userId);
+                String denial = topicAuthorizer.checkSubscribe(session, userTopic);
+                if (denial != null) {
+                    log.warn("Session [{}] of user [{}] denied user-auth as [{}]: {}", session.getId(), session.getUserId(), userId, denial);
+                    registry.sendError(session, userTopic, denial);
+                    return Mono.empty();
+                }
+                log.info("Session [{}] authenticating as user [{}]", session.getId(), userId);
+                registry.subscribe(userTopic, session, resumeFrom);
+                return Mono.empty(); // Consume the message
+            }
+
+            // Handle legacy projectId format by converting to topic format
+            if (topic == null && projectId != null && !projectId.isBlank()) {
+                topic = "project:" + projectId;
+                log.debug("Converting legacy projectId [{}] to topic [{}] for session [{}]", projectId, topic, session.getId());
+            }
+
+            if (topic == null || topic.isBlank()) {
+                log.warn("Received command without topic from session [{}]: {}", session.getId(), jsonPayload);
+                return Mono.empty(); // Ignore invalid command
+            }
+
+            if (!Topics.isValidPattern(topic)) {
+                log.warn("Received command with invalid topic pattern [{}] from session [{}]", topic, session.getId());
+                registry.sendError(session, topic, ControlFrame.INVALID_TOPIC);
+                return Mono.empty(); // Ignore invalid command
+            }
+
+            if ("subscribe".equalsIgnoreCase(type)) {
+                String denial = topicAuthorizer.checkSubscribe(session, topic);
+                if (denial != null) {
+                    log.warn("Session [{}] of user [{}] denied subscription to topic [{}]: {}", session.getId(), session.getUserId(), topic, denial);
+                    registry.sendError(session, topic, denial);
+                    return Mono.empty();
+                }
+                List<String> eventTypes = parseEventTypes(command.get("eventTypes"));
+                log.info("Session [{}] subscribing to topic [{}]{}{}", session.getId(), topic,
+                        resumeFrom != null ? " resuming from seq " + resumeFrom : "",
+                        eventTypes.isEmpty() ? "" : " for event types " + eventTypes);
+                registry.subscribe(topic, session, resumeFrom, EventTypeFilter.of(eventTypes));
+            } else if ("unsubscribe".equalsIgnoreCase(type)) {
+                log.info("Session [{}] unsubscribing from topic [{}]", session.getId(), topic);
+                registry.removeSubscription(topic, session);
+            } else {
+                log.warn("Received unknown command type '{}' from session [{}]: {}", type, session.getId(), jsonPayload);
+            }
+        } catch (Exception e) {
+            // Catch other potential errors during processing
+            log.error("Error processing command from client [{}]: {}", session.getId(), jsonPayload, e);
+        }
+        return Mono.empty(); // Consume the message
+    }
+
+    private void applyEncoding(ClientSession session, String value) {
+        if (value == null) {
+            return;
+        }
+        FrameEncoding encoding = FrameEncoding.fromValue(value);
+        if (encoding == null) {
+            log.warn("Ignoring unsupported encoding [{}] requested by session [{}]", value, session.getId());
+            return;
+        }
+        if (session.isServerSentEvents() && encoding != FrameEncoding.JSON) {
+            log.warn("Ignoring encoding [{}] requested by SSE session [{}]: event streams are text only", value, session.getId());
+            return;
+        }
+        if (encoding != session.getEncoding()) {
+            log.info("Session [{}] switching frame encoding to {}", session.getId(), encoding);
+            session.setEncoding(encoding);
+        }
+    }
+
+    private static String text(Map<String, Object> command, String field) {
+        Object value = command.get(field);
+        return value == null ? null : value.toString();
+    }
+
+    private List<String> parseEventTypes(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        Stream<?> values = value instanceof Collection<?> collection
+                ? collection.stream()
+                : Arrays.stream(value.toString().split(","));
+        return values.filter(Objects::nonNull)
+                .map(v -> v.toString().trim())
+                .filter(v -> !v.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private Long parseResumeFrom(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid resumeFrom value: {}", value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.pm.websocketservice.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * A connected client together with its bounded outbound frame queue.
+ *
+ * All frames for a session go through {@link #offer(OutboundFrame)} so that
+ * replayed and live frames reach the socket in the order they were enqueued.
+ * The queue is drained by a single subscription set up by the transport: a
+ * WebSocket session sends {@link #outboundMessages()}, encoding each frame in
+ * the session's negotiated {@link FrameEncoding}, while a Server-Sent Events
+ * stream sends {@link #serverSentEvents()}. Both reuse the frame's cached
+ * serialization.
+ *
+ * Sequence numbers are shared by all topics, so gaps in {@code seq} are
+ * normal and say nothing about loss. When the queue is full the frame is
+ * dropped instead, and every subscription it belongs to is held back: its
+ * frames are dropped until the client re-subscribes, and an "overflow"
+ * {@link ControlFrame} carrying the sequence to resume from is queued as soon
+ * as there is room. Re-subscribing with that {@code resumeFrom} replays the
+ * gap from {@link TopicReplayBuffer}, without duplicates, since nothing was
+ * delivered on the subscription in between.
+ *
+ * Liveness is tracked as the time anything was last received from the
+ * client, pongs included; {@link IdleSessionReaper} pings and eventually
+ * closes WebSocket sessions that go quiet.
+ */
+@Slf4j
+public class ClientSession {
+
+    private final String id;
+    // Null for Server-Sent Events sessions
+    private final WebSocketSession session;
+    private volatile boolean closed;
+    private final Queue<OutboundFrame> queue;
+    private final Sinks.Many<OutboundFrame> outbound;
+    // Pings bypass the frame queue; at most one waits to be written
+    private final Sinks.Many<WebSocketMessage> pings = Sinks.many().unicast().onBackpressureBuffer(Queues.<WebSocketMessage>one().get());
+    private volatile long lastSeenMillis = System.currentTimeMillis();
+    // Topic patterns this session is subscribed to, so disconnect only touches its own trie nodes
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    // Subscriptions held back after a dropped frame, with the sequence to resume them from; guarded by this
+    private final Map<String, Long> overflowed = new HashMap<>();
+    // Overflow notices still waiting for room in the queue, by subscription; guarded by this
+    private final Map<String, OutboundFrame> overflowNotices = new LinkedHashMap<>();
+    private volatile FrameEncoding encoding = FrameEncoding.JSON;
+    // Identity forwarded by the gateway on the handshake; null when the connection did not come through it
+    private final String userId;
+    private final boolean admin;
+    private final WebSocketMetrics metrics;
+
+    public ClientSession(WebSocketSession session, int queueCapacity, String userId, boolean admin, WebSocketMetrics metrics) {
+        this(session.getId(), session, queueCapacity, userId, admin, metrics);
+    }
+
+    /**
+     * A session without a WebSocket behind it, delivered through
+     * {@link #serverSentEvents()}.
+     */
+    public ClientSession(String id, int queueCapacity, String userId, boolean admin, WebSocketMetrics metrics) {
+        this(id, null, queueCapacity, userId, admin, metrics);
+    }
+
+    private ClientSession(String id, WebSocketSession session, int queueCapacity, String userId, boolean admin,
+            WebSocketMetrics metrics) {
+        this.id = id;
+        this.session = session;
+        this.userId = userId;
+        this.admin = admin;
+        this.metrics = metrics;
+        this.queue = Queues.<OutboundFrame>get(queueCapacity).get();
+        this.outbound = Sinks.many().unicast().onBackpressureBuffer(queue);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    /**
+     * The underlying WebSocket session, or null for a Server-Sent Events
+     * session.
+     */
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    public boolean isServerSentEvents() {
+        return session == null;
+    }
+
+    public boolean isOpen() {
+        return !closed && (session == null || session.isOpen());
+    }
+
+    /**
+     * Records that the client showed signs of life: any inbound message or
+     * pong.
+     */
+    public void touch() {
+        touch(System.currentTimeMillis());
+    }
+
+    void touch(long nowMillis) {
+        lastSeenMillis = nowMillis;
+    }
+
+    public long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    public Set<String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    public FrameEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Switches the encoding used for frames written from now on, including
+     * frames already queued but not yet sent.
+     */
+    public void setEncoding(FrameEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Enqueues a frame for delivery. Synchronized because frames are offered
+     * from Kafka dispatch threads and the inbound message handler concurrently,
+     * while the underlying sink only accepts serialized emissions.
+     *
+     * @return false if the frame was dropped (queue full or session closed)
+     */
+    public synchronized boolean offer(OutboundFrame frame) {
+        Sinks.EmitResult result = emit(frame);
+        if (result.isFailure()) {
+            log.warn("Dropped outbound frame for session [{}]: {}", id, result);
+            return false;
+        }
+        metrics.recordQueueDepth(queue.size());
+        return true;
+    }
+
+    /**
+     * Enqueues several frames in one go, so the writer picks them up together
+     * and the transport flushes them as one write rather than one per frame.
+     *
+     * @return the number of frames accepted; the rest were dropped
+     */
+    public synchronized int offerAll(List<OutboundFrame> frames) {
+        int accepted = 0;
+        for (OutboundFrame frame : frames) {
+            if (emit(frame).isSuccess()) {
+                accepted++;
+            }
+        }
+        if (accepted < frames.size()) {
+            log.warn("Dropped {} of {} batched outbound frame(s) for session [{}]", frames.size() - accepted, frames.size(), id);
+        }
+        metrics.recordQueueDepth(queue.size());
+        return accepted;
+    }
+
+    /**
+     * Lifts the hold on a subscription after an overflow, once the client has
+     * re-subscribed (or unsubscribed). Called before the replay is queued.
+     */
+    public synchronized void resume(String pattern) {
+        overflowed.remove(pattern);
+        overflowNotices.remove(pattern);
+    }
+
+    // Sequence to resume a held-back subscription from, or null if it is not held back
+    synchronized Long overflowedFrom(String pattern) {
+        return overflowed.get(pattern);
+    }
+
+    private Sinks.EmitResult emit(OutboundFrame frame) {
+        queueOverflowNotices();
+        TopicFrame topicFrame = frame.value() instanceof TopicFrame value ? value : null;
+        Sinks.EmitResult result = topicFrame != null && isHeldBack(topicFrame.topic())
+                ? Sinks.EmitResult.FAIL_OVERFLOW
+                : outbound.tryEmitNext(frame);
+        if (result.isFailure()) {
+            metrics.recordSendFailure(result == Sinks.EmitResult.FAIL_OVERFLOW
+                    ? WebSocketMetrics.FAILURE_QUEUE_FULL : WebSocketMetrics.FAILURE_CLOSED);
+            // A full queue that nothing drains yet reports no subscriber rather than an overflow
+            if (topicFrame != null && (result == Sinks.EmitResult.FAIL_OVERFLOW || result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER)) {
+                holdBack(frame, topicFrame);
+            }
+        }
+        return result;
+    }
+
+    private boolean isHeldBack(String topic) {
+        for (String pattern : overflowed.keySet()) {
+            if (Topics.matches(pattern, topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Holds back every subscription the dropped frame belongs to; the client has everything on them before it
+    private void holdBack(OutboundFrame frame, TopicFrame topicFrame) {
+        long resumeFrom = topicFrame.seq() - 1;
+        for (String pattern : subscriptions) {
+            if (Topics.matches(pattern, topicFrame.topic()) && !overflowed.containsKey(pattern)) {
+                overflowed.put(pattern, resumeFrom);
+                overflowNotices.put(pattern, frame.derive(new ControlFrame(ControlFrame.OVERFLOW, pattern, resumeFrom, null)));
+                log.info("Session [{}] fell behind on [{}]; holding it back until it resumes from seq {}", id, pattern, resumeFrom);
+            }
+        }
+    }
+
+    private void queueOverflowNotices() {
+        Iterator<OutboundFrame> notices = overflowNotices.values().iterator();
+        while (notices.hasNext() && outbound.tryEmitNext(notices.next()).isSuccess()) {
+            notices.remove();
+        }
+    }
+
+    /**
+     * Sends a WebSocket ping; the client's pong (browsers answer on their
+     * own) {@link #touch() touches} the session. Not available for
+     * Server-Sent Events sessions, which cannot answer.
+     *
+     * @return false if no ping was queued
+     */
+    public synchronized boolean ping() {
+        if (session == null || !isOpen()) {
+            return false;
+        }
+        return pings.tryEmitNext(session.pingMessage(factory -> factory.wrap(new byte[0]))).isSuccess();
+    }
+
+    /**
+     * Outbound WebSocket messages for this session, to be passed to
+     * {@link WebSocketSession#send}. Frames that fail to encode are logged and
+     * skipped rather than terminating the session.
+     */
+    public Flux<WebSocketMessage> outboundMessages() {
+        Flux<WebSocketMessage> frames = outbound.asFlux().handle((frame, sink) -> {
+            try {
+                FrameEncoding current = encoding;
+                if (current == FrameEncoding.JSON) {
+                    sink.next(session.textMessage(frame.text()));
+                } else {
+                    byte[] bytes = frame.binary(current);
+                    sink.next(session.binaryMessage(factory -> factory.wrap(bytes)));
+                }
+                metrics.recordDelivery(frame, current);
+            } catch (Exception e) {
+                metrics.recordSendFailure(WebSocketMetrics.FAILURE_ENCODE);
+                log.error("Failed to encode outbound frame for session [{}] as {}: {}", id, encoding, e.getMessage(), e);
+            }
+        });
+        return Flux.merge(frames, pings.asFlux());
+    }
+
+    /**
+     * Outbound frames as Server-Sent Events. SSE is a text protocol, so the
+     * shared JSON form is sent whatever encoding the client asked for. Event
+     * frames carry their {@code seq} as the event id, which the browser sends
+     * back as {@code Last-Event-ID} when it reconnects.
+     */
+    public Flux<ServerSentEvent<String>> serverSentEvents() {
+        return outbound.asFlux().handle((frame, sink) -> {
+            try {
+                ServerSentEvent.Builder<String> event = ServerSentEvent.builder(frame.text());
+                if (frame.value() instanceof TopicFrame topicFrame) {
+                    event.id(Long.toString(topicFrame.seq()));
+                }
+                sink.next(event.build());
+                metrics.recordDelivery(frame, FrameEncoding.JSON);
+            } catch (Exception e) {
+                metrics.recordSendFailure(WebSocketMetrics.FAILURE_ENCODE);
+                log.error("Failed to encode outbound frame for SSE session [{}]: {}", id, e.getMessage(), e);
+            }
+        });
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public synchronized void complete() {
+        closed = true;
+        outbound.tryEmitComplete();
+        pings.tryEmitComplete();
+    }
+
+    /**
+     * Closes the connection from the server side: the WebSocket gets a close
+     * frame with the given status, an event stream simply ends.
+     */
+    public void close(CloseStatus status) {
+        complete();
+        if (session != null) {
+            session.close(status)
+                    .doOnError(e -> log.debug("Failed to close session [{}]: {}", id, e.getMessage()))
+                    .onErrorResume(e -> Mono.empty())
+                    .subscribe();
+        }
+    }
+}
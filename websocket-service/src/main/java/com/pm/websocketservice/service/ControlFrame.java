@@ -0,0 +1,41 @@
+package com.pm.websocketservice.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Server-to-client control message (subscription acknowledgements, resync
+ * and overflow notices, denials). Distinguished from event frames by its {@code type}
+ * field.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ControlFrame(
+        String type,
+        String topic,
+        Long seq,
+        Integer replayed,
+        String reason
+) {
+
+    public ControlFrame(String type, String topic, Long seq, Integer replayed) {
+        this(type, topic, seq, replayed, null);
+    }
+
+    public static ControlFrame error(String topic, String reason) {
+        return new ControlFrame(ERROR, topic, null, null, reason);
+    }
+
+    public static final String SUBSCRIBED = "subscribed";
+    // The requested resume point has been evicted: reload the topic over REST, then resume from seq
+    public static final String RESYNC = "resync";
+    // Frames on topic were dropped because the client fell behind: nothing more arrives on it until the
+    // client re-subscribes with resumeFrom = seq, which replays the gap
+    public static final String OVERFLOW = "overflow";
+    // The command was refused; reason is one of the constants below
+    public static final String ERROR = "error";
+
+    public static final String UNAUTHENTICATED = "unauthenticated";
+    public static final String FORBIDDEN = "forbidden";
+    public static final String INVALID_TOPIC = "invalid-topic";
+    // A previously granted subscription was dropped after a membership change
+    public static final String REVOKED = "revoked";
+}
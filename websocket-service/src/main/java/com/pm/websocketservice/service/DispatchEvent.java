@@ -0,0 +1,21 @@
+package com.pm.websocketservice.service;
+
+import java.util.Set;
+
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+/**
+ * An envelope on its way to a topic, together with the users whose sessions
+ * should not receive it: the originator of the change and anyone on the
+ * event's opt-out list.
+ */
+public record DispatchEvent(EventEnvelope<?> envelope, Set<String> excludedUserIds) {
+
+    public DispatchEvent {
+        excludedUserIds = excludedUserIds == null ? Set.of() : Set.copyOf(excludedUserIds);
+    }
+
+    public static DispatchEvent of(EventEnvelope<?> envelope) {
+        return new DispatchEvent(envelope, Set.of());
+    }
+}
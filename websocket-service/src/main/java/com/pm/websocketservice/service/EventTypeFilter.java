@@ -0,0 +1,94 @@
+package com.pm.websocketservice.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event types a subscription accepts, precomputed as a bitset so the check
+ * per event and session is a single bit test.
+ *
+ * Event type names are interned to bit positions on first sight, whether
+ * they come from a published envelope or a client's allowlist. Interning is
+ * capped so clients cannot grow the table without bound; names beyond the
+ * cap are ignored in allowlists, and events carrying them only reach
+ * unfiltered subscriptions.
+ */
+public final class EventTypeFilter {
+
+    public static final EventTypeFilter ALL = new EventTypeFilter(null);
+
+    static final int MAX_EVENT_TYPES = 1024;
+    private static final Map<String, Integer> INDEX = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    // null accepts every event type
+    private final BitSet allowed;
+
+    private EventTypeFilter(BitSet allowed) {
+        this.allowed = allowed;
+    }
+
+    /**
+     * Filter for an allowlist from a subscribe command; a null or empty list
+     * means no filtering.
+     */
+    public static EventTypeFilter of(Collection<String> eventTypes) {
+        if (eventTypes == null || eventTypes.isEmpty()) {
+            return ALL;
+        }
+        BitSet allowed = new BitSet();
+        for (String eventType : eventTypes) {
+            int index = indexOf(eventType);
+            if (index >= 0) {
+                allowed.set(index);
+            }
+        }
+        return new EventTypeFilter(allowed);
+    }
+
+    /**
+     * Bit position of an event type, or -1 if it is blank or the table is
+     * full.
+     */
+    public static int indexOf(String eventType) {
+        if (eventType == null || eventType.isBlank()) {
+            return -1;
+        }
+        Integer index = INDEX.get(eventType);
+        if (index != null) {
+            return index;
+        }
+        if (INDEX.size() >= MAX_EVENT_TYPES) {
+            return -1;
+        }
+        return INDEX.computeIfAbsent(eventType, k -> NEXT_INDEX.getAndIncrement());
+    }
+
+    public boolean accepts(int eventTypeIndex) {
+        return allowed == null || (eventTypeIndex >= 0 && allowed.get(eventTypeIndex));
+    }
+
+    public boolean accepts(String eventType) {
+        return allowed == null || accepts(indexOf(eventType));
+    }
+
+    public boolean isAll() {
+        return allowed == null;
+    }
+
+    /**
+     * Filter accepting what either filter accepts, for a session that
+     * matches a topic through several subscriptions.
+     */
+    public EventTypeFilter union(EventTypeFilter other) {
+        if (allowed == null || other.allowed == null) {
+            return ALL;
+        }
+        BitSet merged = (BitSet) allowed.clone();
+        merged.or(other.allowed);
+        return new EventTypeFilter(merged);
+    }
+}
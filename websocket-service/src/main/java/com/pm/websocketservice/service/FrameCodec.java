@@ -0,0 +1,74 @@
+package com.pm.websocketservice.service;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+/**
+ * Serializes outbound frames in each supported {@link FrameEncoding}. The
+ * JSON mapper is the application's ObjectMapper so text frames are unchanged;
+ * the binary mappers drop the {@code @class} type id from envelope payloads,
+ * which browsers never need.
+ */
+@Component
+public class FrameCodec {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public FrameCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = binaryMapper(new CBORMapper());
+        this.smileMapper = binaryMapper(new SmileMapper());
+    }
+
+    public OutboundFrame frame(Object value) {
+        return new OutboundFrame(value, this, Set.of());
+    }
+
+    /**
+     * A frame that sessions of the given users must not receive, live or
+     * replayed.
+     */
+    public OutboundFrame frame(Object value, Set<String> excludedUserIds) {
+        return new OutboundFrame(value, this, excludedUserIds);
+    }
+
+    public String encodeText(Object value) throws JsonProcessingException {
+        return jsonMapper.writeValueAsString(value);
+    }
+
+    public byte[] encodeBinary(Object value, FrameEncoding encoding) throws JsonProcessingException {
+        return switch (encoding) {
+            case CBOR -> cborMapper.writeValueAsBytes(value);
+            case SMILE -> smileMapper.writeValueAsBytes(value);
+            case JSON -> throw new IllegalArgumentException("JSON frames are sent as text");
+        };
+    }
+
+    private static ObjectMapper binaryMapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                // Keep ISO-8601 timestamps so clients handle both encodings the same way
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .addMixIn(EventEnvelope.class, UntypedPayloadMixin.class);
+    }
+
+    /**
+     * Overrides the {@code @JsonTypeInfo} on {@link EventEnvelope#payload()}.
+     */
+    abstract static class UntypedPayloadMixin {
+
+        @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+        abstract Object payload();
+    }
+}
@@ -0,0 +1,27 @@
+package com.pm.websocketservice.service;
+
+/**
+ * Wire encoding negotiated per session. JSON frames are sent as text
+ * messages exactly as before; CBOR and Smile frames are sent as binary
+ * messages and omit the {@code @class} payload type names.
+ */
+public enum FrameEncoding {
+    JSON,
+    CBOR,
+    SMILE;
+
+    /**
+     * @return the matching encoding, or null if the value is missing or unknown
+     */
+    public static FrameEncoding fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (FrameEncoding encoding : values()) {
+            if (encoding.name().equalsIgnoreCase(value.trim())) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.pm.websocketservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Pings quiet WebSocket sessions and closes the ones that stop answering, so
+ * dead connections leave the subscription trie in {@code timeout} rather
+ * than whenever the TCP stack notices.
+ *
+ * Sessions sit in a timing wheel: one slot per {@code tick}, enough slots to
+ * cover {@code timeout}, and a single timer advancing one slot per tick.
+ * Inbound traffic only updates the session's last-seen time; the wheel is
+ * not touched until the session's slot comes round. It is then checked once:
+ * rescheduled if it was heard from recently, pinged if it has been quiet for
+ * {@code ping-after}, and closed if nothing, not even a pong, arrived within
+ * {@code timeout}. A session therefore costs one check per
+ * {@code ping-after} however much traffic it carries, and there is no timer
+ * per session.
+ *
+ * Server-Sent Events sessions cannot answer pings and are not tracked; a dead
+ * stream fails on its next keep-alive write instead.
+ */
+@Slf4j
+@Component
+public class IdleSessionReaper {
+
+    static final CloseStatus IDLE_STATUS = CloseStatus.GOING_AWAY.withReason("idle-timeout");
+
+    private final SubscriptionRegistry registry;
+    private final long tickMillis;
+    private final long pingAfterMillis;
+    private final long timeoutMillis;
+    // Slot i holds the sessions due for a check when the cursor reaches i; guarded by this
+    private final List<Set<ClientSession>> wheel;
+    private int cursor;
+    private Disposable ticker;
+
+    public IdleSessionReaper(SubscriptionRegistry registry,
+            @Value("${websocket.heartbeat.tick:1s}") Duration tick,
+            @Value("${websocket.heartbeat.ping-after:25s}") Duration pingAfter,
+            @Value("${websocket.heartbeat.timeout:60s}") Duration timeout) {
+        if (pingAfter.compareTo(timeout) >= 0) {
+            throw new IllegalArgumentException("websocket.heartbeat.ping-after must be shorter than websocket.heartbeat.timeout");
+        }
+        this.registry = registry;
+        this.tickMillis = tick.toMillis();
+        this.pingAfterMillis = pingAfter.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+        int slots = (int) ceilDiv(timeoutMillis, tickMillis) + 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("Starting idle session reaper: ping after {} ms quiet, close after {} ms, {} slots of {} ms",
+                pingAfterMillis, timeoutMillis, wheel.size(), tickMillis);
+        ticker = Flux.interval(Duration.ofMillis(tickMillis))
+                .doOnNext(tick -> tick(System.currentTimeMillis()))
+                .onErrorContinue((err, obj) -> log.error("Error checking idle sessions", err))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    /**
+     * Starts watching a newly connected WebSocket session.
+     */
+    public void track(ClientSession client) {
+        if (client.isServerSentEvents()) {
+            return;
+        }
+        schedule(client, pingAfterMillis);
+    }
+
+    /**
+     * Advances the wheel one slot and checks the sessions that fall due.
+     */
+    void tick(long now) {
+        List<ClientSession> due;
+        synchronized (this) {
+            cursor = (cursor + 1) % wheel.size();
+            Set<ClientSession> slot = wheel.get(cursor);
+            due = new ArrayList<>(slot);
+            slot.clear();
+        }
+        for (ClientSession client : due) {
+            check(client, now);
+        }
+    }
+
+    private void check(ClientSession client, long now) {
+        // Closed sessions are unregistered by their handler; just let them fall off the wheel
+        if (!client.isOpen()) {
+            return;
+        }
+        long quiet = now - client.getLastSeenMillis();
+        if (quiet >= timeoutMillis) {
+            log.info("Closing session [{}] (user {}): nothing received for {} ms", client.getId(), client.getUserId(), quiet);
+            registry.evict(client, IDLE_STATUS, WebSocketMetrics.REAPED_IDLE);
+        } else if (quiet >= pingAfterMillis) {
+            client.ping();
+            schedule(client, timeoutMillis - quiet);
+        } else {
+            schedule(client, pingAfterMillis - quiet);
+        }
+    }
+
+    private synchronized void schedule(ClientSession client, long delayMillis) {
+        long ticks = Math.min(wheel.size() - 1, Math.max(1, ceilDiv(delayMillis, tickMillis)));
+        wheel.get((int) ((cursor + ticks) % wheel.size())).add(client);
+    }
+
+    int trackedSessions() {
+        synchronized (this) {
+            return wheel.stream().mapToInt(Set::size).sum();
+        }
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
@@ -0,0 +1,143 @@
+package com.pm.websocketservice.service;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.project.ProjectCreatedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectDeletedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberAddedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectMemberRemovedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectPriorityChangedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectStatusChangedEventPayload;
+import com.pm.commoncontracts.events.project.ProjectUpdatedEventPayload;
+import com.pm.commoncontracts.events.project.UserRemovedFromProjectsEventPayload;
+import com.pm.commoncontracts.events.task.TaskAssignedEventPayload;
+import com.pm.commoncontracts.events.task.TaskCreatedEventPayload;
+import com.pm.commoncontracts.events.task.TaskDeletedEventPayload;
+import com.pm.commoncontracts.events.task.TaskPriorityChangedEventPayload;
+import com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload;
+import com.pm.commoncontracts.events.task.TaskUpdatedEventPayload;
+import com.pm.commoncontracts.events.user.UserDeletedEventPayload;
+import com.pm.websocketservice.security.ProjectMembershipCache;
+import com.pm.websocketservice.security.TopicAuthorizer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Feeds the {@link ProjectMembershipCache} from project, task and user events
+ * and drops live subscriptions that a membership change no longer allows.
+ *
+ * Offsets are never committed: every instance replays the topics from the
+ * start on boot (see {@code membershipReceiverOptions}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MembershipEventConsumer {
+
+    private final ReceiverOptions<String, EventEnvelope<?>> membershipReceiverOptions;
+    private final ProjectMembershipCache membershipCache;
+    private final TopicAuthorizer topicAuthorizer;
+    private final SubscriptionRegistry registry;
+    private Disposable subscription;
+
+    @PostConstruct
+    public void start() {
+        log.info("Starting membership cache consumer for topics {}", membershipReceiverOptions.subscriptionTopics());
+        subscription = KafkaReceiver.create(membershipReceiverOptions)
+                .receive()
+                .doOnNext(this::processRecord)
+                .onErrorContinue((err, obj) -> log.error("Error processing membership record, skipping. Record: {}", obj, err))
+                .subscribe();
+    }
+
+    private void processRecord(ReceiverRecord<String, EventEnvelope<?>> record) {
+        EventEnvelope<?> envelope = record.value();
+        if (envelope == null) {
+            return;
+        }
+        Object payload = envelope.payload();
+
+        if (payload instanceof ProjectCreatedEventPayload p) {
+            applyProject(p.projectDto());
+        } else if (payload instanceof ProjectUpdatedEventPayload p) {
+            applyProject(p.projectDto());
+        } else if (payload instanceof ProjectStatusChangedEventPayload p) {
+            applyProject(p.projectDto());
+        } else if (payload instanceof ProjectPriorityChangedEventPayload p) {
+            applyProject(p.projectDto());
+        } else if (payload instanceof ProjectMemberAddedEventPayload p) {
+            membershipCache.addMember(p.projectId(), p.userId());
+        } else if (payload instanceof ProjectMemberRemovedEventPayload p) {
+            if (membershipCache.removeMember(p.projectId(), p.userId())) {
+                revoke(Set.of(p.userId()));
+            }
+        } else if (payload instanceof UserRemovedFromProjectsEventPayload p) {
+            applyUserRemoval(p);
+        } else if (payload instanceof ProjectDeletedEventPayload p && p.projectDto() != null) {
+            revoke(membershipCache.removeProject(p.projectDto().getId()));
+        } else if (payload instanceof TaskCreatedEventPayload p) {
+            applyTask(p.taskDto());
+        } else if (payload instanceof TaskUpdatedEventPayload p) {
+            applyTask(p.taskDto());
+        } else if (payload instanceof TaskStatusChangedEventPayload p) {
+            applyTask(p.taskDto());
+        } else if (payload instanceof TaskAssignedEventPayload p) {
+            applyTask(p.taskDto());
+        } else if (payload instanceof TaskPriorityChangedEventPayload p) {
+            applyTask(p.dto());
+        } else if (payload instanceof TaskDeletedEventPayload p && p.taskDto() != null) {
+            membershipCache.removeTask(p.taskDto().getId());
+        } else if (payload instanceof UserDeletedEventPayload p && p.userDto() != null) {
+            String userId = p.userDto().getId();
+            membershipCache.removeUser(userId);
+            revoke(Set.of(userId));
+        }
+    }
+
+    private void applyProject(ProjectDto project) {
+        revoke(membershipCache.putProject(project));
+    }
+
+    private void applyUserRemoval(UserRemovedFromProjectsEventPayload removal) {
+        if (removal.newOwnerIds() != null) {
+            removal.newOwnerIds().forEach((projectId, newOwnerId) ->
+                    membershipCache.transferOwnership(projectId, removal.userId(), newOwnerId));
+        }
+        if (removal.projectIds() != null) {
+            removal.projectIds().forEach(projectId -> membershipCache.removeMember(projectId, removal.userId()));
+        }
+        revoke(Set.of(removal.userId()));
+    }
+
+    private void applyTask(TaskDto task) {
+        if (task != null) {
+            membershipCache.putTask(task.getId(), task.getProjectId());
+        }
+    }
+
+    private void revoke(Set<String> userIds) {
+        if (!userIds.isEmpty()) {
+            registry.revokeSubscriptions(userIds, topicAuthorizer::canSubscribe);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        log.info("Stopping membership cache consumer");
+        if (subscription != null && !subscription.isDisposed()) {
+            subscription.dispose();
+        }
+    }
+}
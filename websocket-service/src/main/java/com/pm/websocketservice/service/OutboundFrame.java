@@ -0,0 +1,104 @@
+package com.pm.websocketservice.service;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * A frame queued for delivery, serialized at most once per encoding no
+ * matter how many sessions (or replays) it goes to. Encodings are produced on
+ * first use; concurrent first uses may encode twice, which is harmless.
+ */
+public final class OutboundFrame {
+
+    private final Object value;
+    private final FrameCodec codec;
+    // Set on replayed copies, which share the original's encodings
+    private final OutboundFrame original;
+    // Users whose sessions skip this frame, typically the one whose change produced it
+    private final Set<String> excludedUserIds;
+    private volatile String text;
+    private volatile byte[] cbor;
+    private volatile byte[] smile;
+
+    OutboundFrame(Object value, FrameCodec codec, Set<String> excludedUserIds) {
+        this.value = value;
+        this.codec = codec;
+        this.original = null;
+        this.excludedUserIds = excludedUserIds;
+    }
+
+    private OutboundFrame(OutboundFrame original) {
+        this.value = original.value;
+        this.codec = original.codec;
+        this.original = original;
+        this.excludedUserIds = original.excludedUserIds;
+    }
+
+    /**
+     * The same frame marked as replayed from history rather than delivered
+     * live, so delivery metrics can tell the two apart.
+     */
+    public OutboundFrame asReplay() {
+        return original != null ? this : new OutboundFrame(this);
+    }
+
+    public boolean isReplay() {
+        return original != null;
+    }
+
+    /**
+     * A frame for another value, encoded by the same codec, such as a
+     * control message a session sends about this frame.
+     */
+    OutboundFrame derive(Object value) {
+        return new OutboundFrame(value, codec, Set.of());
+    }
+
+    /**
+     * Whether a session of this user should skip the frame. Sessions without
+     * a gateway identity are never suppressed.
+     */
+    public boolean isSuppressedFor(String userId) {
+        return userId != null && excludedUserIds.contains(userId);
+    }
+
+    public Object value() {
+        return value;
+    }
+
+    public String text() throws JsonProcessingException {
+        if (original != null) {
+            return original.text();
+        }
+        String result = text;
+        if (result == null) {
+            result = codec.encodeText(value);
+            text = result;
+        }
+        return result;
+    }
+
+    public byte[] binary(FrameEncoding encoding) throws JsonProcessingException {
+        if (original != null) {
+            return original.binary(encoding);
+        }
+        if (encoding == FrameEncoding.CBOR) {
+            byte[] result = cbor;
+            if (result == null) {
+                result = codec.encodeBinary(value, encoding);
+                cbor = result;
+            }
+            return result;
+        }
+        if (encoding == FrameEncoding.SMILE) {
+            byte[] result = smile;
+            if (result == null) {
+                result = codec.encodeBinary(value, encoding);
+                smile = result;
+            }
+            return result;
+        }
+        return codec.encodeBinary(value, encoding);
+    }
+}
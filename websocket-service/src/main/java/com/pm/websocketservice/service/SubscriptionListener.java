@@ -0,0 +1,14 @@
+package com.pm.websocketservice.service;
+
+/**
+ * Notified by {@link SubscriptionRegistry} when a session gains or loses a
+ * subscription, including the removals done on disconnect and revocation.
+ * Called on the thread making the change, possibly under a topic lock, so
+ * implementations must be quick and must not call back into the registry.
+ */
+public interface SubscriptionListener {
+
+    void onSubscribed(String pattern, ClientSession client);
+
+    void onUnsubscribed(String pattern, ClientSession client);
+}
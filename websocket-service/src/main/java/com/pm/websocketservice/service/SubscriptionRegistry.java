@@ -1,109 +1,298 @@
 package com.pm.websocketservice.service;
 
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiPredicate;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketSession;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pm.commoncontracts.envelope.EventEnvelope;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SubscriptionRegistry {
 
-    // Unified topic-based subscriptions: topic -> Set of active WebSocketSessions
-    private final Map<String, Set<WebSocketSession>> topicSubscriptions = new ConcurrentHashMap<>();
-    private final ObjectMapper objectMapper; // Inject ObjectMapper for serialization
+    static final CloseStatus SESSION_LIMIT_STATUS = CloseStatus.POLICY_VIOLATION.withReason("session-limit");
 
-    // Generic subscription management
-    public void addSubscription(String topic, WebSocketSession session) {
-        topicSubscriptions.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(session);
-        log.debug("Session [{}] subscribed to topic [{}]", session.getId(), topic);
+    // Topic pattern subscriptions, indexed by topic level for O(depth) lookup on publish
+    private final TopicTrie topicSubscriptions = new TopicTrie();
+    // All connected client sessions by WebSocket session id
+    private final Map<String, ClientSession> sessions = new ConcurrentHashMap<>();
+    // Each user's sessions, oldest first; a deque is guarded by itself
+    private final Map<String, Deque<ClientSession>> userSessions = new ConcurrentHashMap<>();
+    private final FrameCodec frameCodec; // Serializes frames once per encoding
+    private final TopicReplayBuffer replayBuffer;
+    private final int outboundQueueCapacity;
+    private final int maxSessionsPerUser;
+    private final WebSocketMetrics metrics;
+    private final List<SubscriptionListener> listeners = new CopyOnWriteArrayList<>();
+
+    public SubscriptionRegistry(FrameCodec frameCodec,
+            TopicReplayBuffer replayBuffer,
+            WebSocketMetrics metrics,
+            @Value("${websocket.session.outbound-queue-capacity:256}") int outboundQueueCapacity,
+            @Value("${websocket.session.max-per-user:0}") int maxSessionsPerUser) {
+        this.frameCodec = frameCodec;
+        this.replayBuffer = replayBuffer;
+        this.metrics = metrics;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.maxSessionsPerUser = maxSessionsPerUser;
     }
 
-    public void removeSubscription(String topic, WebSocketSession session) {
-        topicSubscriptions.computeIfPresent(topic, (k, sessions) -> {
-            sessions.remove(session);
-            log.debug("Session [{}] explicitly unsubscribed from topic [{}]", session.getId(), topic);
-            return sessions.isEmpty() ? null : sessions; // Clean up empty sets
-        });
+    public void addListener(SubscriptionListener listener) {
+        listeners.add(listener);
     }
 
-    // Remove session from all subscriptions (on disconnect)
-    public void removeSessionFromAll(WebSocketSession session) {
-        String sessionId = session.getId();
-        topicSubscriptions.forEach((topic, sessions) -> {
-            if (sessions.remove(session)) {
-                log.debug("Removed closed session [{}] from topic [{}]", sessionId, topic);
+    // Session lifecycle
+    public ClientSession register(WebSocketSession session) {
+        // Identity is taken from the headers the gateway adds after validating the JWT, never from client messages
+        HttpHeaders headers = session.getHandshakeInfo().getHeaders();
+        return register(new ClientSession(session, outboundQueueCapacity, userId(headers), isAdmin(headers), metrics));
+    }
+
+    /**
+     * Registers a Server-Sent Events session, the fallback for clients whose
+     * network blocks WebSocket upgrades. It shares subscriptions, queueing
+     * and serialization with WebSocket sessions, so one broadcast serves both.
+     */
+    public ClientSession registerEventStream(HttpHeaders headers) {
+        String id = "sse-" + UUID.randomUUID();
+        return register(new ClientSession(id, outboundQueueCapacity, userId(headers), isAdmin(headers), metrics));
+    }
+
+    private ClientSession register(ClientSession client) {
+        sessions.put(client.getId(), client);
+        metrics.sessionOpened();
+        ClientSession evicted = addUserSession(client);
+        if (evicted != null) {
+            log.info("User [{}] exceeded {} session(s); closing their oldest session [{}]",
+                    client.getUserId(), maxSessionsPerUser, evicted.getId());
+            evict(evicted, SESSION_LIMIT_STATUS, WebSocketMetrics.REAPED_SESSION_LIMIT);
+        }
+        return client;
+    }
+
+    /**
+     * Tracks the session under its user and, if that takes the user over
+     * {@code websocket.session.max-per-user} (0 = unlimited), returns the
+     * user's oldest session for eviction. Forgotten tabs and leaked
+     * reconnects would otherwise each add to every broadcast's fan-out.
+     */
+    private ClientSession addUserSession(ClientSession client) {
+        if (client.getUserId() == null) {
+            return null;
+        }
+        Deque<ClientSession> own = userSessions.computeIfAbsent(client.getUserId(), k -> new ArrayDeque<>());
+        synchronized (own) {
+            own.addLast(client);
+            return maxSessionsPerUser > 0 && own.size() > maxSessionsPerUser ? own.pollFirst() : null;
+        }
+    }
+
+    private void removeUserSession(ClientSession client) {
+        if (client.getUserId() == null) {
+            return;
+        }
+        Deque<ClientSession> own = userSessions.get(client.getUserId());
+        if (own != null) {
+            synchronized (own) {
+                own.remove(client);
+                if (own.isEmpty()) {
+                    userSessions.remove(client.getUserId(), own);
+                }
             }
-        });
-        // Clean up map entries where the set became empty
-        topicSubscriptions.entrySet().removeIf(entry -> entry.getValue().isEmpty());
-        log.info("Session [{}] removed from all subscriptions.", sessionId);
+        }
     }
 
-    // Unified send method - the core of the new design
-    public Mono<Void> sendToTopic(String topic, EventEnvelope<?> envelope) {
-        return sendToTopic(topic, envelope, null);
+    /**
+     * Closes a session from the server side and drops it straight away, so
+     * broadcasts stop paying for it before the transport notices the close.
+     */
+    public void evict(ClientSession client, CloseStatus status, String reason) {
+        unregister(client);
+        client.close(status);
+        metrics.recordSessionReaped(reason);
     }
 
-    // Overloaded send method with exclusion capability
-    public Mono<Void> sendToTopic(String topic, EventEnvelope<?> envelope, String excludeUserId) {
-        Set<WebSocketSession> sessions = topicSubscriptions.getOrDefault(topic, Collections.emptySet());
+    public int userSessionCount(String userId) {
+        Deque<ClientSession> own = userSessions.get(userId);
+        if (own == null) {
+            return 0;
+        }
+        synchronized (own) {
+            return own.size();
+        }
+    }
 
-        if (sessions.isEmpty()) {
-            log.debug("No active subscribers found for topic [{}]. Skipping send.", topic);
-            return Mono.empty(); // No one to send to
+    public ClientSession findSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    private static String userId(HttpHeaders headers) {
+        return headers.getFirst("X-User-Id");
+    }
+
+    private static boolean isAdmin(HttpHeaders headers) {
+        return "ROLE_ADMIN".equals(headers.getFirst("X-User-Role"));
+    }
+
+    public void unregister(ClientSession client) {
+        removeSessionFromAll(client);
+        removeUserSession(client);
+        if (sessions.remove(client.getId()) != null) {
+            metrics.sessionClosed();
         }
+        client.complete();
+    }
 
-        // If we're excluding a user and this is a user topic for that user, skip entirely
-        if (excludeUserId != null && topic.equals("user:" + excludeUserId)) {
-            log.debug("Skipping send to topic [{}] because it belongs to excluded user [{}]", topic, excludeUserId);
-            return Mono.empty();
+    // Generic subscription management
+    public void addSubscription(String topic, ClientSession client) {
+        addSubscription(topic, client, EventTypeFilter.ALL);
+    }
+
+    public void addSubscription(String topic, ClientSession client, EventTypeFilter filter) {
+        if (topicSubscriptions.add(topic, client, filter)) {
+            client.getSubscriptions().add(topic);
+            listeners.forEach(listener -> listener.onSubscribed(topic, client));
         }
+        log.debug("Session [{}] subscribed to topic [{}]", client.getId(), topic);
+    }
 
-        log.debug("Attempting to send event type [{}] for topic [{}] to {} session(s). CorrID: {}{}",
-                envelope.eventType(), topic, sessions.size(), envelope.correlationId(),
-                excludeUserId != null ? " (excluding user: " + excludeUserId + ")" : "");
+    /**
+     * Subscribes a session to a topic pattern (see {@link Topics}) and, when
+     * {@code resumeFrom} is given, replays the frames it missed on matching
+     * topics. Registration and replay happen under the root topic's ring
+     * lock, the same lock broadcasts hold while enqueueing, so replayed frames
+     * are always queued ahead of any newer live frame and none are duplicated.
+     * The client receives a "subscribed" acknowledgement carrying the sequence
+     * to resume from next time, or a "resync" frame if the gap was evicted.
+     */
+    public void subscribe(String topic, ClientSession client, Long resumeFrom) {
+        subscribe(topic, client, resumeFrom, EventTypeFilter.ALL);
+    }
 
-        try {
-            // Serialize the entire envelope once
-            String jsonPayload = objectMapper.writeValueAsString(envelope);
-
-            // Create a list of send Monos for concurrent execution
-            List<Mono<Void>> sendMonos = sessions.stream()
-                    .filter(WebSocketSession::isOpen) // Send only to open sessions
-                    .map(session -> {
-                        WebSocketMessage wsMessage = session.textMessage(jsonPayload);
-                        log.trace("Sending message to session [{}] for topic [{}]: {}", session.getId(), topic, jsonPayload);
-                        return session.send(Mono.just(wsMessage))
-                                .doOnError(e -> log.warn("Failed to send message to session [{}] for topic [{}]: {}", session.getId(), topic, e.getMessage()))
-                                .onErrorResume(e -> Mono.empty()); // Continue even if one send fails
-                    })
+    /**
+     * As {@link #subscribe(String, ClientSession, Long)}, delivering (and
+     * replaying) only the event types the filter accepts. Subscribing again
+     * to the same pattern replaces its filter.
+     */
+    public void subscribe(String topic, ClientSession client, Long resumeFrom, EventTypeFilter filter) {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(Topics.root(topic));
+        synchronized (ring) {
+            addSubscription(topic, client, filter);
+            // Re-subscribing is how a client recovers from an overflow notice
+            client.resume(topic);
+            long head = ring.lastSequence();
+            if (resumeFrom == null) {
+                sendControl(client, new ControlFrame(ControlFrame.SUBSCRIBED, topic, head, null));
+                return;
+            }
+            List<OutboundFrame> buffered = ring.framesAfter(resumeFrom, topic);
+            if (buffered == null) {
+                log.info("Session [{}] cannot resume topic [{}] from seq {}: gap evicted", client.getId(), topic, resumeFrom);
+                sendControl(client, new ControlFrame(ControlFrame.RESYNC, topic, head, null));
+                return;
+            }
+            List<OutboundFrame> missed = buffered.stream()
+                    .filter(frame -> !frame.isSuppressedFor(client.getUserId()))
+                    .filter(frame -> filter.isAll()
+                            || (frame.value() instanceof TopicFrame topicFrame && filter.accepts(topicFrame.envelope().eventType())))
                     .toList();
+            missed.forEach(frame -> client.offer(frame.asReplay()));
+            log.debug("Replayed {} frame(s) on topic [{}] to session [{}] from seq {}", missed.size(), topic, client.getId(), resumeFrom);
+            sendControl(client, new ControlFrame(ControlFrame.SUBSCRIBED, topic, head, missed.size()));
+        }
+    }
+
+    public void removeSubscription(String topic, ClientSession client) {
+        if (topicSubscriptions.remove(topic, client)) {
+            client.getSubscriptions().remove(topic);
+            client.resume(topic);
+            listeners.forEach(listener -> listener.onUnsubscribed(topic, client));
+            log.debug("Session [{}] explicitly unsubscribed from topic [{}]", client.getId(), topic);
+        }
+    }
 
-            if (sendMonos.isEmpty()) {
-                log.debug("No open sessions found for topic [{}] among subscribers.", topic);
-                return Mono.empty();
+    // Remove session from all subscriptions (on disconnect)
+    public void removeSessionFromAll(ClientSession client) {
+        String sessionId = client.getId();
+        for (String topic : client.getSubscriptions()) {
+            if (topicSubscriptions.remove(topic, client)) {
+                listeners.forEach(listener -> listener.onUnsubscribed(topic, client));
+                log.debug("Removed closed session [{}] from topic [{}]", sessionId, topic);
             }
+        }
+        client.getSubscriptions().clear();
+        log.info("Session [{}] removed from all subscriptions.", sessionId);
+    }
+
+    // Unified send method - the core of the new design
+    public Mono<Void> sendToTopic(String topic, EventEnvelope<?> envelope) {
+        return sendToTopic(topic, DispatchEvent.of(envelope));
+    }
 
-            // Execute all sends concurrently and wait for completion (or errors)
-            return Mono.when(sendMonos)
-                    .doOnSuccess(v -> log.debug("Successfully sent messages to relevant sessions for topic [{}]. CorrID: {}", topic, envelope.correlationId()));
+    /**
+     * Sends an event to every session subscribed to a matching pattern,
+     * except sessions whose user is excluded from the event: the user whose
+     * change produced it gets no echo on any of their tabs. The exclusion
+     * travels with the buffered frame, so a replay skips it too.
+     */
+    public Mono<Void> sendToTopic(String topic, DispatchEvent event) {
+        EventEnvelope<?> envelope = event.envelope();
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(Topics.root(topic));
+        try {
+            // The frame is recorded for replay even when nobody is subscribed right now:
+            // a client that just dropped off is exactly the one that will ask for it
+            synchronized (ring) {
+                long seq = replayBuffer.nextSequence();
+                OutboundFrame frame = frameCodec.frame(new TopicFrame(topic, seq, envelope), event.excludedUserIds());
+                // Serialize the JSON form once up front so serialization errors surface here;
+                // binary encodings are produced on first use by a session that negotiated them
+                String jsonPayload = frame.text();
+                ring.append(seq, topic, frame);
+
+                // Exact, wildcard and ancestor subscriptions, each session once with the event types it accepts
+                Map<ClientSession, EventTypeFilter> subscribers = topicSubscriptions.subscribers(topic);
+                if (subscribers.isEmpty()) {
+                    metrics.recordFanout(topic, 0);
+                    log.debug("No active subscribers found for topic [{}]. Buffered seq {} for replay.", topic, seq);
+                    return Mono.empty();
+                }
 
+                log.debug("Enqueueing event type [{}] seq {} for topic [{}] to {} session(s). CorrID: {}",
+                        envelope.eventType(), seq, topic, subscribers.size(), envelope.correlationId());
+                int eventType = EventTypeFilter.indexOf(envelope.eventType());
+                int enqueued = 0;
+                for (Map.Entry<ClientSession, EventTypeFilter> subscriber : subscribers.entrySet()) {
+                    ClientSession client = subscriber.getKey();
+                    // Send only to open sessions that want this event type, and never back to the originator
+                    if (client.isOpen() && subscriber.getValue().accepts(eventType) && !frame.isSuppressedFor(client.getUserId())) {
+                        log.trace("Enqueueing message to session [{}] for topic [{}]: {}", client.getId(), topic, jsonPayload);
+                        client.offer(frame);
+                        enqueued++;
+                    }
+                }
+                metrics.recordFanout(topic, enqueued);
+            }
+            return Mono.empty();
         } catch (JsonProcessingException e) {
+            metrics.recordSendFailure(WebSocketMetrics.FAILURE_SERIALIZE);
             // Log serialization error - this is critical
             log.error("CRITICAL: Failed to serialize EventEnvelope for WebSocket broadcast! Topic: {}, CorrID: {}, Error: {}",
                     topic, envelope.correlationId(), e.getMessage(), e);
@@ -111,20 +300,143 @@ public class SubscriptionRegistry {
         }
     }
 
+    /**
+     * Batched counterpart of {@link #sendToTopic(String, DispatchEvent)} for
+     * one poll's worth of events, grouped by topic in delivery order. Each
+     * topic is matched against the subscription trie once rather than once
+     * per event, and each session gets all of its frames from the batch in a
+     * single {@link ClientSession#offerAll} so they go out as one flush.
+     *
+     * The root rings of every topic in the batch are held while frames are
+     * appended and enqueued, which keeps the replay guarantee of
+     * {@link #subscribe}. They are taken in root-name order so that
+     * concurrent batches cannot deadlock. An event that fails to serialize is
+     * logged and skipped without affecting the rest of the batch.
+     */
+    public void sendBatch(Map<String, List<DispatchEvent>> eventsByTopic) {
+        if (eventsByTopic.isEmpty()) {
+            return;
+        }
+        List<TopicReplayBuffer.TopicRing> rings = eventsByTopic.keySet().stream()
+                .map(Topics::root)
+                .distinct()
+                .sorted()
+                .map(replayBuffer::ring)
+                .toList();
+        Map<ClientSession, List<OutboundFrame>> pending = new HashMap<>();
+        withRingLocks(rings, 0, () -> {
+            eventsByTopic.forEach((topic, envelopes) -> collectFrames(topic, envelopes, pending));
+            pending.forEach(ClientSession::offerAll);
+        });
+        log.debug("Enqueued batch of {} topic(s) to {} session(s)", eventsByTopic.size(), pending.size());
+    }
+
+    private void collectFrames(String topic, List<DispatchEvent> events, Map<ClientSession, List<OutboundFrame>> pending) {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(Topics.root(topic));
+        Map<ClientSession, EventTypeFilter> subscribers = topicSubscriptions.subscribers(topic);
+        for (DispatchEvent event : events) {
+            EventEnvelope<?> envelope = event.envelope();
+            long seq = replayBuffer.nextSequence();
+            OutboundFrame frame = frameCodec.frame(new TopicFrame(topic, seq, envelope), event.excludedUserIds());
+            try {
+                frame.text();
+            } catch (JsonProcessingException e) {
+                metrics.recordSendFailure(WebSocketMetrics.FAILURE_SERIALIZE);
+                log.error("CRITICAL: Failed to serialize EventEnvelope for WebSocket broadcast! Topic: {}, CorrID: {}, Error: {}",
+                        topic, envelope.correlationId(), e.getMessage(), e);
+                continue;
+            }
+            ring.append(seq, topic, frame);
+            int eventType = EventTypeFilter.indexOf(envelope.eventType());
+            int enqueued = 0;
+            for (Map.Entry<ClientSession, EventTypeFilter> subscriber : subscribers.entrySet()) {
+                ClientSession client = subscriber.getKey();
+                if (client.isOpen() && subscriber.getValue().accepts(eventType) && !frame.isSuppressedFor(client.getUserId())) {
+                    pending.computeIfAbsent(client, k -> new ArrayList<>()).add(frame);
+                    enqueued++;
+                }
+            }
+            metrics.recordFanout(topic, enqueued);
+        }
+    }
+
+    private static void withRingLocks(List<TopicReplayBuffer.TopicRing> rings, int index, Runnable action) {
+        if (index == rings.size()) {
+            action.run();
+            return;
+        }
+        synchronized (rings.get(index)) {
+            withRingLocks(rings, index + 1, action);
+        }
+    }
+
+    /**
+     * Sends a frame that is not part of the topic's event stream, such as a
+     * presence snapshot, to the open sessions subscribed to a matching
+     * pattern whose filter accepts the given event type. Such frames carry no
+     * sequence and are not buffered for replay.
+     */
+    public void sendTransient(String topic, Object value, String eventType) {
+        OutboundFrame frame = frameCodec.frame(value);
+        int eventTypeIndex = EventTypeFilter.indexOf(eventType);
+        topicSubscriptions.subscribers(topic).forEach((client, filter) -> {
+            if (client.isOpen() && filter.accepts(eventTypeIndex)) {
+                client.offer(frame);
+            }
+        });
+    }
+
+    /**
+     * Re-checks the subscriptions held by the given users' sessions after a
+     * membership change, dropping the ones no longer allowed and telling the
+     * client with a "revoked" error frame.
+     */
+    public void revokeSubscriptions(Set<String> userIds, BiPredicate<ClientSession, String> allowed) {
+        for (ClientSession client : sessions.values()) {
+            if (client.getUserId() == null || !userIds.contains(client.getUserId())) {
+                continue;
+            }
+            for (String topic : client.getSubscriptions()) {
+                if (!allowed.test(client, topic)) {
+                    removeSubscription(topic, client);
+                    sendError(client, topic, ControlFrame.REVOKED);
+                    log.info("Revoked subscription of session [{}] (user {}) to topic [{}]", client.getId(), client.getUserId(), topic);
+                }
+            }
+        }
+    }
+
+    public void sendError(ClientSession client, String topic, String reason) {
+        sendControl(client, ControlFrame.error(topic, reason));
+    }
+
+    private void sendControl(ClientSession client, ControlFrame frame) {
+        client.offer(frameCodec.frame(frame));
+    }
+
     // Legacy compatibility methods (deprecated - for gradual migration)
     @Deprecated
     public void addUserSession(String userId, WebSocketSession session) {
-        addSubscription("user:" + userId, session);
+        ClientSession client = sessions.get(session.getId());
+        if (client != null) {
+            addSubscription("user:" + userId, client);
+        }
     }
 
     @Deprecated
     public void removeSessionFromUser(String userId, WebSocketSession session) {
-        removeSubscription("user:" + userId, session);
+        ClientSession client = sessions.get(session.getId());
+        if (client != null) {
+            removeSubscription("user:" + userId, client);
+        }
     }
 
     @Deprecated
     public void removeSessionFromAllUsers(WebSocketSession session) {
-        removeSessionFromAll(session);
+        ClientSession client = sessions.get(session.getId());
+        if (client != null) {
+            removeSessionFromAll(client);
+        }
     }
 
     @Deprecated
@@ -0,0 +1,20 @@
+package com.pm.websocketservice.service;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+/**
+ * Outbound event frame: the original envelope fields plus the topic it was
+ * routed to and its replay sequence number, e.g.
+ * {"topic":"project:123","seq":172...,"eventId":...,"payload":{...}}.
+ * Clients remember the last {@code seq} per topic and pass it back as
+ * {@code resumeFrom} when re-subscribing.
+ */
+@JsonPropertyOrder({"topic", "seq"})
+public record TopicFrame(
+        String topic,
+        long seq,
+        @JsonUnwrapped EventEnvelope<?> envelope
+) {
+}
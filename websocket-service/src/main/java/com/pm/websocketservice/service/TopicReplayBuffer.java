@@ -0,0 +1,138 @@
+package com.pm.websocketservice.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded per-topic history of recently broadcast frames, used to replay the
+ * gap when a client reconnects and re-subscribes with {@code resumeFrom}.
+ * History is kept per root topic (see {@link Topics#root}), so one ring holds
+ * a project and everything below it in publish order and a wildcard
+ * subscription replays by filtering that ring.
+ *
+ * Sequence numbers come from one counter seeded from the wall clock at
+ * startup, so they keep increasing across restarts and a sequence handed out
+ * by a previous instance is always reported as evicted. The counter is shared
+ * by all topics, so a subscription sees gaps wherever other topics were
+ * published; a frame a session actually lost is reported by an overflow
+ * notice instead (see {@link ClientSession}).
+ */
+@Slf4j
+@Component
+public class TopicReplayBuffer {
+
+    private final int capacityPerTopic;
+    private final int maxTopics;
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<String, TopicRing> rings = new ConcurrentHashMap<>();
+
+    public TopicReplayBuffer(@Value("${websocket.replay.capacity-per-topic:100}") int capacityPerTopic,
+            @Value("${websocket.replay.max-topics:2000}") int maxTopics) {
+        this.capacityPerTopic = capacityPerTopic;
+        this.maxTopics = maxTopics;
+    }
+
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Returns the ring for a root topic, creating it if needed. Callers that need
+     * to combine an append or replay with other work (such as fan-out) must
+     * synchronize on the returned ring.
+     */
+    public TopicRing ring(String topic) {
+        TopicRing ring = rings.get(topic);
+        if (ring != null) {
+            return ring;
+        }
+        if (rings.size() >= maxTopics) {
+            evictStalestTopic();
+        }
+        return rings.computeIfAbsent(topic, k -> new TopicRing(capacityPerTopic, sequence.get()));
+    }
+
+    public void clear(String topic) {
+        rings.remove(topic);
+    }
+
+    private void evictStalestTopic() {
+        rings.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastSequence()))
+                .ifPresent(entry -> {
+                    rings.remove(entry.getKey(), entry.getValue());
+                    log.debug("Evicted replay buffer for topic [{}] (max topics {} reached)", entry.getKey(), maxTopics);
+                });
+    }
+
+    /**
+     * Fixed-size ring of (sequence, topic, frame) entries for a single root
+     * topic.
+     */
+    public static final class TopicRing {
+
+        private final long[] sequences;
+        private final String[] topics;
+        private final OutboundFrame[] frames;
+        private int head; // index of the next write
+        private int size;
+        // Highest sequence this ring can no longer vouch for: everything at or below it is gone
+        private long floorSequence;
+
+        TopicRing(int capacity, long floorSequence) {
+            this.sequences = new long[capacity];
+            this.topics = new String[capacity];
+            this.frames = new OutboundFrame[capacity];
+            this.floorSequence = floorSequence;
+        }
+
+        public synchronized void append(long seq, String topic, OutboundFrame frame) {
+            if (size == frames.length) {
+                floorSequence = sequences[head];
+            } else {
+                size++;
+            }
+            sequences[head] = seq;
+            topics[head] = topic;
+            frames[head] = frame;
+            head = (head + 1) % frames.length;
+        }
+
+        /**
+         * Frames with a sequence greater than {@code resumeFrom} on topics the
+         * pattern covers, oldest first, or {@code null} if part of that range
+         * has already been evicted and the client has to reload.
+         */
+        public synchronized List<OutboundFrame> framesAfter(long resumeFrom, String pattern) {
+            if (resumeFrom < floorSequence) {
+                return null;
+            }
+            List<OutboundFrame> result = new ArrayList<>();
+            int start = (head - size + frames.length) % frames.length;
+            for (int i = 0; i < size; i++) {
+                int idx = (start + i) % frames.length;
+                if (sequences[idx] > resumeFrom && Topics.matches(pattern, topics[idx])) {
+                    result.add(frames[idx]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Sequence a client should resume from to receive everything after
+         * this point.
+         */
+        public synchronized long lastSequence() {
+            return size == 0 ? floorSequence : sequences[(head - 1 + frames.length) % frames.length];
+        }
+    }
+}
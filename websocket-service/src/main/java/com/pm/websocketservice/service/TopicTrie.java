@@ -0,0 +1,113 @@
+package com.pm.websocketservice.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscription index keyed by topic level, so that finding the sessions for a
+ * published topic costs one lookup per level (two where a {@code *} branch
+ * exists) rather than a scan of every subscription.
+ *
+ * Lookups are lock-free over concurrent maps; structural changes are
+ * serialized on the trie so that pruning an empty node cannot race with a
+ * subscription being added to it.
+ */
+public class TopicTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * @return true if the session was not already subscribed to the pattern
+     */
+    public boolean add(String pattern, ClientSession client) {
+        return add(pattern, client, EventTypeFilter.ALL);
+    }
+
+    /**
+     * Subscribes a session to a pattern for the event types the filter
+     * accepts, replacing the filter of an existing subscription.
+     *
+     * @return true if the session was not already subscribed to the pattern
+     */
+    public synchronized boolean add(String pattern, ClientSession client, EventTypeFilter filter) {
+        Node node = root;
+        for (String segment : Topics.segments(pattern)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        return node.subscribers.put(client, filter) == null;
+    }
+
+    /**
+     * @return true if the session was subscribed to the pattern
+     */
+    public synchronized boolean remove(String pattern, ClientSession client) {
+        return remove(root, Topics.segments(pattern), 0, client);
+    }
+
+    private boolean remove(Node node, String[] segments, int depth, ClientSession client) {
+        if (depth == segments.length) {
+            return node.subscribers.remove(client) != null;
+        }
+        Node child = node.children.get(segments[depth]);
+        if (child == null) {
+            return false;
+        }
+        boolean removed = remove(child, segments, depth + 1, client);
+        if (child.isEmpty()) {
+            node.children.remove(segments[depth], child);
+        }
+        return removed;
+    }
+
+    /**
+     * Sessions whose subscription covers the given concrete topic. A session
+     * subscribed through several matching patterns is returned once.
+     */
+    public Set<ClientSession> match(String topic) {
+        return subscribers(topic).keySet();
+    }
+
+    /**
+     * Like {@link #match(String)}, with the event types each session accepts
+     * on this topic. A session matching through several patterns gets the
+     * union of their filters.
+     */
+    public Map<ClientSession, EventTypeFilter> subscribers(String topic) {
+        Map<ClientSession, EventTypeFilter> result = new HashMap<>();
+        collect(root, Topics.segments(topic), 0, result);
+        return result;
+    }
+
+    private void collect(Node node, String[] segments, int depth, Map<ClientSession, EventTypeFilter> result) {
+        // Every node on the path is a prefix of the topic, so its subscribers are covered
+        node.subscribers.forEach((client, filter) -> result.merge(client, filter, EventTypeFilter::union));
+        if (depth == segments.length) {
+            return;
+        }
+        Node exact = node.children.get(segments[depth]);
+        if (exact != null) {
+            collect(exact, segments, depth + 1, result);
+        }
+        if (depth > 0) {
+            Node wildcard = node.children.get(Topics.WILDCARD);
+            if (wildcard != null) {
+                collect(wildcard, segments, depth + 1, result);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final Map<ClientSession, EventTypeFilter> subscribers = new ConcurrentHashMap<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && subscribers.isEmpty();
+        }
+    }
+}
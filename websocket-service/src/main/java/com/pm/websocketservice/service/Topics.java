@@ -0,0 +1,95 @@
+package com.pm.websocketservice.service;
+
+/**
+ * Topic naming helpers.
+ *
+ * Topics are hierarchical, with {@code /} separating levels under a root such
+ * as {@code project:123}, e.g. {@code project:123/task/456}. A subscription
+ * covers the named topic and everything below it, and may use {@code *} to
+ * match any single level below the root: {@code project:123/task/*} follows
+ * every task of the project, {@code project:123} follows the whole project.
+ */
+public final class Topics {
+
+    public static final char SEPARATOR = '/';
+    public static final String WILDCARD = "*";
+
+    private Topics() {
+    }
+
+    public static String[] segments(String topic) {
+        return topic.split(String.valueOf(SEPARATOR));
+    }
+
+    /**
+     * First level of a topic, e.g. {@code project:123}. Replay history and
+     * sequence ordering are kept per root.
+     */
+    public static String root(String topic) {
+        int idx = topic.indexOf(SEPARATOR);
+        return idx < 0 ? topic : topic.substring(0, idx);
+    }
+
+    /**
+     * A subscription pattern is valid when no level is empty and the root is
+     * not a wildcard (which would subscribe to every project or user).
+     */
+    public static boolean isValidPattern(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return false;
+        }
+        String[] segments = segments(pattern);
+        if (segments.length == 0 || pattern.charAt(pattern.length() - 1) == SEPARATOR) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].isEmpty() || (segments[i].contains(WILDCARD) && (i == 0 || !WILDCARD.equals(segments[i])))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a subscription pattern covers a concrete topic: every level of
+     * the pattern matches the topic level at the same depth, and the topic is
+     * at least as deep as the pattern.
+     */
+    public static boolean matches(String pattern, String topic) {
+        String[] patternSegments = segments(pattern);
+        String[] topicSegments = segments(topic);
+        if (topicSegments.length < patternSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < patternSegments.length; i++) {
+            if (!WILDCARD.equals(patternSegments[i]) && !patternSegments[i].equals(topicSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String project(String projectId) {
+        return "project:" + projectId;
+    }
+
+    public static String projectTask(String projectId, String taskId) {
+        return project(projectId) + SEPARATOR + "task" + SEPARATOR + taskId;
+    }
+
+    public static String task(String taskId) {
+        return "task:" + taskId;
+    }
+
+    public static String user(String userId) {
+        return "user:" + userId;
+    }
+
+    /**
+     * Comments live one level below their parent, e.g.
+     * {@code project:123/comment} or {@code task:456/comment}.
+     */
+    public static String comments(String parentTopic) {
+        return parentTopic + SEPARATOR + "comment";
+    }
+}
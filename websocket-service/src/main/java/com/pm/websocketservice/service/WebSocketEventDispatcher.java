@@ -1,9 +1,19 @@
 package com.pm.websocketservice.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.pm.commoncontracts.envelope.EventEnvelope;
@@ -11,12 +21,12 @@ import com.pm.commoncontracts.events.notification.NotificationToSendEventPayload
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
 import reactor.kafka.receiver.ReceiverRecord;
 
 /**
@@ -36,19 +46,37 @@ import reactor.kafka.receiver.ReceiverRecord;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class WebSocketEventDispatcher {
 
+    /**
+     * Optional record header with comma-separated user ids that should not
+     * receive the event, in addition to its originator.
+     */
+    public static final String EXCLUDE_USERS_HEADER = "ws-exclude-users";
+
     private final List<KafkaReceiver<String, EventEnvelope<?>>> eventReceivers;
     private final SubscriptionRegistry registry;
+    private final boolean batched;
     private final List<Disposable> subscriptions = new ArrayList<>();
 
+    public WebSocketEventDispatcher(List<KafkaReceiver<String, EventEnvelope<?>>> eventReceivers,
+            SubscriptionRegistry registry,
+            @Value("${websocket.dispatch.batched:true}") boolean batched) {
+        this.eventReceivers = eventReceivers;
+        this.registry = registry;
+        this.batched = batched;
+    }
+
     @PostConstruct
     public void start() {
-        log.info("Starting unified Kafka event dispatcher...");
+        log.info("Starting unified Kafka event dispatcher ({} mode)...", batched ? "batched" : "per-record");
         for (KafkaReceiver<String, EventEnvelope<?>> receiver : eventReceivers) {
-            subscriptions.add(
-                    receiver.receive()
+            subscriptions.add(batched
+                    // One inner flux per poll; batches are handled one after another to keep topic order
+                    ? receiver.receiveBatch()
+                            .concatMap(batch -> batch.collectList().flatMap(this::dispatchBatch))
+                            .subscribe()
+                    : receiver.receive()
                             .flatMap(this::dispatchRecord)
                             .subscribe()
             );
@@ -56,6 +84,58 @@ public class WebSocketEventDispatcher {
         log.info("Kafka event dispatcher subscriptions started.");
     }
 
+    /**
+     * Dispatches one poll's records: envelopes are grouped by target topic,
+     * handed to the registry in a single call so each session receives the
+     * batch as one flush, and the offsets are committed once for the batch.
+     * Per-record MDC and INFO logging are skipped here; they dominate the
+     * cost per event during event storms. A batch the registry fails to send
+     * is not retried: it is logged and skipped, and its offsets are still
+     * committed, like a failed record on the per-record path.
+     */
+    private Mono<Void> dispatchBatch(List<ReceiverRecord<String, EventEnvelope<?>>> records) {
+        if (records.isEmpty()) {
+            return Mono.empty();
+        }
+        Map<String, List<DispatchEvent>> eventsByTopic = new LinkedHashMap<>();
+        for (ReceiverRecord<String, EventEnvelope<?>> record : records) {
+            EventEnvelope<?> envelope = record.value();
+            if (envelope == null) {
+                log.warn("Received null EventEnvelope from Kafka record at {}@{}", record.topic(), record.offset());
+                continue;
+            }
+            DispatchEvent event = new DispatchEvent(toSendableEnvelope(envelope), excludedUserIds(record));
+            for (String topic : resolveTopics(record.key(), envelope)) {
+                eventsByTopic.computeIfAbsent(topic, k -> new ArrayList<>()).add(event);
+            }
+        }
+        try {
+            registry.sendBatch(eventsByTopic);
+        } catch (Exception e) {
+            log.error("Unrecoverable error dispatching batch of {} record(s). Skipping batch.", records.size(), e);
+        }
+        log.debug("Dispatched batch of {} record(s) to {} topic(s)", records.size(), eventsByTopic.size());
+        return commitBatch(records);
+    }
+
+    /**
+     * Acknowledges the last record of every partition in the batch and
+     * commits them together.
+     */
+    private Mono<Void> commitBatch(List<ReceiverRecord<String, EventEnvelope<?>>> records) {
+        Map<TopicPartition, ReceiverOffset> lastOffsets = new HashMap<>();
+        for (ReceiverRecord<String, EventEnvelope<?>> record : records) {
+            lastOffsets.put(record.receiverOffset().topicPartition(), record.receiverOffset());
+        }
+        lastOffsets.values().forEach(ReceiverOffset::acknowledge);
+        return records.get(records.size() - 1).receiverOffset().commit()
+                .onErrorResume(e -> {
+                    // Not fatal: the next batch commits past these offsets
+                    log.warn("Failed to commit offsets for batch of {} record(s): {}", records.size(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
     private Mono<Void> dispatchRecord(ReceiverRecord<String, EventEnvelope<?>> record) {
         EventEnvelope<?> envelope = record.value();
         if (envelope == null) {
@@ -75,48 +155,19 @@ public class WebSocketEventDispatcher {
 
         log.info("Processing event envelope. Type {}, Key: {}, CorrID: {}", eventType, recordKey, correlationId);
 
-        // Determine all relevant topics for this payload
-        List<String> topics;
-
-        // If the record key looks like a WebSocket topic (e.g., "project:123", "task:456", "user:789"), use it directly
-        if (recordKey != null && (recordKey.startsWith("project:") || recordKey.startsWith("task:") || recordKey.startsWith("user:"))) {
-            topics = List.of(recordKey);
-            log.debug("Using Kafka record key as WebSocket topic: {}", recordKey);
-        } else {
-            // Fallback to determining topics from payload
-            topics = determineTopics(payload);
-        }
-
+        List<String> topics = resolveTopics(recordKey, envelope);
         if (topics.isEmpty()) {
-            log.warn("No topics determined for event type: {}. CorrID: {}", eventType, correlationId);
             record.receiverOffset().acknowledge();
             clearMdc();
             return Mono.empty();
         }
 
-        // Extract originator user ID to prevent echoing events back to the user who triggered them
-        String excludeUserId = extractOriginatorUserId(payload);
+        // Exclude the originator (and any opted-out users) to prevent echoing events back to them
+        DispatchEvent event = new DispatchEvent(toSendableEnvelope(envelope), excludedUserIds(record));
 
         // Fan-out to every topic
         return Flux.fromIterable(topics)
-                .flatMap(topic -> {
-                    // If we have fallback deserialization, we need to create a proper envelope
-                    EventEnvelope<?> envelopeToSend = envelope;
-                    if (payload instanceof java.util.Map<?, ?> && !(payload instanceof NotificationToSendEventPayload)) {
-                        // Create a new envelope with the original data but ensure proper structure for WebSocket
-                        envelopeToSend = new EventEnvelope<>(
-                                envelope.eventId(),
-                                envelope.correlationId(),
-                                envelope.eventType(),
-                                envelope.sourceService(),
-                                envelope.timestamp(),
-                                envelope.version(),
-                                payload // Keep the map structure for now
-                        );
-                    }
-                    // Send to topic while excluding the originator to prevent duplicate events
-                    return registry.sendToTopic(topic, envelopeToSend, excludeUserId);
-                })
+                .flatMap(topic -> registry.sendToTopic(topic, event))
                 .then(doAck(record))
                 .doOnSuccess(v -> log.debug("Successfully processed and acknowledged Kafka record. CorrID: {}", correlationId))
                 .doOnError(e -> log.error("Error sending WebSocket message for CorrID: {}. Error: {}", correlationId, e.getMessage()))
@@ -124,6 +175,48 @@ public class WebSocketEventDispatcher {
                 .doFinally(signal -> clearMdc());
     }
 
+    /**
+     * Determines all relevant topics for an envelope. Hierarchical names come
+     * from the payload (e.g. "project:123/task/456"), since the record key
+     * only carries the root; the key is used when the payload gives none.
+     */
+    List<String> resolveTopics(String recordKey, EventEnvelope<?> envelope) {
+        Object payload = envelope.payload();
+        List<String> topics = determineTopics(payload);
+
+        // If the payload gives no topic but the record key looks like a WebSocket topic
+        // (e.g., "project:123", "task:456", "user:789"), use the key directly
+        if (topics.isEmpty() && recordKey != null
+                && (recordKey.startsWith("project:") || recordKey.startsWith("task:") || recordKey.startsWith("user:"))) {
+            topics = List.of(recordKey);
+            log.debug("Using Kafka record key as WebSocket topic: {}", recordKey);
+        }
+
+        if (topics.isEmpty()) {
+            log.warn("No topics determined for event type: {} (payload {}). CorrID: {}", envelope.eventType(),
+                    payload != null ? payload.getClass().getName() : null, envelope.correlationId());
+        }
+        return topics;
+    }
+
+    private EventEnvelope<?> toSendableEnvelope(EventEnvelope<?> envelope) {
+        Object payload = envelope.payload();
+        // If we have fallback deserialization, we need to create a proper envelope
+        if (payload instanceof java.util.Map<?, ?> && !(payload instanceof NotificationToSendEventPayload)) {
+            // Create a new envelope with the original data but ensure proper structure for WebSocket
+            return new EventEnvelope<>(
+                    envelope.eventId(),
+                    envelope.correlationId(),
+                    envelope.eventType(),
+                    envelope.sourceService(),
+                    envelope.timestamp(),
+                    envelope.version(),
+                    payload // Keep the map structure for now
+            );
+        }
+        return envelope;
+    }
+
     private Mono<Void> doAck(ReceiverRecord<?, ?> record) {
         record.receiverOffset().acknowledge();
         return Mono.empty();
@@ -137,10 +230,33 @@ public class WebSocketEventDispatcher {
         return Mono.empty();
     }
 
+    /**
+     * Users whose sessions should not receive the record's event: the
+     * originator of the change, plus the comma-separated user ids a producer
+     * may list in the {@value #EXCLUDE_USERS_HEADER} header.
+     */
+    private Set<String> excludedUserIds(ConsumerRecord<String, EventEnvelope<?>> record) {
+        Set<String> excluded = new HashSet<>();
+        String originator = extractOriginatorUserId(record.value().payload());
+        if (originator != null) {
+            excluded.add(originator);
+        }
+        Header header = record.headers().lastHeader(EXCLUDE_USERS_HEADER);
+        if (header != null && header.value() != null) {
+            for (String userId : new String(header.value(), StandardCharsets.UTF_8).split(",")) {
+                if (!userId.isBlank()) {
+                    excluded.add(userId.trim());
+                }
+            }
+        }
+        return excluded;
+    }
+
     /**
      * Extracts the originator user ID from domain events to prevent echoing
-     * events back to the user who triggered them. This helps eliminate
-     * duplicate events on the frontend.
+     * events back to the user who triggered them. Every session of that user
+     * is skipped on every topic, so the change is not re-rendered on the
+     * tab that made it nor duplicated on the user's other tabs.
      *
      * Note: Comments are excluded from filtering because they require immediate
      * real-time feedback for collaborative editing scenarios.
@@ -244,7 +360,13 @@ public class WebSocketEventDispatcher {
 
         // Handle notification events - route to user-specific topics
         if (payload instanceof NotificationToSendEventPayload n) {
-            return List.of("user:" + n.notification().getRecipientUserId());
+            return List.of(Topics.user(n.notification().getRecipientUserId()));
+        }
+
+        // Handle task events - route below the owning project so "project:<id>/task/*" follows the board
+        List<String> taskTopics = getTaskEventTopics(payload);
+        if (!taskTopics.isEmpty()) {
+            return taskTopics;
         }
 
         // Handle comment events from websocket-dispatch topic - these come with topic information
@@ -268,7 +390,7 @@ public class WebSocketEventDispatcher {
                 Object recipientUserId = notificationMap.get("recipientUserId");
                 if (recipientUserId instanceof String userId) {
                     log.info("Using fallback deserialization for NotificationToSendEventPayload. Recipient: {}", userId);
-                    return List.of("user:" + userId);
+                    return List.of(Topics.user(userId));
                 }
             }
 
@@ -279,27 +401,60 @@ public class WebSocketEventDispatcher {
             }
         }
 
-        log.warn("WebSocketEventDispatcher received unsupported payload type: {}. All domain events should be processed by notification service first.", payload.getClass().getName());
+        log.debug("No topic derivable from payload type: {}", payload.getClass().getName());
         return List.of();
     }
 
+    /**
+     * Helper method to determine the topics for task events: the hierarchical
+     * project:<projectId>/task/<taskId>, plus task:<taskId> for clients that
+     * follow a single task. Empty if the payload is not a task event or lacks
+     * the ids
+     */
+    private List<String> getTaskEventTopics(Object payload) {
+        String projectId = null;
+        String taskId = null;
+        com.pm.commoncontracts.dto.TaskDto taskDto = null;
+        if (payload instanceof com.pm.commoncontracts.events.task.TaskCreatedEventPayload p) {
+            taskDto = p.taskDto();
+        } else if (payload instanceof com.pm.commoncontracts.events.task.TaskUpdatedEventPayload p) {
+            taskDto = p.taskDto();
+        } else if (payload instanceof com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload p) {
+            taskDto = p.taskDto();
+        } else if (payload instanceof com.pm.commoncontracts.events.task.TaskAssignedEventPayload p) {
+            taskDto = p.taskDto();
+        } else if (payload instanceof com.pm.commoncontracts.events.task.TaskPriorityChangedEventPayload p) {
+            taskDto = p.dto();
+        } else if (payload instanceof com.pm.commoncontracts.events.task.TaskDeletedEventPayload p) {
+            taskDto = p.taskDto();
+        } else if (payload instanceof java.util.Map<?, ?> payloadMap
+                && payloadMap.get("taskDto") instanceof java.util.Map<?, ?> taskMap) {
+            // Fallback deserialization with Map structure
+            if (taskMap.get("projectId") instanceof String pId && taskMap.get("id") instanceof String tId) {
+                projectId = pId;
+                taskId = tId;
+            }
+        }
+        if (taskDto != null) {
+            projectId = taskDto.getProjectId();
+            taskId = taskDto.getId();
+        }
+        if (projectId == null || taskId == null) {
+            return List.of();
+        }
+        List<String> topics = List.of(Topics.projectTask(projectId, taskId), Topics.task(taskId));
+        log.debug("Task event will be sent to topics: {}", topics);
+        return topics;
+    }
+
     /**
      * Helper method to determine topics for comment events
      */
     private List<String> getCommentEventTopics(com.pm.commoncontracts.dto.CommentDto commentDto) {
-        List<String> topics = new ArrayList<>();
-
-        if (commentDto.getParentType() != null && commentDto.getParentId() != null) {
-            String parentType = commentDto.getParentType().name().toLowerCase();
-            String parentId = commentDto.getParentId();
-
-            // Add the main parent topic (project:<id> or task:<id>)
-            topics.add(parentType + ":" + parentId);
-
-            log.debug("Comment event will be sent to topic: {}:{}", parentType, parentId);
+        if (commentDto.getParentType() == null) {
+            return List.of();
         }
-
-        return topics;
+        return getCommentEventTopics(commentDto.getParentType().name(), commentDto.getParentId(), commentDto.getProjectId());
     }
 
     /**
@@ -307,18 +462,33 @@ public class WebSocketEventDispatcher {
      * deserialization
      */
     private List<String> getCommentEventTopicsFromMap(java.util.Map<?, ?> commentMap) {
-        List<String> topics = new ArrayList<>();
-
-        Object parentType = commentMap.get("parentType");
-        Object parentId = commentMap.get("parentId");
-
-        if (parentType instanceof String pType && parentId instanceof String pId) {
-            String parentTypeLower = pType.toLowerCase();
-            topics.add(parentTypeLower + ":" + pId);
-
-            log.debug("Comment event (fallback) will be sent to topic: {}:{}", parentTypeLower, pId);
+        if (commentMap.get("parentType") instanceof String pType) {
+            return getCommentEventTopics(pType, commentMap.get("parentId") instanceof String pId ? pId : null,
+                    commentMap.get("projectId") instanceof String projectId ? projectId : null);
         }
+        return List.of();
+    }
 
+    /**
+     * Comments sit below their parent, so parent subscribers still receive
+     * them: project:<id>/comment, or for a task
+     * project:<projectId>/task/<taskId>/comment when the project is known,
+     * plus task:<taskId>/comment for clients that follow a single task
+     */
+    private List<String> getCommentEventTopics(String parentType, String parentId, String projectId) {
+        if (parentId == null) {
+            return List.of();
+        }
+        List<String> topics = new ArrayList<>();
+        if ("TASK".equalsIgnoreCase(parentType)) {
+            if (projectId != null) {
+                topics.add(Topics.comments(Topics.projectTask(projectId, parentId)));
+            }
+            topics.add(Topics.comments(Topics.task(parentId)));
+        } else {
+            topics.add(Topics.comments(parentType.toLowerCase() + ":" + parentId));
+        }
+        log.debug("Comment event will be sent to topics: {}", topics);
         return topics;
     }
 
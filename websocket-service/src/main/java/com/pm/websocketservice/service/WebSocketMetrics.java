@@ -0,0 +1,138 @@
+package com.pm.websocketservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instruments for real-time delivery, exposed through the actuator
+ * ({@code /actuator/metrics/websocket.*}). Percentiles and SLO buckets are
+ * configured under {@code management.metrics.distribution} in
+ * application.yml.
+ *
+ * Tags are kept low-cardinality: topics are reduced to their type
+ * ({@code project}, {@code task}, {@code user}), never the id, and sessions
+ * are aggregated rather than tagged individually.
+ */
+@Component
+public class WebSocketMetrics {
+
+    public static final String DELIVERY_LATENCY = "websocket.delivery.latency";
+    public static final String FANOUT_SIZE = "websocket.fanout.size";
+    public static final String SEND_FAILURES = "websocket.send.failures";
+    public static final String SESSIONS = "websocket.sessions";
+    public static final String QUEUE_DEPTH = "websocket.session.queue.depth";
+    public static final String SESSIONS_REAPED = "websocket.sessions.reaped";
+
+    public static final String FAILURE_QUEUE_FULL = "queue_full";
+    public static final String FAILURE_CLOSED = "closed";
+    public static final String FAILURE_ENCODE = "encode";
+    public static final String FAILURE_SERIALIZE = "serialize";
+
+    public static final String REAPED_IDLE = "idle";
+    public static final String REAPED_SESSION_LIMIT = "session_limit";
+
+    private static final String[] TOPIC_TYPES = {"project", "task", "user"};
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final DistributionSummary queueDepth;
+    // Meters cached per tag combination so the hot path does no builder lookups
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> fanoutSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> reapedCounters = new ConcurrentHashMap<>();
+
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(SESSIONS, sessions, AtomicInteger::get)
+                .description("Connected WebSocket sessions")
+                .register(meterRegistry);
+        this.queueDepth = DistributionSummary.builder(QUEUE_DEPTH)
+                .description("Frames waiting in a session's outbound queue, sampled on each enqueue")
+                .baseUnit("frames")
+                .register(meterRegistry);
+    }
+
+    public void sessionOpened() {
+        sessions.incrementAndGet();
+    }
+
+    public void sessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    /**
+     * Time from the event being produced ({@code EventEnvelope.timestamp}) to
+     * its frame being handed to the socket. Replayed frames are skipped since
+     * their age reflects the client's disconnect, not delivery speed.
+     */
+    public void recordDelivery(OutboundFrame frame, FrameEncoding encoding) {
+        if (frame.isReplay() || !(frame.value() instanceof TopicFrame topicFrame)) {
+            return;
+        }
+        Instant produced = topicFrame.envelope().timestamp();
+        if (produced == null) {
+            return;
+        }
+        String topicType = topicType(topicFrame.topic());
+        Timer timer = latencyTimers.computeIfAbsent(topicType + '|' + encoding.name(), k -> Timer.builder(DELIVERY_LATENCY)
+                .description("Event production to WebSocket send latency")
+                .tag("topic.type", topicType)
+                .tag("encoding", encoding.name().toLowerCase())
+                .register(meterRegistry));
+        Duration latency = Duration.between(produced, Instant.now());
+        // Clock skew between producer and this service can make this slightly negative; clamp to zero
+        timer.record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    public void recordFanout(String topic, int sessionCount) {
+        String topicType = topicType(topic);
+        fanoutSummaries.computeIfAbsent(topicType, k -> DistributionSummary.builder(FANOUT_SIZE)
+                .description("Sessions a published event was enqueued to")
+                .baseUnit("sessions")
+                .tag("topic.type", topicType)
+                .register(meterRegistry))
+                .record(sessionCount);
+    }
+
+    public void recordSendFailure(String reason) {
+        failureCounters.computeIfAbsent(reason, k -> Counter.builder(SEND_FAILURES)
+                .description("Frames that could not be delivered to a session")
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    public void recordSessionReaped(String reason) {
+        reapedCounters.computeIfAbsent(reason, k -> Counter.builder(SESSIONS_REAPED)
+                .description("Sessions closed by the server: idle past the heartbeat timeout, or over the per-user limit")
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    public void recordQueueDepth(int depth) {
+        queueDepth.record(depth);
+    }
+
+    private static String topicType(String topic) {
+        for (String type : TOPIC_TYPES) {
+            if (topic.startsWith(type) && topic.length() > type.length() && topic.charAt(type.length()) == ':') {
+                return type;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,101 @@
+package com.pm.websocketservice.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.websocketservice.security.ProjectMembershipCache;
+import com.pm.websocketservice.security.TopicAuthorizer;
+import com.pm.websocketservice.service.ClientCommandProcessor;
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.FrameCodec;
+import com.pm.websocketservice.service.SubscriptionRegistry;
+import com.pm.websocketservice.service.TopicReplayBuffer;
+import com.pm.websocketservice.service.WebSocketMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the Server-Sent Events fallback transport
+ */
+public class EventStreamControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SubscriptionRegistry registry = new SubscriptionRegistry(new FrameCodec(objectMapper),
+            new TopicReplayBuffer(10, 10), new WebSocketMetrics(new SimpleMeterRegistry()), 16, 0);
+    private final ClientCommandProcessor commandProcessor = new ClientCommandProcessor(registry, objectMapper,
+            new TopicAuthorizer(new ProjectMembershipCache()));
+    private final WebTestClient client = WebTestClient
+            .bindToController(new EventStreamController(registry, commandProcessor, Duration.ofMinutes(1)))
+            .build();
+
+    @Test
+    void testStreamSubscribesAndReceivesBroadcasts() {
+        Flux<ServerSentEvent<String>> events = client.get().uri("/sse/updates?topic=user:alice")
+                .header("X-User-Id", "alice")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(event -> assertThat(event.event()).isEqualTo(EventStreamController.SESSION_EVENT))
+                .assertNext(event -> assertThat(event.data()).contains("\"type\":\"subscribed\"").contains("user:alice"))
+                .then(() -> registry.sendToTopic("user:alice",
+                        new EventEnvelope<>("corr-1", "NOTIFICATION_TO_SEND", "test", Map.of("id", "n1"))).block())
+                .assertNext(event -> {
+                    assertThat(event.id()).isNotNull();
+                    assertThat(event.data()).contains("\"topic\":\"user:alice\"").contains("corr-1");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testCommandsOnlyAcceptedFromTheStreamsUser() {
+        ClientSession stream = registry.registerEventStream(headers("alice"));
+        String subscribe = "{\"type\":\"subscribe\",\"topic\":\"user:alice\"}";
+
+        client.post().uri("/sse/updates/{id}/commands", stream.getId())
+                .header("X-User-Id", "bob")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(subscribe)
+                .exchange()
+                .expectStatus().isForbidden();
+        client.post().uri("/sse/updates/{id}/commands", "sse-unknown")
+                .header("X-User-Id", "alice")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(subscribe)
+                .exchange()
+                .expectStatus().isNotFound();
+        client.post().uri("/sse/updates/{id}/commands", stream.getId())
+                .header("X-User-Id", "alice")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(subscribe)
+                .exchange()
+                .expectStatus().isAccepted();
+
+        assertThat(stream.getSubscriptions()).containsExactly("user:alice");
+    }
+
+    private static HttpHeaders headers(String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-User-Id", userId);
+        return headers;
+    }
+}
@@ -0,0 +1,226 @@
+package com.pm.websocketservice.load;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.commoncontracts.domain.ParentType;
+import com.pm.commoncontracts.dto.CommentDto;
+import com.pm.commoncontracts.dto.NotificationDto;
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.comment.CommentAddedEventPayload;
+import com.pm.commoncontracts.events.notification.NotificationToSendEventPayload;
+import com.pm.websocketservice.security.ProjectMembershipCache;
+import com.pm.websocketservice.service.WebSocketMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness for the broadcast path: opens thousands of WebSocket sessions
+ * against a locally started websocket-service, pushes synthetic notification
+ * and comment envelopes through an embedded Kafka broker and reports
+ * delivered messages per second, end-to-end p50/p99 latency and heap per
+ * session.
+ *
+ * Skipped in the normal build. Run with
+ * {@code mvn -pl websocket-service test -Dtest=BroadcastLoadHarnessTest -Dwebsocket.load=true}
+ * and tune with {@code -Dwebsocket.load.sessions}, {@code .projects},
+ * {@code .notifications} and {@code .comments}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "websocket.load", matches = "true")
+@EmbeddedKafka(partitions = 3, topics = {"notifications-to-send", "websocket-dispatch"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "websocket.session.outbound-queue-capacity=1024",
+    "logging.level.com.pm.websocketservice=WARN"
+})
+class BroadcastLoadHarnessTest {
+
+    private static final int SESSIONS = Integer.getInteger("websocket.load.sessions", 2000);
+    private static final int PROJECTS = Integer.getInteger("websocket.load.projects", 20);
+    private static final int NOTIFICATIONS = Integer.getInteger("websocket.load.notifications", 2000);
+    private static final int COMMENTS = Integer.getInteger("websocket.load.comments", 200);
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration COMMAND_DELAY = Duration.ofMillis(50);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private ProjectMembershipCache membershipCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Test
+    void testBroadcastUnderLoad() throws Exception {
+        List<String> userIds = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            userIds.add("load-user-" + i);
+        }
+        // Membership is seeded directly so the run does not depend on project-events replay
+        for (int p = 0; p < PROJECTS; p++) {
+            membershipCache.putProject(ProjectDto.builder().id(projectId(p)).memberIds(userIds).build());
+        }
+
+        long heapBefore = usedHeap();
+        CountDownLatch subscribed = new CountDownLatch(SESSIONS * 2);
+        Mono<Void> done = Mono.delay(DELIVERY_TIMEOUT.plusSeconds(30)).then();
+        ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient(
+                HttpClient.create(ConnectionProvider.newConnection()));
+        URI uri = URI.create("ws://localhost:" + port + "/ws/updates");
+
+        List<Disposable> connections = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            String userId = userIds.get(i);
+            String projectTopic = "project:" + projectId(i % PROJECTS);
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("X-User-Id", userId);
+            connections.add(client.execute(uri, headers, session -> Mono.when(
+                    // Commands are held back briefly: frames sent in the same instant as the upgrade
+                    // completes were occasionally never seen by the server's receive()
+                    session.send(Flux.just(
+                            "{\"type\":\"user-auth\",\"userId\":\"" + userId + "\"}",
+                            "{\"type\":\"subscribe\",\"topic\":\"" + projectTopic + "\"}")
+                            .map(session::textMessage)
+                            .delaySubscription(COMMAND_DELAY)),
+                    // Receive is subscribed alongside send so no frame can arrive before it
+                    session.receive()
+                            .map(WebSocketMessage::getPayloadAsText)
+                            .doOnNext(text -> onFrame(text, subscribed))
+                            .takeUntilOther(done)))
+                    .subscribe(null, e -> log.warn("Load client {} failed: {}", userId, e.getMessage())));
+        }
+        boolean allSubscribed = subscribed.await(2, TimeUnit.MINUTES);
+        assertThat(allSubscribed).as("all sessions subscribed, %d acks missing", subscribed.getCount()).isTrue();
+        long heapPerSession = (usedHeap() - heapBefore) / SESSIONS;
+
+        KafkaTemplate<String, EventEnvelope<?>> producer = producer();
+        long expected = NOTIFICATIONS + (long) COMMENTS * (SESSIONS / PROJECTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            String recipient = userIds.get(ThreadLocalRandom.current().nextInt(SESSIONS));
+            NotificationDto notification = NotificationDto.builder().id("n" + i).recipientUserId(recipient).message("load").build();
+            producer.send("notifications-to-send", recipient, new EventEnvelope<>("load-" + i,
+                    NotificationToSendEventPayload.EVENT_TYPE, "load-harness",
+                    new NotificationToSendEventPayload(notification, "load-" + i)));
+        }
+        for (int i = 0; i < COMMENTS; i++) {
+            String projectId = projectId(i % PROJECTS);
+            CommentDto comment = CommentDto.builder().id("c" + i).parentId(projectId).parentType(ParentType.PROJECT)
+                    .authorId(userIds.get(0)).content("load").build();
+            producer.send("websocket-dispatch", "project:" + projectId, new EventEnvelope<>("load-c" + i,
+                    CommentAddedEventPayload.EVENT_TYPE, "load-harness", new CommentAddedEventPayload(comment)));
+        }
+        producer.flush();
+
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+        while (delivered.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        connections.forEach(Disposable::dispose);
+
+        long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+        log.warn("WebSocket load: {} sessions, {} projects | delivered {}/{} in {} s = {} msg/s | latency p50 {} ms, p99 {} ms"
+                + " | ~{} KiB heap per session (client and server share the JVM) | send failures {}",
+                SESSIONS, PROJECTS, delivered.get(), expected, String.format("%.2f", elapsedSeconds),
+                String.format("%.0f", delivered.get() / elapsedSeconds),
+                String.format("%.1f", percentile(sorted, 0.50) / 1000.0), String.format("%.1f", percentile(sorted, 0.99) / 1000.0),
+                heapPerSession / 1024, sendFailures());
+
+        assertThat(delivered.get()).as("delivered frames").isEqualTo(expected);
+    }
+
+    private void onFrame(String text, CountDownLatch subscribed) {
+        try {
+            JsonNode json = objectMapper.readTree(text);
+            if (json.has("eventType")) {
+                Instant produced = Instant.parse(json.get("timestamp").asText());
+                latenciesMicros.add(Duration.between(produced, Instant.now()).toNanos() / 1000);
+                delivered.incrementAndGet();
+            } else if ("subscribed".equals(json.path("type").asText())) {
+                subscribed.countDown();
+            }
+        } catch (Exception e) {
+            log.warn("Unparseable frame: {}", text);
+        }
+    }
+
+    private KafkaTemplate<String, EventEnvelope<?>> producer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
+        props.put(JsonSerializer.TYPE_MAPPINGS, "eventEnvelope:com.pm.commoncontracts.envelope.EventEnvelope");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    private double sendFailures() {
+        return meterRegistry.find(WebSocketMetrics.SEND_FAILURES).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static String projectId(int index) {
+        return "load-project-" + index;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,114 @@
+package com.pm.websocketservice.presence;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.FrameCodec;
+import com.pm.websocketservice.service.SubscriptionRegistry;
+import com.pm.websocketservice.service.TopicReplayBuffer;
+import com.pm.websocketservice.service.WebSocketMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for PresenceTracker snapshots and cross-instance merging
+ */
+public class PresenceTrackerTest {
+
+    private final WebSocketMetrics metrics = new WebSocketMetrics(new SimpleMeterRegistry());
+    private final SubscriptionRegistry registry = new SubscriptionRegistry(
+            new FrameCodec(new ObjectMapper().registerModule(new JavaTimeModule())), new TopicReplayBuffer(10, 10), metrics, 16, 0);
+    @SuppressWarnings("unchecked")
+    private final ReactiveKafkaProducerTemplate<String, PresenceState> producer = mock(ReactiveKafkaProducerTemplate.class);
+    private final PresenceTracker tracker = new PresenceTracker(registry, producer, ReceiverOptions.create(),
+            "websocket-presence", Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(90));
+
+    @BeforeEach
+    void setUp() {
+        when(producer.send(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        registry.addListener(tracker);
+    }
+
+    @Test
+    void testJoinsAreCoalescedIntoOneSnapshotPerFlush() {
+        ClientSession alice = client("alice");
+        ClientSession aliceTab = client("alice");
+        ClientSession bob = client("bob");
+        registry.addSubscription("project:1", alice);
+        registry.addSubscription("project:1", aliceTab);
+        registry.addSubscription("project:1", bob);
+        int queuedBefore = bob.queueDepth();
+
+        tracker.flush();
+        tracker.flush();
+
+        assertThat(tracker.viewers("project:1")).containsExactly("alice", "bob");
+        assertThat(bob.queueDepth()).isEqualTo(queuedBefore + 1);
+
+        // Closing one of alice's tabs changes nothing; closing the last one does
+        registry.removeSubscription("project:1", aliceTab);
+        tracker.flush();
+        assertThat(bob.queueDepth()).isEqualTo(queuedBefore + 1);
+        registry.removeSubscription("project:1", alice);
+        tracker.flush();
+        assertThat(tracker.viewers("project:1")).containsExactly("bob");
+        assertThat(bob.queueDepth()).isEqualTo(queuedBefore + 2);
+
+        // The last local viewer leaving withdraws this instance's state with a tombstone
+        registry.removeSubscription("project:1", bob);
+        tracker.flush();
+        verify(producer).send(eq("websocket-presence"), anyString(), isNull());
+    }
+
+    @Test
+    void testRemoteViewersAreMergedUntilWithdrawn() {
+        ClientSession bob = client("bob");
+        registry.addSubscription("task:7", bob);
+        tracker.flush();
+
+        tracker.applyRemote("other-instance|task:7",
+                new PresenceState("other-instance", "task:7", Set.of("carol"), System.currentTimeMillis()));
+        assertThat(tracker.viewers("task:7")).containsExactly("bob", "carol");
+
+        tracker.applyRemote("other-instance|task:7", null);
+        assertThat(tracker.viewers("task:7")).containsExactly("bob");
+
+        tracker.applyRemote("stale-instance|task:7",
+                new PresenceState("stale-instance", "task:7", Set.of("dave"), System.currentTimeMillis() - Duration.ofMinutes(5).toMillis()));
+        assertThat(tracker.viewers("task:7")).containsExactly("bob");
+    }
+
+    @Test
+    void testWildcardAndAnonymousSubscriptionsAreNotViewers() {
+        registry.addSubscription("project:1/task/*", client("alice"));
+        registry.addSubscription("project:1", client(null));
+
+        assertThat(tracker.viewers("project:1")).isEmpty();
+        assertThat(tracker.viewers("project:1/task/*")).isEmpty();
+    }
+
+    private ClientSession client(String userId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        return new ClientSession(session, 16, userId, false, metrics);
+    }
+}
@@ -0,0 +1,97 @@
+package com.pm.websocketservice.security;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.pm.commoncontracts.dto.ProjectDto;
+import com.pm.websocketservice.service.ClientSession;
+import com.pm.websocketservice.service.ControlFrame;
+import com.pm.websocketservice.service.WebSocketMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for TopicAuthorizer and the membership cache behind it
+ */
+public class TopicAuthorizerTest {
+
+    private final ProjectMembershipCache membershipCache = new ProjectMembershipCache();
+    private final TopicAuthorizer authorizer = new TopicAuthorizer(membershipCache);
+
+    @Test
+    void testUserTopicOnlyForSameUser() {
+        ClientSession alice = client("alice", false);
+
+        assertThat(authorizer.checkSubscribe(alice, "user:alice")).isNull();
+        assertThat(authorizer.checkSubscribe(alice, "user:bob")).isEqualTo(ControlFrame.FORBIDDEN);
+        assertThat(authorizer.checkSubscribe(alice, "user:alice2")).isEqualTo(ControlFrame.FORBIDDEN);
+        assertThat(authorizer.checkSubscribe(client(null, false), "user:alice")).isEqualTo(ControlFrame.UNAUTHENTICATED);
+    }
+
+    @Test
+    void testProjectAndTaskTopicsRequireMembership() {
+        membershipCache.putProject(project("p1", "owner", List.of("alice")));
+        membershipCache.putTask("t1", "p1");
+
+        assertThat(authorizer.canSubscribe(client("alice", false), "project:p1/task/*")).isTrue();
+        assertThat(authorizer.canSubscribe(client("owner", false), "task:t1")).isTrue();
+        assertThat(authorizer.canSubscribe(client("bob", false), "project:p1")).isFalse();
+        assertThat(authorizer.canSubscribe(client("bob", false), "task:t1")).isFalse();
+        assertThat(authorizer.canSubscribe(client("alice", false), "task:unknown")).isFalse();
+        assertThat(authorizer.canSubscribe(client("bob", true), "project:p1")).isTrue();
+        assertThat(authorizer.canSubscribe(client("alice", false), "other:p1")).isFalse();
+    }
+
+    @Test
+    void testMembershipChangesReportRemovedUsers() {
+        membershipCache.putProject(project("p1", "owner", List.of("alice", "bob")));
+
+        assertThat(membershipCache.putProject(project("p1", "owner", List.of("bob")))).containsExactly("alice");
+        assertThat(membershipCache.isMember("p1", "alice")).isFalse();
+        assertThat(membershipCache.isMember("p1", "bob")).isTrue();
+
+        membershipCache.removeUser("bob");
+        assertThat(membershipCache.isMember("p1", "bob")).isFalse();
+
+        assertThat(membershipCache.removeProject("p1")).containsExactly("owner");
+        assertThat(membershipCache.isMember("p1", "owner")).isFalse();
+    }
+
+    @Test
+    void testMemberDeltasApplyWithoutAFullSnapshot() {
+        membershipCache.putProject(project("p1", "owner", List.of("alice")));
+
+        membershipCache.addMember("p1", "carol");
+        membershipCache.addMember("unknown", "carol");
+        assertThat(membershipCache.isMember("p1", "carol")).isTrue();
+        assertThat(membershipCache.isMember("unknown", "carol")).isFalse();
+
+        assertThat(membershipCache.removeMember("p1", "alice")).isTrue();
+        assertThat(membershipCache.removeMember("p1", "alice")).isFalse();
+        assertThat(membershipCache.isMember("p1", "alice")).isFalse();
+        assertThat(membershipCache.isMember("p1", "carol")).isTrue();
+
+        // The owner keeps access even if also listed as a member and removed
+        assertThat(membershipCache.removeMember("p1", "owner")).isFalse();
+        assertThat(membershipCache.isMember("p1", "owner")).isTrue();
+
+        // Once ownership moves on, the previous owner can be removed like anyone else
+        membershipCache.transferOwnership("p1", "owner", "carol");
+        assertThat(membershipCache.removeMember("p1", "carol")).isFalse();
+        assertThat(membershipCache.removeMember("p1", "owner")).isTrue();
+        assertThat(membershipCache.isMember("p1", "owner")).isFalse();
+    }
+
+    private static ProjectDto project(String id, String ownerId, List<String> memberIds) {
+        return ProjectDto.builder().id(id).ownerId(ownerId).memberIds(memberIds).build();
+    }
+
+    private static ClientSession client(String userId, boolean admin) {
+        return new ClientSession(mock(WebSocketSession.class), 4, userId, admin, new WebSocketMetrics(new SimpleMeterRegistry()));
+    }
+}
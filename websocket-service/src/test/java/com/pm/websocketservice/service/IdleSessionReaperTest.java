@@ -0,0 +1,94 @@
+package com.pm.websocketservice.service;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for heartbeat pings, idle reaping and per-user session limits
+ */
+public class IdleSessionReaperTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketMetrics metrics = new WebSocketMetrics(meterRegistry);
+    private final SubscriptionRegistry registry = new SubscriptionRegistry(
+            new FrameCodec(new ObjectMapper().registerModule(new JavaTimeModule())), new TopicReplayBuffer(10, 10), metrics, 16, 2);
+    // Ping after 2 ticks of silence, close after 4
+    private final IdleSessionReaper reaper = new IdleSessionReaper(registry,
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4));
+
+    @Test
+    void testQuietSessionsArePingedThenClosed() {
+        WebSocketSession quiet = socket("quiet");
+        WebSocketSession chatty = socket("chatty");
+        ClientSession quietClient = registry.register(quiet);
+        ClientSession chattyClient = registry.register(chatty);
+        registry.addSubscription("project:1", quietClient);
+        registry.addSubscription("project:1", chattyClient);
+        reaper.track(quietClient);
+        reaper.track(chattyClient);
+
+        long start = System.currentTimeMillis();
+        for (int second = 1; second <= 6; second++) {
+            long now = start + second * 1000L;
+            chattyClient.touch(now);
+            reaper.tick(now);
+        }
+
+        verify(quiet, times(1)).pingMessage(any());
+        verify(quiet).close(IdleSessionReaper.IDLE_STATUS);
+        assertThat(registry.findSession("quiet")).isNull();
+        assertThat(quietClient.getSubscriptions()).isEmpty();
+
+        verify(chatty, never()).close(any());
+        assertThat(registry.findSession("chatty")).isSameAs(chattyClient);
+        assertThat(reaper.trackedSessions()).isEqualTo(1);
+        assertThat(meterRegistry.get(WebSocketMetrics.SESSIONS_REAPED).tag("reason", WebSocketMetrics.REAPED_IDLE)
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testOldestSessionIsEvictedOverThePerUserLimit() {
+        WebSocketSession first = socket("first", "alice");
+        registry.register(first);
+        registry.register(socket("second", "alice"));
+        registry.register(socket("bob-1", "bob"));
+        registry.register(socket("third", "alice"));
+
+        verify(first).close(SubscriptionRegistry.SESSION_LIMIT_STATUS);
+        assertThat(registry.findSession("first")).isNull();
+        assertThat(registry.userSessionCount("alice")).isEqualTo(2);
+        assertThat(registry.userSessionCount("bob")).isEqualTo(1);
+    }
+
+    private static WebSocketSession socket(String id) {
+        return socket(id, id);
+    }
+
+    private static WebSocketSession socket(String id, String userId) {
+        WebSocketSession session = mock(WebSocketSession.class, RETURNS_DEEP_STUBS);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getHandshakeInfo().getHeaders().getFirst("X-User-Id")).thenReturn(userId);
+        when(session.pingMessage(any())).thenReturn(mock(WebSocketMessage.class));
+        when(session.close(any())).thenReturn(Mono.empty());
+        return session;
+    }
+}
@@ -0,0 +1,185 @@
+package com.pm.websocketservice.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.BaseSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for fan-out, originator suppression, event-type filters and
+ * overflow recovery in SubscriptionRegistry
+ */
+public class SubscriptionRegistryTest {
+
+    private final WebSocketMetrics metrics = new WebSocketMetrics(new SimpleMeterRegistry());
+    private final TopicReplayBuffer replayBuffer = new TopicReplayBuffer(10, 10);
+    private final SubscriptionRegistry registry = new SubscriptionRegistry(
+            new FrameCodec(new ObjectMapper().registerModule(new JavaTimeModule())), replayBuffer, metrics, 16, 0);
+
+    @Test
+    void testBatchEnqueuesEachSessionsFramesInOrder() {
+        ClientSession board = client();
+        ClientSession task = client();
+        registry.addSubscription("project:1/task/*", board);
+        registry.addSubscription("project:1/task/7", task);
+        long from = replayBuffer.nextSequence();
+
+        Map<String, List<DispatchEvent>> batch = new LinkedHashMap<>();
+        batch.put("project:1/task/7", List.of(event("a"), event("b")));
+        batch.put("project:1/task/8", List.of(event("c")));
+        batch.put("project:2/task/9", List.of(event("d")));
+        registry.sendBatch(batch);
+
+        assertThat(board.queueDepth()).isEqualTo(3);
+        assertThat(task.queueDepth()).isEqualTo(2);
+        // Frames are kept for replay even where nobody is subscribed
+        assertThat(replayBuffer.ring("project:1").framesAfter(from, "project:1")).hasSize(3);
+        assertThat(replayBuffer.ring("project:2").framesAfter(from, "project:2")).hasSize(1);
+    }
+
+    @Test
+    void testBatchReplaysInSequenceOrder() {
+        long from = replayBuffer.nextSequence();
+        Map<String, List<DispatchEvent>> batch = new LinkedHashMap<>();
+        batch.put("project:1/comment", List.of(event("a")));
+        batch.put("project:1/task/7", List.of(event("b")));
+        registry.sendBatch(batch);
+
+        List<OutboundFrame> frames = replayBuffer.ring("project:1").framesAfter(from, "project:1");
+        assertThat(frames).extracting(frame -> ((TopicFrame) frame.value()).envelope().correlationId())
+                .containsExactly("a", "b");
+        assertThat(((TopicFrame) frames.get(0).value()).seq()).isLessThan(((TopicFrame) frames.get(1).value()).seq());
+    }
+
+    @Test
+    void testOriginatorSessionsAreSkippedLiveAndOnReplay() {
+        ClientSession aliceTab = client("alice");
+        ClientSession bob = client("bob");
+        registry.addSubscription("project:1", aliceTab);
+        registry.addSubscription("project:1", bob);
+        long from = replayBuffer.nextSequence();
+
+        registry.sendToTopic("project:1/task/7", event("a", "alice"));
+        registry.sendBatch(Map.of("project:1/task/8", List.of(event("b", "alice"))));
+
+        assertThat(aliceTab.queueDepth()).isZero();
+        assertThat(bob.queueDepth()).isEqualTo(2);
+
+        ClientSession aliceOtherTab = client("alice");
+        registry.subscribe("project:1", aliceOtherTab, from);
+        // Only the "subscribed" acknowledgement, no replayed echo
+        assertThat(aliceOtherTab.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void testEventTypeFiltersApplyLiveAndOnReplay() {
+        ClientSession comments = client();
+        ClientSession board = client();
+        long from = replayBuffer.nextSequence();
+        registry.subscribe("project:1", comments, null, EventTypeFilter.of(List.of("COMMENT_ADDED")));
+        registry.subscribe("project:1", board, null);
+        // A second pattern widens what the session accepts on the topics it covers
+        registry.subscribe("project:1/task/*", comments, null, EventTypeFilter.of(List.of("TASK_UPDATED")));
+
+        registry.sendToTopic("project:1/comment", typed("COMMENT_ADDED"));
+        registry.sendToTopic("project:1/comment", typed("TASK_UPDATED"));
+        registry.sendBatch(Map.of("project:1/task/7", List.of(typed("TASK_UPDATED"), typed("TASK_CREATED"))));
+
+        // Three "subscribed" acknowledgements, then the filtered events
+        assertThat(comments.queueDepth()).isEqualTo(2 + 2);
+        assertThat(board.queueDepth()).isEqualTo(1 + 4);
+
+        ClientSession resumed = client();
+        registry.subscribe("project:1", resumed, from, EventTypeFilter.of(List.of("COMMENT_ADDED")));
+        assertThat(resumed.queueDepth()).isEqualTo(1 + 1);
+    }
+
+    @Test
+    void testOverflowHoldsBackTheSubscriptionUntilItResumes() {
+        ClientSession slow = new ClientSession("sse-slow", 4, null, false, metrics);
+        registry.subscribe("project:1", slow, null);
+        registry.subscribe("user:9", slow, null);
+        // Nobody reads the stream yet, so the queue eventually fills up
+        long lastDelivered = 0;
+        int sent = 0;
+        while (slow.overflowedFrom("project:1") == null) {
+            lastDelivered = replayBuffer.ring("project:1").lastSequence();
+            registry.sendToTopic("project:1/task/" + sent, event("live-" + sent++));
+        }
+        int queued = slow.queueDepth();
+        registry.sendToTopic("project:1/task/late", event("late"));
+
+        // Held back from the first dropped frame on; user:9 is not affected
+        assertThat(slow.overflowedFrom("project:1")).isEqualTo(lastDelivered);
+        assertThat(slow.overflowedFrom("user:9")).isNull();
+
+        List<String> received = new ArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> reader = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(queued);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                received.add(event.data());
+            }
+        };
+        slow.serverSentEvents().subscribe(reader);
+        // The notice goes out once there is room, ahead of anything newer
+        registry.sendToTopic("user:9", event("direct"));
+        reader.request(2);
+
+        assertThat(received).hasSize(queued + 2);
+        assertThat(received.get(queued)).contains("\"type\":\"overflow\"", "\"topic\":\"project:1\"", "\"seq\":" + lastDelivered);
+        assertThat(received.get(queued + 1)).contains("direct");
+
+        registry.subscribe("project:1", slow, lastDelivered);
+        registry.sendToTopic("project:1/task/next", event("next"));
+        reader.request(10);
+
+        // The replay fills the gap exactly once, then live frames flow again
+        assertThat(slow.overflowedFrom("project:1")).isNull();
+        assertThat(received.subList(queued + 2, received.size())).hasSize(4);
+        assertThat(received.get(queued + 2)).contains("live-" + (sent - 1));
+        assertThat(received.get(queued + 3)).contains("late");
+        assertThat(received.get(queued + 4)).contains("\"type\":\"subscribed\"");
+        assertThat(received.get(queued + 5)).contains("next");
+    }
+
+    private ClientSession client() {
+        return client(null);
+    }
+
+    private ClientSession client(String userId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        return new ClientSession(session, 16, userId, false, metrics);
+    }
+
+    private static DispatchEvent typed(String eventType) {
+        return DispatchEvent.of(new EventEnvelope<>("corr", eventType, "test", Map.of()));
+    }
+
+    private static DispatchEvent event(String correlationId, String... excludedUserIds) {
+        return new DispatchEvent(new EventEnvelope<>(correlationId, "TEST_EVENT", "test", Map.of("id", correlationId)),
+                Set.of(excludedUserIds));
+    }
+}
@@ -0,0 +1,53 @@
+package com.pm.websocketservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pm.commoncontracts.dto.NotificationDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.notification.NotificationToSendEventPayload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the outbound frame wire format
+ */
+public class TopicFrameTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final FrameCodec frameCodec = new FrameCodec(objectMapper);
+
+    @Test
+    void testFrameKeepsEnvelopeFieldsAtTopLevel() throws Exception {
+        JsonNode json = objectMapper.readTree(frameCodec.frame(notificationFrame()).text());
+
+        assertThat(json.get("topic").asText()).isEqualTo("user:u1");
+        assertThat(json.get("seq").asLong()).isEqualTo(7L);
+        assertThat(json.get("eventType").asText()).isEqualTo(NotificationToSendEventPayload.EVENT_TYPE);
+        assertThat(json.get("correlationId").asText()).isEqualTo("corr-1");
+        assertThat(json.path("payload").path("notification").path("id").asText()).isEqualTo("n1");
+        assertThat(json.path("payload").has("@class")).isTrue();
+    }
+
+    @Test
+    void testCborFrameOmitsPayloadClassName() throws Exception {
+        byte[] cbor = frameCodec.frame(notificationFrame()).binary(FrameEncoding.CBOR);
+        JsonNode json = new CBORMapper().readTree(cbor);
+
+        assertThat(json.get("seq").asLong()).isEqualTo(7L);
+        assertThat(json.get("timestamp").isTextual()).isTrue();
+        assertThat(json.path("payload").path("notification").path("id").asText()).isEqualTo("n1");
+        assertThat(json.path("payload").has("@class")).isFalse();
+    }
+
+    private TopicFrame notificationFrame() {
+        NotificationDto notification = NotificationDto.builder().id("n1").recipientUserId("u1").build();
+        EventEnvelope<NotificationToSendEventPayload> envelope = new EventEnvelope<>(
+                "corr-1", NotificationToSendEventPayload.EVENT_TYPE, "notification-service",
+                new NotificationToSendEventPayload(notification, "corr-1"));
+        return new TopicFrame("user:u1", 7L, envelope);
+    }
+}
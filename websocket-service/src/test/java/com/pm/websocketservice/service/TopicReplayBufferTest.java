@@ -0,0 +1,110 @@
+package com.pm.websocketservice.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for TopicReplayBuffer replay and eviction behaviour
+ */
+public class TopicReplayBufferTest {
+
+    private static final String TOPIC = "project:1";
+
+    private final FrameCodec frameCodec = new FrameCodec(new ObjectMapper());
+    private final Map<String, OutboundFrame> frames = new HashMap<>();
+    private TopicReplayBuffer replayBuffer;
+
+    @BeforeEach
+    void setUp() {
+        replayBuffer = new TopicReplayBuffer(3, 2);
+    }
+
+    @Test
+    void testReplaysFramesAfterResumePoint() {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(TOPIC);
+        long first = append(ring, "a");
+        long second = append(ring, "b");
+        append(ring, "c");
+
+        assertThat(ring.framesAfter(first, TOPIC)).containsExactly(frame("b"), frame("c"));
+        assertThat(ring.framesAfter(second, TOPIC)).containsExactly(frame("c"));
+        assertThat(ring.framesAfter(ring.lastSequence(), TOPIC)).isEmpty();
+    }
+
+    @Test
+    void testResumeFromHeadOfEmptyRing() {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(TOPIC);
+        long head = ring.lastSequence();
+        append(ring, "a");
+
+        assertThat(ring.framesAfter(head, TOPIC)).containsExactly(frame("a"));
+    }
+
+    @Test
+    void testEvictedGapRequiresResync() {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(TOPIC);
+        long first = append(ring, "a");
+        long second = append(ring, "b");
+        append(ring, "c");
+        append(ring, "d"); // overwrites "a"
+
+        assertThat(ring.framesAfter(first, TOPIC)).containsExactly(frame("b"), frame("c"), frame("d"));
+        assertThat(ring.framesAfter(first - 1, TOPIC)).isNull();
+        assertThat(ring.framesAfter(second, TOPIC)).containsExactly(frame("c"), frame("d"));
+    }
+
+    @Test
+    void testSequenceFromPreviousInstanceIsEvicted() {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(TOPIC);
+        append(ring, "a");
+
+        assertThat(ring.framesAfter(42L, TOPIC)).isNull();
+    }
+
+    @Test
+    void testStalestTopicEvictedWhenFull() {
+        TopicReplayBuffer.TopicRing stale = replayBuffer.ring(TOPIC);
+        append(stale, "a");
+        TopicReplayBuffer.TopicRing fresh = replayBuffer.ring("project:2");
+        append(fresh, "b");
+
+        replayBuffer.ring("project:3");
+
+        assertThat(replayBuffer.ring("project:2")).isSameAs(fresh);
+        assertThat(replayBuffer.ring(TOPIC)).isNotSameAs(stale);
+    }
+
+    @Test
+    void testReplayFiltersByPattern() {
+        TopicReplayBuffer.TopicRing ring = replayBuffer.ring(TOPIC);
+        long head = ring.lastSequence();
+        append(ring, "project:1/task/7", "a");
+        append(ring, "project:1/comment", "b");
+        append(ring, "project:1/task/8", "c");
+
+        assertThat(ring.framesAfter(head, "project:1/task/*")).containsExactly(frame("a"), frame("c"));
+        assertThat(ring.framesAfter(head, "project:1/task/8")).containsExactly(frame("c"));
+        assertThat(ring.framesAfter(head, TOPIC)).containsExactly(frame("a"), frame("b"), frame("c"));
+    }
+
+    private long append(TopicReplayBuffer.TopicRing ring, String name) {
+        return append(ring, TOPIC, name);
+    }
+
+    private long append(TopicReplayBuffer.TopicRing ring, String topic, String name) {
+        long seq = replayBuffer.nextSequence();
+        ring.append(seq, topic, frame(name));
+        return seq;
+    }
+
+    private OutboundFrame frame(String name) {
+        return frames.computeIfAbsent(name, frameCodec::frame);
+    }
+}
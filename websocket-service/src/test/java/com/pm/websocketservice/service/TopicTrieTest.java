@@ -0,0 +1,67 @@
+package com.pm.websocketservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for hierarchical topic matching in TopicTrie
+ */
+public class TopicTrieTest {
+
+    private final TopicTrie trie = new TopicTrie();
+    private final ClientSession board = client();
+    private final ClientSession project = client();
+    private final ClientSession task = client();
+
+    @Test
+    void testWildcardAndAncestorSubscriptionsMatch() {
+        trie.add("project:1/task/*", board);
+        trie.add("project:1", project);
+        trie.add("project:1/task/7", task);
+
+        assertThat(trie.match("project:1/task/7")).containsExactlyInAnyOrder(board, project, task);
+        assertThat(trie.match("project:1/task/8/comment")).containsExactlyInAnyOrder(board, project);
+        assertThat(trie.match("project:1/comment")).containsExactly(project);
+        assertThat(trie.match("project:2/task/7")).isEmpty();
+    }
+
+    @Test
+    void testSessionMatchedOnceAcrossPatterns() {
+        trie.add("project:1", board);
+        trie.add("project:1/task/*", board);
+
+        assertThat(trie.match("project:1/task/7")).containsExactly(board);
+    }
+
+    @Test
+    void testRemovePrunesEmptyNodes() {
+        trie.add("project:1/task/*", board);
+        trie.add("project:1/task/7", task);
+
+        assertThat(trie.remove("project:1/task/*", board)).isTrue();
+        assertThat(trie.remove("project:1/task/*", board)).isFalse();
+        assertThat(trie.match("project:1/task/7")).containsExactly(task);
+
+        trie.remove("project:1/task/7", task);
+        assertThat(trie.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testPatternValidation() {
+        assertThat(Topics.isValidPattern("project:1/task/*")).isTrue();
+        assertThat(Topics.isValidPattern("user:u1")).isTrue();
+        assertThat(Topics.isValidPattern("*/task/7")).isFalse();
+        assertThat(Topics.isValidPattern("project:1//task")).isFalse();
+        assertThat(Topics.isValidPattern("project:1/task/")).isFalse();
+        assertThat(Topics.isValidPattern("project:1/ta*")).isFalse();
+    }
+
+    private static ClientSession client() {
+        return new ClientSession(mock(WebSocketSession.class), 4, null, false, new WebSocketMetrics(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.pm.websocketservice.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.pm.commoncontracts.domain.ParentType;
+import com.pm.commoncontracts.dto.CommentDto;
+import com.pm.commoncontracts.dto.TaskDto;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+import com.pm.commoncontracts.events.comment.CommentAddedEventPayload;
+import com.pm.commoncontracts.events.comment.CommentDeletedEventPayload;
+import com.pm.commoncontracts.events.task.TaskStatusChangedEventPayload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the WebSocket topics the dispatcher derives from events
+ */
+public class WebSocketEventDispatcherTest {
+
+    private final WebSocketEventDispatcher dispatcher =
+            new WebSocketEventDispatcher(List.of(), mock(SubscriptionRegistry.class), true);
+
+    @Test
+    void testTaskEventsGoBelowTheProjectAndToTheTaskTopic() {
+        TaskDto task = TaskDto.builder().id("t1").projectId("p1").build();
+
+        assertThat(dispatcher.resolveTopics("project:p1", envelope(new TaskStatusChangedEventPayload(task))))
+                .containsExactly("project:p1/task/t1", "task:t1");
+    }
+
+    @Test
+    void testTaskCommentsGoBelowTheProjectTaskAndToTheTaskTopic() {
+        CommentDto comment = CommentDto.builder().id("c1").parentType(ParentType.TASK).parentId("t1")
+                .projectId("p1").build();
+
+        assertThat(dispatcher.resolveTopics("task:t1", envelope(new CommentAddedEventPayload(comment))))
+                .containsExactly("project:p1/task/t1/comment", "task:t1/comment");
+        assertThat(dispatcher.resolveTopics("task:t1", envelope(Map.of("commentDto",
+                Map.of("parentType", "TASK", "parentId", "t1", "projectId", "p1")))))
+                .containsExactly("project:p1/task/t1/comment", "task:t1/comment");
+    }
+
+    @Test
+    void testTaskCommentsWithoutProjectOnlyGoToTheTaskTopic() {
+        CommentDto comment = CommentDto.builder().id("c1").parentType(ParentType.TASK).parentId("t1").build();
+
+        assertThat(dispatcher.resolveTopics("task:t1", envelope(new CommentDeletedEventPayload(comment))))
+                .containsExactly("task:t1/comment");
+    }
+
+    @Test
+    void testProjectCommentsGoBelowTheProject() {
+        CommentDto comment = CommentDto.builder().id("c1").parentType(ParentType.PROJECT).parentId("p1").build();
+
+        assertThat(dispatcher.resolveTopics("project:p1", envelope(new CommentAddedEventPayload(comment))))
+                .containsExactly("project:p1/comment");
+        assertThat(dispatcher.resolveTopics("project:p1", envelope(Map.of("commentDto",
+                Map.of("parentType", "PROJECT", "parentId", "p1")))))
+                .containsExactly("project:p1/comment");
+    }
+
+    @Test
+    void testRecordKeyIsTheFallbackTopic() {
+        assertThat(dispatcher.resolveTopics("task:t1", envelope(Map.of()))).containsExactly("task:t1");
+        assertThat(dispatcher.resolveTopics("projects", envelope(Map.of()))).isEmpty();
+    }
+
+    private static EventEnvelope<?> envelope(Object payload) {
+        return new EventEnvelope<>("corr", "TEST", "test", payload);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pm.websocketservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.commoncontracts.envelope.EventEnvelope;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for WebSocketMetrics tagging and replay exclusion
+ */
+public class WebSocketMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketMetrics metrics = new WebSocketMetrics(meterRegistry);
+    private final FrameCodec frameCodec = new FrameCodec(new ObjectMapper());
+
+    @Test
+    void testDeliveryLatencyTaggedByTopicTypeAndSkipsReplays() {
+        OutboundFrame frame = frameCodec.frame(new TopicFrame("project:42/task/7", 1L, envelope()));
+
+        metrics.recordDelivery(frame, FrameEncoding.JSON);
+        metrics.recordDelivery(frame.asReplay(), FrameEncoding.JSON);
+
+        assertThat(meterRegistry.get(WebSocketMetrics.DELIVERY_LATENCY)
+                .tag("topic.type", "project").tag("encoding", "json").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFanoutAndFailuresUseLowCardinalityTags() {
+        metrics.recordFanout("user:u1", 2);
+        metrics.recordFanout("custom", 0);
+        metrics.recordSendFailure(WebSocketMetrics.FAILURE_QUEUE_FULL);
+        metrics.sessionOpened();
+
+        assertThat(meterRegistry.get(WebSocketMetrics.FANOUT_SIZE).tag("topic.type", "user").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(WebSocketMetrics.FANOUT_SIZE).tag("topic.type", "other").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(WebSocketMetrics.SEND_FAILURES).tag("reason", "queue_full").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(WebSocketMetrics.SESSIONS).gauge().value()).isEqualTo(1);
+    }
+
+    private static EventEnvelope<String> envelope() {
+        return new EventEnvelope<>("corr-1", "TASK_UPDATED", "task-service", "payload");
+    }
+}